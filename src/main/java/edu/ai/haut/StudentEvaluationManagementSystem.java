@@ -1,9 +1,11 @@
 package edu.ai.haut;
 
 import edu.ai.haut.ui.LoginFrame;
+import edu.ai.haut.util.DatabaseBackup;
 import edu.ai.haut.util.DatabaseUtil;
 
 import javax.swing.*;
+import java.io.File;
 
 /**
  * 学生评教管理系统主程序
@@ -12,14 +14,30 @@ import javax.swing.*;
 public class StudentEvaluationManagementSystem {
     
     public static void main(String[] args) {
+        // 从备份恢复：--restore 备份文件，须在数据库打开前执行
+        if (args.length == 2 && "--restore".equals(args[0])) {
+            System.exit(DatabaseBackup.restore(new File(args[1])) ? 0 : 1);
+        }
+        
         // 使用默认外观
         
+        // 在后台启动数据库，登录界面无需等待，提交登录时才等待数据库就绪
+        System.out.println("学生评教管理系统启动中...");
+        DatabaseUtil.startAsync().exceptionally(e -> {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            SwingUtilities.invokeLater(() -> {
+                JOptionPane.showMessageDialog(null,
+                    "数据库初始化失败: " + cause.getMessage(),
+                    "错误",
+                    JOptionPane.ERROR_MESSAGE);
+                System.exit(1);
+            });
+            return null;
+        });
+        
         // 设置程序在事件调度线程中运行
         SwingUtilities.invokeLater(() -> {
             try {
-                // 初始化数据库（在DatabaseUtil的静态块中已经完成）
-                System.out.println("学生评教管理系统启动中...");
-                
                 // 创建并显示登录界面
                 LoginFrame loginFrame = new LoginFrame();
                 loginFrame.setVisible(true);
@@ -0,0 +1,47 @@
+package edu.ai.haut.model;
+
+import java.io.File;
+import java.time.LocalDateTime;
+
+/**
+ * 数据库备份快照
+ * 对应备份目录中的一个压缩归档文件，创建后不可修改。
+ */
+public final class BackupSnapshot {
+    private final File file;
+    private final LocalDateTime createdAt;
+    private final long sizeBytes;
+    private final long durationMillis;
+
+    /**
+     * @param durationMillis 备份耗时，从备份目录读取的已有快照为-1
+     */
+    public BackupSnapshot(File file, LocalDateTime createdAt, long sizeBytes, long durationMillis) {
+        this.file = file;
+        this.createdAt = createdAt;
+        this.sizeBytes = sizeBytes;
+        this.durationMillis = durationMillis;
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public long getSizeBytes() {
+        return sizeBytes;
+    }
+
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("BackupSnapshot{file='%s', createdAt=%s, sizeBytes=%d}",
+                           file.getName(), createdAt, sizeBytes);
+    }
+}
@@ -0,0 +1,163 @@
+package edu.ai.haut.model;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 评教指标分数集合
+ * 分数按指标序号存放在int数组中，避免为每个指标分配Map条目和Integer对象；
+ * 是否已评分另用位图记录，任何int值都可以作为分数保存。
+ * 指标序号由全局指标编号表分配，只追加不回收，同一进程内保持稳定。
+ */
+public final class CriteriaScores {
+
+    /**
+     * 遍历指标分数的回调
+     */
+    @FunctionalInterface
+    public interface ScoreConsumer {
+        void accept(String criteriaId, int score);
+    }
+
+    // 指标序号 -> 指标编号
+    private static volatile String[] criteriaIds = new String[0];
+
+    private int[] scores;
+    // 已评分的指标序号
+    private final BitSet present = new BitSet();
+
+    public CriteriaScores() {
+        this.scores = new int[Math.max(criteriaIds.length, 8)];
+    }
+
+    /**
+     * 获取指标编号对应的序号，首次出现时分配新序号
+     */
+    public static int ordinalOf(String criteriaId) {
+        return ordinalOf(criteriaId, 0, criteriaId.length());
+    }
+
+    /**
+     * 获取字符区间[start, end)所表示的指标编号的序号，已登记的编号不会产生新对象
+     */
+    public static int ordinalOf(CharSequence text, int start, int end) {
+        String[] ids = criteriaIds;
+        int ordinal = find(ids, text, start, end);
+        return ordinal >= 0 ? ordinal : register(text.subSequence(start, end).toString());
+    }
+
+    /**
+     * 获取序号对应的指标编号
+     */
+    public static String criteriaIdAt(int ordinal) {
+        return criteriaIds[ordinal];
+    }
+
+    private static synchronized int register(String criteriaId) {
+        String[] ids = criteriaIds;
+        int ordinal = find(ids, criteriaId, 0, criteriaId.length());
+        if (ordinal >= 0) {
+            return ordinal;
+        }
+        String[] grown = Arrays.copyOf(ids, ids.length + 1);
+        grown[ids.length] = criteriaId;
+        criteriaIds = grown;
+        return ids.length;
+    }
+
+    private static int find(String[] ids, CharSequence text, int start, int end) {
+        int length = end - start;
+        for (int i = 0; i < ids.length; i++) {
+            String id = ids[i];
+            if (id.length() != length) {
+                continue;
+            }
+            int j = 0;
+            while (j < length && id.charAt(j) == text.charAt(start + j)) {
+                j++;
+            }
+            if (j == length) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 设置某个指标的分数
+     */
+    public void set(String criteriaId, int score) {
+        setByOrdinal(ordinalOf(criteriaId), score);
+    }
+
+    /**
+     * 按指标序号设置分数
+     */
+    public void setByOrdinal(int ordinal, int score) {
+        if (ordinal >= scores.length) {
+            scores = Arrays.copyOf(scores, Math.max(ordinal + 1, scores.length * 2));
+        }
+        scores[ordinal] = score;
+        present.set(ordinal);
+    }
+
+    /**
+     * 获取某个指标的分数，未评分时返回默认值
+     */
+    public int get(String criteriaId, int defaultValue) {
+        int ordinal = find(criteriaIds, criteriaId, 0, criteriaId.length());
+        if (ordinal < 0 || !present.get(ordinal)) {
+            return defaultValue;
+        }
+        return scores[ordinal];
+    }
+
+    public int size() {
+        return present.cardinality();
+    }
+
+    public boolean isEmpty() {
+        return present.isEmpty();
+    }
+
+    /**
+     * 按指标序号顺序遍历已评分的指标
+     */
+    public void forEach(ScoreConsumer consumer) {
+        String[] ids = criteriaIds;
+        for (int i = present.nextSetBit(0); i >= 0; i = present.nextSetBit(i + 1)) {
+            consumer.accept(ids[i], scores[i]);
+        }
+    }
+
+    /**
+     * 转换为Map（指标编号 -> 分数）
+     */
+    public Map<String, Integer> toMap() {
+        Map<String, Integer> map = new LinkedHashMap<>();
+        forEach(map::put);
+        return map;
+    }
+
+    /**
+     * 从Map（指标编号 -> 分数）构建
+     */
+    public static CriteriaScores fromMap(Map<String, Integer> map) {
+        CriteriaScores result = new CriteriaScores();
+        if (map != null) {
+            for (Map.Entry<String, Integer> entry : map.entrySet()) {
+                if (entry.getValue() != null) {
+                    result.set(entry.getKey(), entry.getValue());
+                }
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return toMap().toString();
+    }
+}
@@ -1,12 +1,13 @@
 package edu.ai.haut.model;
 
+import edu.ai.haut.util.CriteriaScoreCodec;
+
 import java.time.LocalDateTime;
-import java.util.HashMap;
 import java.util.Map;
 
 /**
  * 评教记录实体类
- * 对应数据库中的evaluations表
+ * 对应数据库中的evaluations表，各指标分数对应evaluation_scores表
  */
 public class Evaluation {
     
@@ -14,7 +15,6 @@ public class Evaluation {
     private String studentId;      // 学生学号
     private String offeringId;     // 开课编号
     private String periodId;       // 评教周期编号
-    private String criteriaScores; // 各指标分数（JSON格式）
     private double totalScore;     // 总分
     private String comments;       // 评价意见
     private LocalDateTime evaluationDate; // 评教日期
@@ -23,14 +23,14 @@ public class Evaluation {
     private Student student;       // 学生对象
     private CourseOffering courseOffering; // 开课信息对象
     private EvaluationPeriod period; // 评教周期对象
-    private Map<String, Integer> scoreMap; // 分数映射
+    private CriteriaScores scores; // 各指标分数
     
     /**
      * 默认构造函数
      */
     public Evaluation() {
         this.evaluationDate = LocalDateTime.now();
-        this.scoreMap = new HashMap<>();
+        this.scores = new CriteriaScores();
     }
     
     /**
@@ -42,12 +42,10 @@ public class Evaluation {
         this.studentId = studentId;
         this.offeringId = offeringId;
         this.periodId = periodId;
-        this.criteriaScores = criteriaScores;
         this.totalScore = totalScore;
         this.comments = comments;
         this.evaluationDate = LocalDateTime.now();
-        this.scoreMap = new HashMap<>();
-        parseScores();
+        this.scores = CriteriaScoreCodec.parse(criteriaScores);
     }
     
     // Getter和Setter方法
@@ -83,13 +81,18 @@ public class Evaluation {
         this.periodId = periodId;
     }
     
+    /**
+     * 获取各指标分数的JSON表示
+     */
     public String getCriteriaScores() {
-        return criteriaScores;
+        return CriteriaScoreCodec.format(scores);
     }
     
+    /**
+     * 从JSON表示设置各指标分数
+     */
     public void setCriteriaScores(String criteriaScores) {
-        this.criteriaScores = criteriaScores;
-        parseScores();
+        this.scores = CriteriaScoreCodec.parse(criteriaScores);
     }
     
     public double getTotalScore() {
@@ -140,78 +143,37 @@ public class Evaluation {
         this.period = period;
     }
     
-    public Map<String, Integer> getScoreMap() {
-        return scoreMap;
+    public CriteriaScores getScores() {
+        return scores;
     }
     
-    public void setScoreMap(Map<String, Integer> scoreMap) {
-        this.scoreMap = scoreMap;
-        buildScoresString();
+    public void setScores(CriteriaScores scores) {
+        this.scores = scores != null ? scores : new CriteriaScores();
     }
     
     /**
-     * 解析分数字符串为Map
+     * 获取各指标分数的Map副本（指标编号 -> 分数）
      */
-    private void parseScores() {
-        scoreMap.clear();
-        if (criteriaScores == null || criteriaScores.trim().isEmpty()) {
-            return;
-        }
-
-        try {
-            String data = criteriaScores.trim();
-            // 统一处理JSON和简单格式
-            if (data.startsWith("{") && data.endsWith("}")) {
-                data = data.substring(1, data.length() - 1); // 移除大括号
-            }
-
-            // 解析键值对
-            for (String pair : data.split(",")) {
-                String[] parts = pair.split(":");
-                if (parts.length == 2) {
-                    String key = parts[0].trim().replaceAll("\"", "");
-                    String value = parts[1].trim().replaceAll("\"", "");
-                    scoreMap.put(key, Integer.parseInt(value));
-                }
-            }
-        } catch (Exception e) {
-            System.err.println("解析评分数据时出错: " + e.getMessage());
-        }
+    public Map<String, Integer> getScoreMap() {
+        return scores.toMap();
     }
     
-    /**
-     * 构建分数字符串（JSON格式）
-     */
-    private void buildScoresString() {
-        if (scoreMap.isEmpty()) {
-            criteriaScores = "";
-            return;
-        }
-
-        StringBuilder sb = new StringBuilder("{");
-        boolean first = true;
-        for (Map.Entry<String, Integer> entry : scoreMap.entrySet()) {
-            if (!first) sb.append(",");
-            sb.append("\"").append(entry.getKey()).append("\":").append(entry.getValue());
-            first = false;
-        }
-        sb.append("}");
-        criteriaScores = sb.toString();
+    public void setScoreMap(Map<String, Integer> scoreMap) {
+        this.scores = CriteriaScores.fromMap(scoreMap);
     }
     
     /**
      * 设置某个指标的分数
      */
     public void setScore(String criteriaId, int score) {
-        scoreMap.put(criteriaId, score);
-        buildScoresString();
+        scores.set(criteriaId, score);
     }
     
     /**
      * 获取某个指标的分数
      */
     public int getScore(String criteriaId) {
-        return scoreMap.getOrDefault(criteriaId, 0);
+        return scores.get(criteriaId, 0);
     }
     
     /**
@@ -0,0 +1,99 @@
+package edu.ai.haut.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * 评教记录的列表行
+ * 只包含列表显示所需的字段，课程、教师、班级和周期以名称保存，不构建关联对象，创建后不可修改。
+ * 同时作为分页游标：把上一页的最后一行传回查询方法即可取下一页。
+ */
+public final class EvaluationRow {
+    private final String evaluationId;
+    private final String studentId;
+    private final String offeringId;
+    private final String periodId;
+    private final String courseName;
+    private final String teacherName;
+    private final String className;
+    private final String periodName;
+    private final double totalScore;
+    private final String comments;
+    private final LocalDateTime evaluationDate;
+
+    public EvaluationRow(String evaluationId, String studentId, String offeringId, String periodId,
+                         String courseName, String teacherName, String className, String periodName,
+                         double totalScore, String comments, LocalDateTime evaluationDate) {
+        this.evaluationId = evaluationId;
+        this.studentId = studentId;
+        this.offeringId = offeringId;
+        this.periodId = periodId;
+        this.courseName = courseName;
+        this.teacherName = teacherName;
+        this.className = className;
+        this.periodName = periodName;
+        this.totalScore = totalScore;
+        this.comments = comments;
+        this.evaluationDate = evaluationDate;
+    }
+
+    public String getEvaluationId() {
+        return evaluationId;
+    }
+
+    public String getStudentId() {
+        return studentId;
+    }
+
+    public String getOfferingId() {
+        return offeringId;
+    }
+
+    public String getPeriodId() {
+        return periodId;
+    }
+
+    public String getCourseName() {
+        return courseName;
+    }
+
+    public String getTeacherName() {
+        return teacherName;
+    }
+
+    public String getClassName() {
+        return className;
+    }
+
+    public String getPeriodName() {
+        return periodName;
+    }
+
+    public double getTotalScore() {
+        return totalScore;
+    }
+
+    public String getComments() {
+        return comments;
+    }
+
+    public LocalDateTime getEvaluationDate() {
+        return evaluationDate;
+    }
+
+    /**
+     * 获取评教等级
+     */
+    public String getGrade() {
+        if (totalScore >= 90) return "优秀";
+        else if (totalScore >= 80) return "良好";
+        else if (totalScore >= 70) return "中等";
+        else if (totalScore >= 60) return "及格";
+        else return "不及格";
+    }
+
+    @Override
+    public String toString() {
+        return String.format("EvaluationRow{evaluationId='%s', courseName='%s', teacherName='%s', totalScore=%.1f}",
+                           evaluationId, courseName, teacherName, totalScore);
+    }
+}
@@ -0,0 +1,42 @@
+package edu.ai.haut.model;
+
+/**
+ * 单个开课在某个评教周期的评教分数汇总
+ * 创建后不可修改。
+ */
+public final class OfferingScoreSummary {
+    private final String offeringId;
+    private final int evaluationCount;
+    private final double avgScore;
+    private final double minScore;
+    private final double maxScore;
+
+    public OfferingScoreSummary(String offeringId, int evaluationCount, double avgScore,
+                                double minScore, double maxScore) {
+        this.offeringId = offeringId;
+        this.evaluationCount = evaluationCount;
+        this.avgScore = avgScore;
+        this.minScore = minScore;
+        this.maxScore = maxScore;
+    }
+
+    public String getOfferingId() {
+        return offeringId;
+    }
+
+    public int getEvaluationCount() {
+        return evaluationCount;
+    }
+
+    public double getAvgScore() {
+        return avgScore;
+    }
+
+    public double getMinScore() {
+        return minScore;
+    }
+
+    public double getMaxScore() {
+        return maxScore;
+    }
+}
@@ -0,0 +1,317 @@
+package edu.ai.haut.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 评教统计快照
+ * 一次性汇总某个评教周期的统计报表所需的全部数据，创建后不可修改。
+ */
+public final class StatisticsSnapshot {
+
+    /**
+     * 等级名称，顺序与gradeCounts一致
+     */
+    public static final String[] GRADES = {"优秀", "良好", "中等", "及格", "不及格"};
+
+    /**
+     * 系统各类数据的数量
+     */
+    public static final class SystemCounts {
+        private final int studentCount;
+        private final int teacherCount;
+        private final int staffCount;
+        private final int adminCount;
+        private final int classCount;
+        private final int courseCount;
+        private final int offeringCount;
+        private final int periodCount;
+        private final int evaluationCount;
+
+        public SystemCounts(int studentCount, int teacherCount, int staffCount, int adminCount, int classCount,
+                            int courseCount, int offeringCount, int periodCount, int evaluationCount) {
+            this.studentCount = studentCount;
+            this.teacherCount = teacherCount;
+            this.staffCount = staffCount;
+            this.adminCount = adminCount;
+            this.classCount = classCount;
+            this.courseCount = courseCount;
+            this.offeringCount = offeringCount;
+            this.periodCount = periodCount;
+            this.evaluationCount = evaluationCount;
+        }
+
+        public int getStudentCount() {
+            return studentCount;
+        }
+
+        public int getTeacherCount() {
+            return teacherCount;
+        }
+
+        public int getStaffCount() {
+            return staffCount;
+        }
+
+        public int getAdminCount() {
+            return adminCount;
+        }
+
+        public int getClassCount() {
+            return classCount;
+        }
+
+        public int getCourseCount() {
+            return courseCount;
+        }
+
+        public int getOfferingCount() {
+            return offeringCount;
+        }
+
+        public int getPeriodCount() {
+            return periodCount;
+        }
+
+        public int getEvaluationCount() {
+            return evaluationCount;
+        }
+    }
+
+    /**
+     * 单个教师或课程的评教统计
+     */
+    public static final class GroupStatistics {
+        private final String id;
+        private final String name;
+        private final String category;    // 教师职称或课程类型
+        private final String college;
+        private final int offeringCount;
+        private final int evaluationCount;
+        private final double avgScore;
+        private final double minScore;
+        private final double maxScore;
+        private final double stdDevScore;
+
+        public GroupStatistics(String id, String name, String category, String college, int offeringCount,
+                               int evaluationCount, double avgScore, double minScore, double maxScore,
+                               double stdDevScore) {
+            this.id = id;
+            this.name = name;
+            this.category = category;
+            this.college = college;
+            this.offeringCount = offeringCount;
+            this.evaluationCount = evaluationCount;
+            this.avgScore = avgScore;
+            this.minScore = minScore;
+            this.maxScore = maxScore;
+            this.stdDevScore = stdDevScore;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getCategory() {
+            return category;
+        }
+
+        public String getCollege() {
+            return college;
+        }
+
+        public int getOfferingCount() {
+            return offeringCount;
+        }
+
+        public int getEvaluationCount() {
+            return evaluationCount;
+        }
+
+        public double getAvgScore() {
+            return avgScore;
+        }
+
+        public double getMinScore() {
+            return minScore;
+        }
+
+        public double getMaxScore() {
+            return maxScore;
+        }
+
+        public double getStdDevScore() {
+            return stdDevScore;
+        }
+    }
+
+    private static final Comparator<GroupStatistics> RANKING_ORDER =
+            Comparator.comparingDouble(GroupStatistics::getAvgScore).reversed()
+                    .thenComparing(Comparator.comparingInt(GroupStatistics::getEvaluationCount).reversed());
+
+    private final String periodId;
+    private final SystemCounts systemCounts;
+    private final int participatedStudents;
+    private final int totalEvaluations;
+    private final double overallAvgScore;
+    private final int[] gradeCounts;
+    private final List<GroupStatistics> teachers;
+    private final List<GroupStatistics> courses;
+
+    /**
+     * @param scoreSum 本周期所有评教总分之和
+     * @param gradeCounts 各等级评教数，顺序同GRADES
+     */
+    public StatisticsSnapshot(String periodId, SystemCounts systemCounts, int participatedStudents,
+                              double scoreSum, int[] gradeCounts,
+                              List<GroupStatistics> teachers, List<GroupStatistics> courses) {
+        this.periodId = periodId;
+        this.systemCounts = systemCounts;
+        this.participatedStudents = participatedStudents;
+        this.gradeCounts = gradeCounts.clone();
+
+        int total = 0;
+        for (int count : this.gradeCounts) {
+            total += count;
+        }
+        this.totalEvaluations = total;
+        this.overallAvgScore = total > 0 ? scoreSum / total : 0;
+
+        this.teachers = sortedCopy(teachers);
+        this.courses = sortedCopy(courses);
+    }
+
+    private static List<GroupStatistics> sortedCopy(List<GroupStatistics> groups) {
+        List<GroupStatistics> copy = new ArrayList<>(groups);
+        copy.sort(RANKING_ORDER);
+        return Collections.unmodifiableList(copy);
+    }
+
+    public String getPeriodId() {
+        return periodId;
+    }
+
+    public SystemCounts getSystemCounts() {
+        return systemCounts;
+    }
+
+    public int getTotalStudents() {
+        return systemCounts.getStudentCount();
+    }
+
+    public int getParticipatedStudents() {
+        return participatedStudents;
+    }
+
+    /**
+     * 学生参与率（百分比）
+     */
+    public double getParticipationRate() {
+        int total = getTotalStudents();
+        return total > 0 ? (double) participatedStudents / total * 100 : 0;
+    }
+
+    public int getTotalEvaluations() {
+        return totalEvaluations;
+    }
+
+    /**
+     * 本周期所有评教的平均分
+     */
+    public double getOverallAvgScore() {
+        return overallAvgScore;
+    }
+
+    /**
+     * 获取某个等级的评教数
+     */
+    public int getGradeCount(String grade) {
+        for (int i = 0; i < GRADES.length; i++) {
+            if (GRADES[i].equals(grade)) {
+                return gradeCounts[i];
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * 获取某个等级的评教数占比（百分比）
+     */
+    public double getGradeRate(String grade) {
+        return totalEvaluations > 0 ? getGradeCount(grade) * 100.0 / totalEvaluations : 0;
+    }
+
+    /**
+     * 等级分布（等级 -> 评教数），按等级从高到低排列
+     */
+    public Map<String, Integer> getGradeDistribution() {
+        Map<String, Integer> distribution = new LinkedHashMap<>();
+        for (int i = 0; i < GRADES.length; i++) {
+            distribution.put(GRADES[i], gradeCounts[i]);
+        }
+        return Collections.unmodifiableMap(distribution);
+    }
+
+    /**
+     * 参与评教的教师，按平均分从高到低排列
+     */
+    public List<GroupStatistics> getTeachers() {
+        return teachers;
+    }
+
+    /**
+     * 参与评教的课程，按平均分从高到低排列
+     */
+    public List<GroupStatistics> getCourses() {
+        return courses;
+    }
+
+    /**
+     * 教师平均分的平均值
+     */
+    public double getTeacherAvgScore() {
+        return averageOf(teachers);
+    }
+
+    /**
+     * 课程平均分的平均值
+     */
+    public double getCourseAvgScore() {
+        return averageOf(courses);
+    }
+
+    /**
+     * 按评教次数过滤并截取排名
+     */
+    public static List<GroupStatistics> ranking(List<GroupStatistics> groups, int minEvaluations, int limit) {
+        List<GroupStatistics> result = new ArrayList<>();
+        for (GroupStatistics group : groups) {
+            if (result.size() >= limit) {
+                break;
+            }
+            if (group.getEvaluationCount() >= minEvaluations) {
+                result.add(group);
+            }
+        }
+        return result;
+    }
+
+    private static double averageOf(List<GroupStatistics> groups) {
+        if (groups.isEmpty()) {
+            return 0;
+        }
+        double sum = 0;
+        for (GroupStatistics group : groups) {
+            sum += group.getAvgScore();
+        }
+        return sum / groups.size();
+    }
+}
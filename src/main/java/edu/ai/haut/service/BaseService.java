@@ -3,9 +3,12 @@ package edu.ai.haut.service;
 import edu.ai.haut.util.DatabaseUtil;
 import edu.ai.haut.util.ValidationUtil;
 
+import java.util.List;
+
 /**
  * 基础服务类
  * 提供通用的CRUD操作和验证方法，减少重复代码
+ * 写操作成功后使对应表的参考数据缓存失效
  */
 public abstract class BaseService {
     
@@ -30,7 +33,11 @@ public abstract class BaseService {
      * 通用的插入操作
      */
     protected boolean insertRecord(String tableName, String[] columns, Object[] values) {
-        return DatabaseUtil.insertRecord(tableName, columns, values);
+        boolean result = DatabaseUtil.insertRecord(tableName, columns, values);
+        if (result) {
+            ReferenceDataCache.getInstance().invalidate(tableName);
+        }
+        return result;
     }
     
     /**
@@ -38,14 +45,33 @@ public abstract class BaseService {
      */
     protected boolean updateRecord(String tableName, String[] setColumns, Object[] setValues, 
                                  String whereColumn, Object whereValue) {
-        return DatabaseUtil.updateRecord(tableName, setColumns, setValues, whereColumn, whereValue);
+        boolean result = DatabaseUtil.updateRecord(tableName, setColumns, setValues, whereColumn, whereValue);
+        if (result) {
+            ReferenceDataCache.getInstance().invalidate(tableName);
+        }
+        return result;
+    }
+    
+    /**
+     * 通用的批量插入操作
+     */
+    protected int bulkInsertRecords(String tableName, String[] columns, List<Object[]> rows) {
+        int inserted = DatabaseUtil.bulkInsert(tableName, columns, rows);
+        if (inserted > 0) {
+            ReferenceDataCache.getInstance().invalidate(tableName);
+        }
+        return inserted;
     }
     
     /**
      * 通用的删除操作
      */
     protected boolean deleteRecord(String tableName, String whereColumn, Object whereValue) {
-        return DatabaseUtil.deleteRecord(tableName, whereColumn, whereValue);
+        boolean result = DatabaseUtil.deleteRecord(tableName, whereColumn, whereValue);
+        if (result) {
+            ReferenceDataCache.getInstance().invalidate(tableName);
+        }
+        return result;
     }
     
     /**
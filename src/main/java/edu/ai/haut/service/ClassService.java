@@ -2,6 +2,7 @@ package edu.ai.haut.service;
 
 import edu.ai.haut.model.ClassRoom;
 import edu.ai.haut.util.DatabaseUtil;
+import edu.ai.haut.util.IdGenerator;
 import edu.ai.haut.util.ValidationUtil;
 
 import java.sql.*;
@@ -18,6 +19,10 @@ public class ClassService extends BaseService {
      * 创建班级
      */
     public boolean createClass(ClassRoom classRoom) {
+        // 未指定班级编号时由系统分配
+        if (classRoom != null && ValidationUtil.isEmpty(classRoom.getClassId())) {
+            classRoom.setClassId(IdGenerator.getInstance().nextId(IdGenerator.CLASS_PREFIX));
+        }
         System.out.println("ClassService.createClass() 开始创建班级...");
         System.out.println("班级信息: " + classRoom.getClassId() + " - " + classRoom.getClassName());
 
@@ -102,6 +107,15 @@ public class ClassService extends BaseService {
         return null;
     }
     
+    /**
+     * 从缓存的班级索引中查找班级，用于只读显示，返回的对象不应修改
+     */
+    public ClassRoom lookupClass(String classId) {
+        return ReferenceDataCache.getInstance()
+            .getIndex(ReferenceDataCache.CLASSES, this::queryAllClasses, ClassRoom::getClassId)
+            .get(classId);
+    }
+    
     /**
      * 根据班级名称获取班级信息
      */
@@ -135,6 +149,13 @@ public class ClassService extends BaseService {
      * 获取所有班级列表
      */
     public List<ClassRoom> getAllClasses() {
+        return ReferenceDataCache.getInstance().getList(ReferenceDataCache.CLASSES, this::queryAllClasses);
+    }
+
+    /**
+     * 从数据库查询所有班级列表
+     */
+    private List<ClassRoom> queryAllClasses() {
         List<ClassRoom> classes = new ArrayList<>();
         
         try {
@@ -245,6 +266,13 @@ public class ClassService extends BaseService {
      * 获取所有专业列表
      */
     public List<String> getAllMajors() {
+        return ReferenceDataCache.getInstance().getList(ReferenceDataCache.CLASSES + ":majors", this::queryAllMajors);
+    }
+
+    /**
+     * 从数据库查询所有专业列表
+     */
+    private List<String> queryAllMajors() {
         List<String> majors = new ArrayList<>();
         
         try {
@@ -269,6 +297,13 @@ public class ClassService extends BaseService {
      * 获取所有年级列表
      */
     public List<String> getAllGrades() {
+        return ReferenceDataCache.getInstance().getList(ReferenceDataCache.CLASSES + ":grades", this::queryAllGrades);
+    }
+
+    /**
+     * 从数据库查询所有年级列表
+     */
+    private List<String> queryAllGrades() {
         List<String> grades = new ArrayList<>();
         
         try {
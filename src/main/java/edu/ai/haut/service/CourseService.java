@@ -2,11 +2,14 @@ package edu.ai.haut.service;
 
 import edu.ai.haut.model.*;
 import edu.ai.haut.util.DatabaseUtil;
+import edu.ai.haut.util.EvaluationAggregates;
 import edu.ai.haut.util.ValidationUtil;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * 课程服务类
@@ -43,7 +46,9 @@ public class CourseService extends BaseService {
                 pstmt.setString(4, course.getCourseType());
                 pstmt.setString(5, course.getCollege());
                 
-                return pstmt.executeUpdate() > 0;
+                int rows = pstmt.executeUpdate();
+                ReferenceDataCache.getInstance().invalidate(ReferenceDataCache.COURSES);
+                return rows > 0;
             }
         } catch (SQLException e) {
             System.err.println("创建课程时数据库错误: " + e.getMessage());
@@ -103,6 +108,13 @@ public class CourseService extends BaseService {
      * 获取所有课程列表
      */
     public List<Course> getAllCourses() {
+        return ReferenceDataCache.getInstance().getList(ReferenceDataCache.COURSES, this::queryAllCourses);
+    }
+
+    /**
+     * 从数据库查询所有课程列表
+     */
+    private List<Course> queryAllCourses() {
         List<Course> courses = new ArrayList<>();
         
         try {
@@ -152,7 +164,9 @@ public class CourseService extends BaseService {
                 pstmt.setString(4, course.getCollege());
                 pstmt.setString(5, course.getCourseId());
 
-                return pstmt.executeUpdate() > 0;
+                int rows = pstmt.executeUpdate();
+                ReferenceDataCache.getInstance().invalidate(ReferenceDataCache.COURSES);
+                return rows > 0;
             }
         } catch (SQLException e) {
             System.err.println("更新课程信息时数据库错误: " + e.getMessage());
@@ -183,7 +197,9 @@ public class CourseService extends BaseService {
                  PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
                 pstmt.setString(1, courseId);
-                return pstmt.executeUpdate() > 0;
+                int rows = pstmt.executeUpdate();
+                ReferenceDataCache.getInstance().invalidate(ReferenceDataCache.COURSES);
+                return rows > 0;
             }
         } catch (SQLException e) {
             System.err.println("删除课程时数据库错误: " + e.getMessage());
@@ -229,6 +245,26 @@ public class CourseService extends BaseService {
         }
     }
 
+    /**
+     * 批量创建开课信息
+     * 跳过数据不合法的开课，其余开课分块批量写入
+     * @return 成功创建的开课数量
+     */
+    public int createCourseOfferings(List<CourseOffering> offerings) {
+        List<Object[]> rows = new ArrayList<>();
+        for (CourseOffering offering : offerings) {
+            if (!validateOfferingData(offering)) {
+                System.err.println("跳过不合法的开课数据: " + (offering != null ? offering.getOfferingId() : null));
+                continue;
+            }
+            rows.add(new Object[]{offering.getOfferingId(), offering.getCourseId(), offering.getTeacherId(),
+                                  offering.getClassId(), offering.getSemester(), offering.getSchedule()});
+        }
+
+        String[] columns = {"offering_id", "course_id", "teacher_id", "class_id", "semester", "schedule"};
+        return bulkInsertRecords("course_offerings", columns, rows);
+    }
+
     /**
      * 更新开课信息
      */
@@ -243,17 +279,33 @@ public class CourseService extends BaseService {
                 semester = ?, schedule = ? WHERE offering_id = ?
             """;
 
-            try (Connection conn = DatabaseUtil.getConnection();
-                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
-
-                pstmt.setString(1, offering.getCourseId());
-                pstmt.setString(2, offering.getTeacherId());
-                pstmt.setString(3, offering.getClassId());
-                pstmt.setString(4, offering.getSemester());
-                pstmt.setString(5, offering.getSchedule());
-                pstmt.setString(6, offering.getOfferingId());
-
-                return pstmt.executeUpdate() > 0;
+            try (Connection conn = DatabaseUtil.getConnection()) {
+                conn.setAutoCommit(false);
+                try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                    String[] oldGroups = getOfferingGroups(conn, offering.getOfferingId());
+
+                    pstmt.setString(1, offering.getCourseId());
+                    pstmt.setString(2, offering.getTeacherId());
+                    pstmt.setString(3, offering.getClassId());
+                    pstmt.setString(4, offering.getSemester());
+                    pstmt.setString(5, offering.getSchedule());
+                    pstmt.setString(6, offering.getOfferingId());
+
+                    boolean updated = pstmt.executeUpdate() > 0;
+
+                    // 开课的教师、课程或班级变化后，已有评教需要重新归入对应的统计分组
+                    if (updated && oldGroups != null) {
+                        refreshAggregateGroup(conn, EvaluationAggregates.TEACHER, oldGroups[0], offering.getTeacherId());
+                        refreshAggregateGroup(conn, EvaluationAggregates.COURSE, oldGroups[1], offering.getCourseId());
+                        refreshAggregateGroup(conn, EvaluationAggregates.CLASS, oldGroups[2], offering.getClassId());
+                    }
+
+                    conn.commit();
+                    return updated;
+                } catch (SQLException e) {
+                    conn.rollback();
+                    throw e;
+                }
             }
         } catch (SQLException e) {
             System.err.println("更新开课信息时数据库错误: " + e.getMessage());
@@ -261,6 +313,32 @@ public class CourseService extends BaseService {
         }
     }
     
+    /**
+     * 获取开课当前的教师、课程和班级编号
+     */
+    private String[] getOfferingGroups(Connection conn, String offeringId) throws SQLException {
+        String sql = "SELECT teacher_id, course_id, class_id FROM course_offerings WHERE offering_id = ?";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, offeringId);
+            ResultSet rs = pstmt.executeQuery();
+            if (rs.next()) {
+                return new String[]{rs.getString("teacher_id"), rs.getString("course_id"), rs.getString("class_id")};
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 分组编号变化时重新生成新旧分组的统计汇总
+     */
+    private void refreshAggregateGroup(Connection conn, String dimension, String oldGroupId, String newGroupId) throws SQLException {
+        if (oldGroupId.equals(newGroupId)) {
+            return;
+        }
+        EvaluationAggregates.refreshGroup(conn, dimension, oldGroupId);
+        EvaluationAggregates.refreshGroup(conn, dimension, newGroupId);
+    }
+
     /**
      * 验证开课信息数据
      */
@@ -341,6 +419,71 @@ public class CourseService extends BaseService {
         return offerings;
     }
     
+    /**
+     * 获取某门课程的开课列表
+     */
+    public List<CourseOffering> getCourseOfferingsByCourse(String courseId) {
+        List<CourseOffering> offerings = new ArrayList<>();
+        
+        try {
+            String sql = """
+                SELECT co.*, c.course_name, c.credits, c.course_type, c.college,
+                       t.name as teacher_name, t.title, cl.class_name
+                FROM course_offerings co
+                JOIN courses c ON co.course_id = c.course_id
+                JOIN teachers t ON co.teacher_id = t.teacher_id
+                JOIN classes cl ON co.class_id = cl.class_id
+                WHERE co.course_id = ?
+                ORDER BY co.offering_id
+            """;
+            
+            try (Connection conn = DatabaseUtil.getConnection();
+                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                
+                pstmt.setString(1, courseId);
+                ResultSet rs = pstmt.executeQuery();
+                
+                while (rs.next()) {
+                    CourseOffering offering = new CourseOffering();
+                    offering.setOfferingId(rs.getString("offering_id"));
+                    offering.setCourseId(rs.getString("course_id"));
+                    offering.setTeacherId(rs.getString("teacher_id"));
+                    offering.setClassId(rs.getString("class_id"));
+                    offering.setSemester(rs.getString("semester"));
+                    offering.setSchedule(rs.getString("schedule"));
+                    
+                    // 设置关联的课程信息
+                    Course course = new Course();
+                    course.setCourseId(rs.getString("course_id"));
+                    course.setCourseName(rs.getString("course_name"));
+                    course.setCredits(rs.getDouble("credits"));
+                    course.setCourseType(rs.getString("course_type"));
+                    course.setCollege(rs.getString("college"));
+                    offering.setCourse(course);
+                    
+                    // 设置关联的教师信息
+                    Teacher teacher = new Teacher();
+                    teacher.setTeacherId(rs.getString("teacher_id"));
+                    teacher.setName(rs.getString("teacher_name"));
+                    teacher.setTitle(rs.getString("title"));
+                    offering.setTeacher(teacher);
+                    
+                    // 设置关联的班级信息
+                    ClassRoom classRoom = new ClassRoom();
+                    classRoom.setClassId(rs.getString("class_id"));
+                    classRoom.setClassName(rs.getString("class_name"));
+                    offering.setClassRoom(classRoom);
+                    
+                    offerings.add(offering);
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("获取课程开课列表时数据库错误: " + e.getMessage());
+        }
+        
+        return offerings;
+    }
+    
     /**
      * 获取教师的授课列表
      */
@@ -463,13 +606,16 @@ public class CourseService extends BaseService {
 
     /**
      * 获取所有开课信息
+     * 一次连接查询带出课程、教师和班级的显示字段；同一次查询中重复出现的课程、教师和班级
+     * 只创建一个对象，由各开课共享，调用方不应修改这些关联对象。
      */
     public List<CourseOffering> getAllCourseOfferings() {
         List<CourseOffering> offerings = new ArrayList<>();
 
         try {
             String sql = """
-                SELECT co.*, c.course_name, c.credits, c.course_type, c.college,
+                SELECT co.offering_id, co.course_id, co.teacher_id, co.class_id, co.semester, co.schedule,
+                       c.course_name, c.credits, c.course_type, c.college,
                        t.name as teacher_name, t.title, cl.class_name
                 FROM course_offerings co
                 JOIN courses c ON co.course_id = c.course_id
@@ -483,6 +629,11 @@ public class CourseService extends BaseService {
 
                 ResultSet rs = pstmt.executeQuery();
 
+                // 本次查询内的实体映射：编号 -> 对象
+                Map<String, Course> courses = new HashMap<>();
+                Map<String, Teacher> teachers = new HashMap<>();
+                Map<String, ClassRoom> classRooms = new HashMap<>();
+
                 while (rs.next()) {
                     CourseOffering offering = new CourseOffering();
                     offering.setOfferingId(rs.getString("offering_id"));
@@ -493,25 +644,37 @@ public class CourseService extends BaseService {
                     offering.setSchedule(rs.getString("schedule"));
 
                     // 设置关联的课程信息
-                    Course course = new Course();
-                    course.setCourseId(rs.getString("course_id"));
-                    course.setCourseName(rs.getString("course_name"));
-                    course.setCredits(rs.getDouble("credits"));
-                    course.setCourseType(rs.getString("course_type"));
-                    course.setCollege(rs.getString("college"));
+                    Course course = courses.get(offering.getCourseId());
+                    if (course == null) {
+                        course = new Course();
+                        course.setCourseId(offering.getCourseId());
+                        course.setCourseName(rs.getString("course_name"));
+                        course.setCredits(rs.getDouble("credits"));
+                        course.setCourseType(rs.getString("course_type"));
+                        course.setCollege(rs.getString("college"));
+                        courses.put(course.getCourseId(), course);
+                    }
                     offering.setCourse(course);
 
                     // 设置关联的教师信息
-                    Teacher teacher = new Teacher();
-                    teacher.setTeacherId(rs.getString("teacher_id"));
-                    teacher.setName(rs.getString("teacher_name"));
-                    teacher.setTitle(rs.getString("title"));
+                    Teacher teacher = teachers.get(offering.getTeacherId());
+                    if (teacher == null) {
+                        teacher = new Teacher();
+                        teacher.setTeacherId(offering.getTeacherId());
+                        teacher.setName(rs.getString("teacher_name"));
+                        teacher.setTitle(rs.getString("title"));
+                        teachers.put(teacher.getTeacherId(), teacher);
+                    }
                     offering.setTeacher(teacher);
 
                     // 设置关联的班级信息
-                    ClassRoom classRoom = new ClassRoom();
-                    classRoom.setClassId(rs.getString("class_id"));
-                    classRoom.setClassName(rs.getString("class_name"));
+                    ClassRoom classRoom = classRooms.get(offering.getClassId());
+                    if (classRoom == null) {
+                        classRoom = new ClassRoom();
+                        classRoom.setClassId(offering.getClassId());
+                        classRoom.setClassName(rs.getString("class_name"));
+                        classRooms.put(classRoom.getClassId(), classRoom);
+                    }
                     offering.setClassRoom(classRoom);
 
                     offerings.add(offering);
@@ -575,6 +738,13 @@ public class CourseService extends BaseService {
      * 获取所有班级信息
      */
     public List<ClassRoom> getAllClassRooms() {
+        return ReferenceDataCache.getInstance().getList(ReferenceDataCache.CLASSES, this::queryAllClassRooms);
+    }
+
+    /**
+     * 从数据库查询所有班级信息
+     */
+    private List<ClassRoom> queryAllClassRooms() {
         List<ClassRoom> classes = new ArrayList<>();
 
         try {
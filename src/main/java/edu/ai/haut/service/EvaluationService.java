@@ -2,13 +2,21 @@ package edu.ai.haut.service;
 
 import edu.ai.haut.model.*;
 import edu.ai.haut.util.DatabaseUtil;
+import edu.ai.haut.util.EvaluationAggregates;
+import edu.ai.haut.util.IdGenerator;
+import edu.ai.haut.util.MaintenanceScheduler;
 import edu.ai.haut.util.ValidationUtil;
 
 import java.sql.*;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
 
 /**
  * 评教服务类
@@ -16,6 +24,53 @@ import java.util.Map;
  */
 public class EvaluationService extends BaseService {
     
+    /**
+     * 逐行读取评教记录时每次从数据库抓取的行数
+     */
+    private static final int ROW_FETCH_SIZE = 200;
+    
+    /**
+     * 提交与并发事务冲突（SQLSTATE 40001）时的最大尝试次数，每次重试前随机等待，等待上限逐次加倍，最多128ms
+     */
+    private static final String SERIALIZATION_FAILURE = "40001";
+    private static final int MAX_SUBMIT_ATTEMPTS = 20;
+    private static final int SUBMIT_RETRY_BACKOFF_MS = 2;
+    
+    /**
+     * 评教列表行的排序字段
+     */
+    public static final String SORT_BY_ID = "id";
+    public static final String SORT_BY_COURSE = "course";
+    public static final String SORT_BY_TEACHER = "teacher";
+    public static final String SORT_BY_CLASS = "class";
+    public static final String SORT_BY_SCORE = "score";
+    public static final String SORT_BY_DATE = "date";
+    
+    private static final Map<String, String> ROW_SORT_COLUMNS = Map.of(
+        SORT_BY_ID, "e.evaluation_id",
+        SORT_BY_COURSE, "c.course_name",
+        SORT_BY_TEACHER, "t.name",
+        SORT_BY_CLASS, "cl.class_name",
+        SORT_BY_SCORE, "e.total_score",
+        SORT_BY_DATE, "e.evaluation_date"
+    );
+    
+    /**
+     * 评教列表行的查询，之后追加 AND 条件
+     */
+    private static final String EVALUATION_ROW_SQL = """
+        SELECT e.evaluation_id, e.student_id, e.offering_id, e.period_id, e.total_score,
+               e.comments, e.evaluation_date, c.course_name, t.name AS teacher_name,
+               cl.class_name, ep.period_name
+        FROM evaluations e
+        JOIN course_offerings co ON e.offering_id = co.offering_id
+        JOIN courses c ON co.course_id = c.course_id
+        JOIN teachers t ON co.teacher_id = t.teacher_id
+        JOIN classes cl ON co.class_id = cl.class_id
+        JOIN evaluation_periods ep ON e.period_id = ep.period_id
+        WHERE 1 = 1
+        """;
+    
     /**
      * 创建评教指标
      */
@@ -39,7 +94,9 @@ public class EvaluationService extends BaseService {
                 pstmt.setDouble(4, criteria.getWeight());
                 pstmt.setInt(5, criteria.getMaxScore());
                 
-                return pstmt.executeUpdate() > 0;
+                int rows = pstmt.executeUpdate();
+                ReferenceDataCache.getInstance().invalidate(ReferenceDataCache.CRITERIA);
+                return rows > 0;
             }
         } catch (SQLException e) {
             System.err.println("创建评教指标时数据库错误: " + e.getMessage());
@@ -63,6 +120,13 @@ public class EvaluationService extends BaseService {
      * 获取所有评教指标
      */
     public List<EvaluationCriteria> getAllEvaluationCriteria() {
+        return ReferenceDataCache.getInstance().getList(ReferenceDataCache.CRITERIA, this::queryAllEvaluationCriteria);
+    }
+
+    /**
+     * 从数据库查询所有评教指标
+     */
+    private List<EvaluationCriteria> queryAllEvaluationCriteria() {
         List<EvaluationCriteria> criteriaList = new ArrayList<>();
         
         try {
@@ -113,7 +177,9 @@ public class EvaluationService extends BaseService {
                 pstmt.setDate(5, Date.valueOf(period.getEndDate()));
                 pstmt.setString(6, period.getStatus());
                 
-                return pstmt.executeUpdate() > 0;
+                int rows = pstmt.executeUpdate();
+                ReferenceDataCache.getInstance().invalidate(ReferenceDataCache.PERIODS);
+                return rows > 0;
             }
         } catch (SQLException e) {
             System.err.println("创建评教周期时数据库错误: " + e.getMessage());
@@ -164,43 +230,139 @@ public class EvaluationService extends BaseService {
         return null;
     }
     
+    /**
+     * 评教提交结果
+     */
+    public enum SubmitResult {
+        ACCEPTED("评教提交成功"),
+        DUPLICATE("您已经评价过该课程"),
+        INVALID("评教数据无效或您不属于该开课班级"),
+        PERIOD_CLOSED("评教周期未开放"),
+        ERROR("评教提交失败，请重试");
+        
+        private final String message;
+        
+        SubmitResult(String message) {
+            this.message = message;
+        }
+        
+        public String getMessage() {
+            return message;
+        }
+    }
+    
     /**
      * 提交学生评教
+     * 插入语句本身校验评教周期处于进行中、学生属于开课班级，重复提交由唯一约束
+     * (student_id, offering_id, period_id) 拒绝，不需要事先查询是否已评教。
+     * 评教记录、指标分数和统计汇总在同一事务中写入。
      */
-    public boolean submitEvaluation(Evaluation evaluation) {
+    public SubmitResult submitEvaluation(Evaluation evaluation) {
+        // 评教编号由系统分配，避免同一时刻提交的评教编号重复
+        if (evaluation != null && ValidationUtil.isEmpty(evaluation.getEvaluationId())) {
+            evaluation.setEvaluationId(IdGenerator.getInstance().nextId(IdGenerator.EVALUATION_PREFIX));
+        }
         if (!validateEvaluationData(evaluation)) {
-            return false;
+            return SubmitResult.INVALID;
         }
+        // 提交期间推迟数据库维护
+        MaintenanceScheduler.recordSubmission();
         
-        // 检查是否已经评教过
-        if (hasStudentEvaluated(evaluation.getStudentId(), evaluation.getOfferingId(), evaluation.getPeriodId())) {
+        // 提交使用可串行化隔离，与并发提交修改同一汇总行时事务被回滚，重新执行即可
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return insertEvaluation(evaluation);
+            } catch (SQLException e) {
+                if (SERIALIZATION_FAILURE.equals(e.getSQLState()) && attempt < MAX_SUBMIT_ATTEMPTS
+                        && backoff(attempt)) {
+                    continue;
+                }
+                System.err.println("提交评教时数据库错误: " + e.getMessage());
+                return SubmitResult.ERROR;
+            }
+        }
+    }
+    
+    /**
+     * 重试前随机等待，错开并发提交；等待时被中断则不再重试
+     */
+    private static boolean backoff(int attempt) {
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextInt(SUBMIT_RETRY_BACKOFF_MS << Math.min(attempt, 6)) + 1);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
             return false;
         }
+    }
+    
+    /**
+     * 在一个事务中写入评教记录、指标分数和统计汇总
+     */
+    private SubmitResult insertEvaluation(Evaluation evaluation) throws SQLException {
+        String sql = """
+            INSERT INTO evaluations (evaluation_id, student_id, offering_id, period_id, total_score, comments)
+            SELECT ?, s.student_id, co.offering_id, ep.period_id, ?, ?
+            FROM students s
+            JOIN course_offerings co ON co.class_id = s.class_id
+            JOIN evaluation_periods ep ON ep.period_id = ?
+            WHERE s.student_id = ? AND co.offering_id = ? AND ep.status = '进行中'
+        """;
+        String scoreSql = "INSERT INTO evaluation_scores (evaluation_id, criteria_id, score) VALUES (?, ?, ?)";
         
-        try {
-            String sql = """
-                INSERT INTO evaluations (evaluation_id, student_id, offering_id, period_id, 
-                                       criteria_scores, total_score, comments) 
-                VALUES (?, ?, ?, ?, ?, ?, ?)
-            """;
-            
-            try (Connection conn = DatabaseUtil.getConnection();
-                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (Connection conn = DatabaseUtil.getConnection(DatabaseUtil.Operation.SUBMIT)) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement pstmt = conn.prepareStatement(sql);
+                 PreparedStatement scoreStmt = conn.prepareStatement(scoreSql)) {
                 
                 pstmt.setString(1, evaluation.getEvaluationId());
-                pstmt.setString(2, evaluation.getStudentId());
-                pstmt.setString(3, evaluation.getOfferingId());
+                pstmt.setDouble(2, evaluation.getTotalScore());
+                pstmt.setString(3, evaluation.getComments());
                 pstmt.setString(4, evaluation.getPeriodId());
-                pstmt.setString(5, evaluation.getCriteriaScores());
-                pstmt.setDouble(6, evaluation.getTotalScore());
-                pstmt.setString(7, evaluation.getComments());
+                pstmt.setString(5, evaluation.getStudentId());
+                pstmt.setString(6, evaluation.getOfferingId());
+                if (pstmt.executeUpdate() == 0) {
+                    conn.rollback();
+                    return diagnoseRejectedSubmission(conn, evaluation.getPeriodId());
+                }
+                
+                for (Map.Entry<String, Integer> entry : evaluation.getScoreMap().entrySet()) {
+                    scoreStmt.setString(1, evaluation.getEvaluationId());
+                    scoreStmt.setString(2, entry.getKey());
+                    scoreStmt.setInt(3, entry.getValue());
+                    scoreStmt.addBatch();
+                }
+                scoreStmt.executeBatch();
                 
-                return pstmt.executeUpdate() > 0;
+                EvaluationAggregates.recordEvaluation(conn, evaluation.getEvaluationId(), evaluation.getStudentId(),
+                        evaluation.getOfferingId(), evaluation.getPeriodId(), evaluation.getTotalScore());
+                
+                conn.commit();
+                return SubmitResult.ACCEPTED;
+            } catch (SQLIntegrityConstraintViolationException e) {
+                // 评教编号由生成器保证唯一，违反唯一约束只可能是重复评教
+                conn.rollback();
+                return SubmitResult.DUPLICATE;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        }
+    }
+    
+    /**
+     * 插入未生效时判断原因，只在提交被拒绝时查询
+     */
+    private SubmitResult diagnoseRejectedSubmission(Connection conn, String periodId) throws SQLException {
+        String sql = "SELECT status FROM evaluation_periods WHERE period_id = ?";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, periodId);
+            ResultSet rs = pstmt.executeQuery();
+            if (rs.next() && !"进行中".equals(rs.getString("status"))) {
+                return SubmitResult.PERIOD_CLOSED;
             }
-        } catch (SQLException e) {
-            System.err.println("提交评教时数据库错误: " + e.getMessage());
-            return false;
         }
+        return SubmitResult.INVALID;
     }
     
     /**
@@ -240,6 +402,31 @@ public class EvaluationService extends BaseService {
         return false;
     }
     
+    /**
+     * 获取学生在某个评教周期中已评教的开课编号
+     */
+    public Set<String> getEvaluatedOfferingIds(String studentId, String periodId) {
+        Set<String> offeringIds = new HashSet<>();
+        
+        try {
+            String sql = "SELECT DISTINCT offering_id FROM evaluations WHERE student_id = ? AND period_id = ?";
+            try (Connection conn = DatabaseUtil.getConnection();
+                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                
+                pstmt.setString(1, studentId);
+                pstmt.setString(2, periodId);
+                
+                ResultSet rs = pstmt.executeQuery();
+                while (rs.next()) {
+                    offeringIds.add(rs.getString(1));
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("查询已评教课程时数据库错误: " + e.getMessage());
+        }
+        return offeringIds;
+    }
+    
     /**
      * 获取学生的评教历史
      */
@@ -248,7 +435,8 @@ public class EvaluationService extends BaseService {
         
         try {
             String sql = """
-                SELECT e.*, co.course_id, c.course_name, t.name as teacher_name,
+                SELECT e.evaluation_id, e.student_id, e.offering_id, e.period_id, e.total_score,
+                       e.comments, e.evaluation_date, co.course_id, c.course_name, t.name as teacher_name,
                        ep.period_name, ep.semester
                 FROM evaluations e
                 JOIN course_offerings co ON e.offering_id = co.offering_id
@@ -271,7 +459,6 @@ public class EvaluationService extends BaseService {
                     evaluation.setStudentId(rs.getString("student_id"));
                     evaluation.setOfferingId(rs.getString("offering_id"));
                     evaluation.setPeriodId(rs.getString("period_id"));
-                    evaluation.setCriteriaScores(rs.getString("criteria_scores"));
                     evaluation.setTotalScore(rs.getDouble("total_score"));
                     evaluation.setComments(rs.getString("comments"));
                     
@@ -316,7 +503,8 @@ public class EvaluationService extends BaseService {
         
         try {
             String sql = """
-                SELECT e.*, co.course_id, c.course_name, cl.class_name,
+                SELECT e.evaluation_id, e.student_id, e.offering_id, e.period_id, e.total_score,
+                       e.comments, e.evaluation_date, co.course_id, c.course_name, cl.class_name,
                        ep.period_name, ep.semester
                 FROM evaluations e
                 JOIN course_offerings co ON e.offering_id = co.offering_id
@@ -340,7 +528,6 @@ public class EvaluationService extends BaseService {
                     evaluation.setStudentId(rs.getString("student_id"));
                     evaluation.setOfferingId(rs.getString("offering_id"));
                     evaluation.setPeriodId(rs.getString("period_id"));
-                    evaluation.setCriteriaScores(rs.getString("criteria_scores"));
                     evaluation.setTotalScore(rs.getDouble("total_score"));
                     evaluation.setComments(rs.getString("comments"));
                     
@@ -377,6 +564,214 @@ public class EvaluationService extends BaseService {
         return evaluations;
     }
     
+    /**
+     * 按开课汇总教师在某个评教周期的评教分数
+     * @return 开课编号 -> 汇总结果，没有评教的开课不在结果中
+     */
+    public Map<String, OfferingScoreSummary> getOfferingScoreSummary(String teacherId, String periodId) {
+        Map<String, OfferingScoreSummary> summary = new LinkedHashMap<>();
+        
+        try {
+            String sql = """
+                SELECT e.offering_id, COUNT(*) AS evaluation_count, AVG(e.total_score) AS avg_score,
+                       MIN(e.total_score) AS min_score, MAX(e.total_score) AS max_score
+                FROM evaluations e
+                JOIN course_offerings co ON e.offering_id = co.offering_id
+                WHERE co.teacher_id = ? AND e.period_id = ?
+                GROUP BY e.offering_id
+            """;
+            
+            try (Connection conn = DatabaseUtil.getConnection();
+                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                
+                pstmt.setString(1, teacherId);
+                pstmt.setString(2, periodId);
+                ResultSet rs = pstmt.executeQuery();
+                
+                while (rs.next()) {
+                    String offeringId = rs.getString("offering_id");
+                    summary.put(offeringId, new OfferingScoreSummary(offeringId,
+                        rs.getInt("evaluation_count"), rs.getDouble("avg_score"),
+                        rs.getDouble("min_score"), rs.getDouble("max_score")));
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("获取开课评教汇总时数据库错误: " + e.getMessage());
+        }
+        
+        return summary;
+    }
+    
+    /**
+     * 按页逐行读取评教列表行，每读到一行就交给consumer，不在内存中保存整页结果
+     * 按评教时间、评教编号倒序排列，采用键集分页：传入上一页的最后一行即可取下一页，
+     * 翻页代价与页码无关；结果集按固定的抓取大小分批从数据库读取。
+     * @param teacherId 授课教师，为null时不限
+     * @param periodId 评教周期，为null时不限
+     * @param studentId 评教学生，为null时不限
+     * @param after 上一页的最后一行，为null时取第一页
+     * @param pageSize 每页条数
+     * @return 本页的最后一行，作为下一页的游标；没有更多数据时返回null
+     * @throws SQLException 查询出错时抛出，避免调用方把出错误当作已读到末尾
+     */
+    public EvaluationRow streamEvaluationRows(String teacherId, String periodId, String studentId,
+                                              EvaluationRow after, int pageSize, Consumer<EvaluationRow> consumer)
+            throws SQLException {
+        StringBuilder sql = new StringBuilder(EVALUATION_ROW_SQL);
+        List<Object> params = new ArrayList<>();
+        appendRowFilters(sql, params, teacherId, periodId, studentId);
+        if (after != null) {
+            Timestamp afterDate = Timestamp.valueOf(after.getEvaluationDate());
+            sql.append(" AND (e.evaluation_date < ? OR (e.evaluation_date = ? AND e.evaluation_id < ?))");
+            params.add(afterDate);
+            params.add(afterDate);
+            params.add(after.getEvaluationId());
+        }
+        sql.append(" ORDER BY e.evaluation_date DESC, e.evaluation_id DESC LIMIT ?");
+        params.add(pageSize);
+        
+        try (Connection conn = DatabaseUtil.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql.toString())) {
+            
+            for (int i = 0; i < params.size(); i++) {
+                pstmt.setObject(i + 1, params.get(i));
+            }
+            pstmt.setFetchSize(Math.min(pageSize, ROW_FETCH_SIZE));
+            ResultSet rs = pstmt.executeQuery();
+            
+            EvaluationRow last = null;
+            int count = 0;
+            while (rs.next()) {
+                last = mapEvaluationRow(rs);
+                consumer.accept(last);
+                count++;
+            }
+            // 不足一页说明已经到底
+            return count < pageSize ? null : last;
+        }
+    }
+    
+    /**
+     * 按偏移量读取一页评教列表行，供按其他列排序或直接跳到某页的分页表格使用
+     * 数据库需要逐行跳过offset之前的行，越往后代价越高，按默认顺序连续翻页时应使用streamEvaluationRows
+     * @param sortKey 排序字段（SORT_BY_*常量），为null或无法识别时按评教时间排序
+     * @param ascending 是否升序
+     * @param offset 跳过的行数
+     * @param limit 最多返回的行数
+     * @throws SQLException 查询出错时抛出，避免分页表格把不足一页的结果当作已读到末尾
+     */
+    public List<EvaluationRow> getEvaluationRows(String teacherId, String periodId, String studentId,
+                                                 String sortKey, boolean ascending, int offset, int limit)
+            throws SQLException {
+        List<EvaluationRow> rows = new ArrayList<>();
+        
+        StringBuilder sql = new StringBuilder(EVALUATION_ROW_SQL);
+        List<Object> params = new ArrayList<>();
+        appendRowFilters(sql, params, teacherId, periodId, studentId);
+        
+        // 排序列来自固定的白名单，评教编号作为次序相同时的补充排序，保证翻页稳定
+        String direction = ascending ? " ASC" : " DESC";
+        String sortColumn = sortKey != null ? ROW_SORT_COLUMNS.get(sortKey) : null;
+        if (sortColumn == null) {
+            sortColumn = "e.evaluation_date";
+        }
+        sql.append(" ORDER BY ").append(sortColumn).append(direction);
+        if (!sortColumn.equals("e.evaluation_id")) {
+            sql.append(", e.evaluation_id").append(direction);
+        }
+        sql.append(" LIMIT ? OFFSET ?");
+        params.add(limit);
+        params.add(offset);
+        
+        try (Connection conn = DatabaseUtil.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql.toString())) {
+            
+            for (int i = 0; i < params.size(); i++) {
+                pstmt.setObject(i + 1, params.get(i));
+            }
+            pstmt.setFetchSize(Math.min(limit, ROW_FETCH_SIZE));
+            ResultSet rs = pstmt.executeQuery();
+            
+            while (rs.next()) {
+                rows.add(mapEvaluationRow(rs));
+            }
+        }
+        
+        return rows;
+    }
+    
+    /**
+     * 估算符合条件的评教条数，供分页控件显示总页数
+     * 只按教师和周期过滤时直接读取统计汇总表；指定学生时该学生的评教记录很少，直接计数。
+     * 汇总表在批量导入后重建前可能与评教记录略有出入，因此结果只作估计。
+     * @throws SQLException 查询出错时抛出，避免显示为没有评教记录
+     */
+    public int estimateEvaluationCount(String teacherId, String periodId, String studentId) throws SQLException {
+        StringBuilder sql;
+        List<Object> params = new ArrayList<>();
+        if (studentId == null) {
+            sql = new StringBuilder("SELECT COALESCE(SUM(eval_count), 0) FROM evaluation_aggregates WHERE dimension = ?");
+            params.add(EvaluationAggregates.TEACHER);
+            if (teacherId != null) {
+                sql.append(" AND group_id = ?");
+                params.add(teacherId);
+            }
+            if (periodId != null) {
+                sql.append(" AND period_id = ?");
+                params.add(periodId);
+            }
+        } else {
+            sql = new StringBuilder("""
+                SELECT COUNT(*) FROM evaluations e
+                JOIN course_offerings co ON e.offering_id = co.offering_id
+                WHERE 1 = 1
+                """);
+            appendRowFilters(sql, params, teacherId, periodId, studentId);
+        }
+        
+        try (Connection conn = DatabaseUtil.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql.toString())) {
+            
+            for (int i = 0; i < params.size(); i++) {
+                pstmt.setObject(i + 1, params.get(i));
+            }
+            ResultSet rs = pstmt.executeQuery();
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+    
+    private EvaluationRow mapEvaluationRow(ResultSet rs) throws SQLException {
+        return new EvaluationRow(
+            rs.getString("evaluation_id"),
+            rs.getString("student_id"),
+            rs.getString("offering_id"),
+            rs.getString("period_id"),
+            rs.getString("course_name"),
+            rs.getString("teacher_name"),
+            rs.getString("class_name"),
+            rs.getString("period_name"),
+            rs.getDouble("total_score"),
+            rs.getString("comments"),
+            rs.getTimestamp("evaluation_date").toLocalDateTime()
+        );
+    }
+    
+    private void appendRowFilters(StringBuilder sql, List<Object> params,
+                                  String teacherId, String periodId, String studentId) {
+        if (teacherId != null) {
+            sql.append(" AND co.teacher_id = ?");
+            params.add(teacherId);
+        }
+        if (periodId != null) {
+            sql.append(" AND e.period_id = ?");
+            params.add(periodId);
+        }
+        if (studentId != null) {
+            sql.append(" AND e.student_id = ?");
+            params.add(studentId);
+        }
+    }
+    
     /**
      * 计算教师课程的平均分
      */
@@ -411,6 +806,13 @@ public class EvaluationService extends BaseService {
      * 获取所有评教周期
      */
     public List<EvaluationPeriod> getAllEvaluationPeriods() {
+        return ReferenceDataCache.getInstance().getList(ReferenceDataCache.PERIODS, this::queryAllEvaluationPeriods);
+    }
+
+    /**
+     * 从数据库查询所有评教周期
+     */
+    private List<EvaluationPeriod> queryAllEvaluationPeriods() {
         List<EvaluationPeriod> periods = new ArrayList<>();
         
         try {
@@ -466,6 +868,35 @@ public class EvaluationService extends BaseService {
         return null;
     }
 
+    /**
+     * 根据ID获取评教周期
+     */
+    public EvaluationPeriod getEvaluationPeriodById(String periodId) {
+        try {
+            String sql = "SELECT * FROM evaluation_periods WHERE period_id = ?";
+            try (Connection conn = DatabaseUtil.getConnection();
+                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+                pstmt.setString(1, periodId);
+                ResultSet rs = pstmt.executeQuery();
+
+                if (rs.next()) {
+                    EvaluationPeriod period = new EvaluationPeriod();
+                    period.setPeriodId(rs.getString("period_id"));
+                    period.setPeriodName(rs.getString("period_name"));
+                    period.setSemester(rs.getString("semester"));
+                    period.setStartDate(rs.getDate("start_date").toLocalDate());
+                    period.setEndDate(rs.getDate("end_date").toLocalDate());
+                    period.setStatus(rs.getString("status"));
+                    return period;
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("获取评教周期时数据库错误: " + e.getMessage());
+        }
+        return null;
+    }
+
     /**
      * 更新评教周期
      */
@@ -490,7 +921,9 @@ public class EvaluationService extends BaseService {
                 pstmt.setString(5, period.getStatus());
                 pstmt.setString(6, period.getPeriodId());
 
-                return pstmt.executeUpdate() > 0;
+                int rows = pstmt.executeUpdate();
+                ReferenceDataCache.getInstance().invalidate(ReferenceDataCache.PERIODS);
+                return rows > 0;
             }
         } catch (SQLException e) {
             System.err.println("更新评教周期时数据库错误: " + e.getMessage());
@@ -521,7 +954,9 @@ public class EvaluationService extends BaseService {
                 pstmt.setInt(4, criteria.getMaxScore());
                 pstmt.setString(5, criteria.getCriteriaId());
 
-                return pstmt.executeUpdate() > 0;
+                int rows = pstmt.executeUpdate();
+                ReferenceDataCache.getInstance().invalidate(ReferenceDataCache.CRITERIA);
+                return rows > 0;
             }
         } catch (SQLException e) {
             System.err.println("更新评教指标时数据库错误: " + e.getMessage());
@@ -552,7 +987,9 @@ public class EvaluationService extends BaseService {
                  PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
                 pstmt.setString(1, periodId);
-                return pstmt.executeUpdate() > 0;
+                int rows = pstmt.executeUpdate();
+                ReferenceDataCache.getInstance().invalidate(ReferenceDataCache.PERIODS);
+                return rows > 0;
             }
         } catch (SQLException e) {
             System.err.println("删除评教周期时数据库错误: " + e.getMessage());
@@ -566,7 +1003,8 @@ public class EvaluationService extends BaseService {
     public Evaluation getEvaluationById(String evaluationId) {
         try {
             String sql = """
-                SELECT e.*, co.course_id, c.course_name, t.teacher_id, t.name as teacher_name,
+                SELECT e.evaluation_id, e.student_id, e.offering_id, e.period_id, e.total_score,
+                       e.comments, e.evaluation_date, co.course_id, c.course_name, t.teacher_id, t.name as teacher_name,
                        cl.class_id, cl.class_name, s.student_id, s.name as student_name,
                        ep.period_name, ep.semester
                 FROM evaluations e
@@ -591,10 +1029,10 @@ public class EvaluationService extends BaseService {
                     evaluation.setStudentId(rs.getString("student_id"));
                     evaluation.setOfferingId(rs.getString("offering_id"));
                     evaluation.setPeriodId(rs.getString("period_id"));
-                    evaluation.setCriteriaScores(rs.getString("criteria_scores"));
                     evaluation.setTotalScore(rs.getDouble("total_score"));
                     evaluation.setComments(rs.getString("comments"));
                     evaluation.setEvaluationDate(rs.getTimestamp("evaluation_date").toLocalDateTime());
+                    evaluation.setScores(getEvaluationScores(conn, evaluation.getEvaluationId()));
 
                     // 设置学生信息
                     Student student = new Student();
@@ -642,6 +1080,22 @@ public class EvaluationService extends BaseService {
         return null;
     }
 
+    /**
+     * 获取评教记录的各指标分数
+     */
+    private CriteriaScores getEvaluationScores(Connection conn, String evaluationId) throws SQLException {
+        CriteriaScores scores = new CriteriaScores();
+        String sql = "SELECT criteria_id, score FROM evaluation_scores WHERE evaluation_id = ? ORDER BY criteria_id";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, evaluationId);
+            ResultSet rs = pstmt.executeQuery();
+            while (rs.next()) {
+                scores.set(rs.getString("criteria_id"), rs.getInt("score"));
+            }
+        }
+        return scores;
+    }
+
     /**
      * 删除评教指标
      */
@@ -652,7 +1106,9 @@ public class EvaluationService extends BaseService {
                  PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
                 pstmt.setString(1, criteriaId);
-                return pstmt.executeUpdate() > 0;
+                int rows = pstmt.executeUpdate();
+                ReferenceDataCache.getInstance().invalidate(ReferenceDataCache.CRITERIA);
+                return rows > 0;
             }
         } catch (SQLException e) {
             System.err.println("删除评教指标时数据库错误: " + e.getMessage());
@@ -6,6 +6,7 @@ import edu.ai.haut.util.DatabaseUtil;
 import java.sql.*;
 import java.time.LocalDate;
 import java.util.*;
+import java.util.function.Consumer;
 
 /**
  * 通用管理服务类
@@ -100,9 +101,7 @@ public class ManagementService {
      * 根据课程ID获取开课列表
      */
     public List<CourseOffering> getCourseOfferingsByCourseId(String courseId) {
-        return courseService.getAllCourseOfferings().stream()
-            .filter(offering -> courseId.equals(offering.getCourseId()))
-            .collect(java.util.stream.Collectors.toList());
+        return courseService.getCourseOfferingsByCourse(courseId);
     }
     
     // ==================== 评教周期管理相关方法 ====================
@@ -132,10 +131,7 @@ public class ManagementService {
      * 根据ID获取评教周期
      */
     public EvaluationPeriod getEvaluationPeriodById(String periodId) {
-        return evaluationService.getAllEvaluationPeriods().stream()
-            .filter(period -> periodId.equals(period.getPeriodId()))
-            .findFirst()
-            .orElse(null);
+        return evaluationService.getEvaluationPeriodById(periodId);
     }
     
     // ==================== 评教指标管理相关方法 ====================
@@ -178,19 +174,41 @@ public class ManagementService {
     // ==================== 评教数据查询相关方法 ====================
     
     /**
-     * 根据教师ID和周期ID获取评教列表
+     * 按页逐行读取教师在某个周期收到的评教，按评教时间倒序
+     * @param after 上一页返回的游标，为null时取第一页
+     * @return 下一页的游标，没有更多数据时返回null
+     * @throws SQLException 查询出错时抛出
      */
-    public List<Evaluation> getEvaluationsByTeacherAndPeriod(String teacherId, String periodId) {
-        // 这个方法需要在EvaluationService中实现，暂时返回空列表
-        return new java.util.ArrayList<>();
+    public EvaluationRow getEvaluationsByTeacherAndPeriod(String teacherId, String periodId, EvaluationRow after,
+                                                          int pageSize, Consumer<EvaluationRow> consumer)
+            throws SQLException {
+        return evaluationService.streamEvaluationRows(teacherId, periodId, null, after, pageSize, consumer);
     }
 
     /**
-     * 根据学生ID获取评教历史
+     * 按页逐行读取学生的评教历史，按评教时间倒序
+     * @param after 上一页返回的游标，为null时取第一页
+     * @return 下一页的游标，没有更多数据时返回null
+     * @throws SQLException 查询出错时抛出
      */
-    public List<Evaluation> getEvaluationsByStudentId(String studentId) {
-        // 这个方法需要在EvaluationService中实现，暂时返回空列表
-        return new java.util.ArrayList<>();
+    public EvaluationRow getEvaluationsByStudentId(String studentId, EvaluationRow after,
+                                                   int pageSize, Consumer<EvaluationRow> consumer)
+            throws SQLException {
+        return evaluationService.streamEvaluationRows(null, null, studentId, after, pageSize, consumer);
+    }
+
+    /**
+     * 估算教师在某个周期收到的评教条数，用于分页显示
+     */
+    public int estimateEvaluationCountByTeacherAndPeriod(String teacherId, String periodId) throws SQLException {
+        return evaluationService.estimateEvaluationCount(teacherId, periodId, null);
+    }
+
+    /**
+     * 估算学生的评教条数，用于分页显示
+     */
+    public int estimateEvaluationCountByStudentId(String studentId) throws SQLException {
+        return evaluationService.estimateEvaluationCount(null, null, studentId);
     }
     
     /**
@@ -257,10 +275,7 @@ public class ManagementService {
      * 根据ID获取班级
      */
     public ClassRoom getClassRoomById(String classId) {
-        return classService.getAllClasses().stream()
-            .filter(classRoom -> classId.equals(classRoom.getClassId()))
-            .findFirst()
-            .orElse(null);
+        return classService.lookupClass(classId);
     }
     
     // ==================== 数据验证方法 ====================
@@ -0,0 +1,225 @@
+package edu.ai.haut.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * 参考数据缓存
+ * 缓存课程、教师、班级、评教指标和评教周期等很少变化的列表查询结果。
+ * 条目数量有上限，超出时淘汰最久未使用的条目；条目超过存活时间后重新查询。
+ * 缓存键以表名开头（如"teachers"、"teachers:colleges"），写入某张表后按表名失效相关条目。
+ * 列表可另建按编号的索引（键为"表名:byId"），与列表一同失效。
+ * 可通过系统属性 -Dhaut.cache.enabled=false 或 setEnabled(false) 关闭，关闭后每次都直接查询数据库。
+ */
+public final class ReferenceDataCache {
+
+    public static final String COURSES = "courses";
+    public static final String TEACHERS = "teachers";
+    public static final String CLASSES = "classes";
+    public static final String CRITERIA = "evaluation_criteria";
+    public static final String PERIODS = "evaluation_periods";
+
+    private static final int DEFAULT_MAX_ENTRIES = 64;
+    private static final long DEFAULT_TTL_MILLIS = 5 * 60 * 1000L;
+
+    private static final ReferenceDataCache INSTANCE = new ReferenceDataCache(DEFAULT_MAX_ENTRIES, DEFAULT_TTL_MILLIS,
+            Boolean.parseBoolean(System.getProperty("haut.cache.enabled", "true")));
+
+    /**
+     * 缓存条目
+     */
+    private static final class Entry {
+        private final Object value;
+        private final long expiresAt;
+
+        Entry(Object value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private final int maxEntries;
+    private final long ttlMillis;
+    private final LinkedHashMap<String, Entry> entries;
+    private volatile boolean enabled;
+
+    // 每次失效加一，用于丢弃失效前开始、失效后才完成的查询结果
+    private long generation;
+
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+    private long invalidationCount;
+
+    public ReferenceDataCache(int maxEntries, long ttlMillis, boolean enabled) {
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttlMillis;
+        this.enabled = enabled;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() > ReferenceDataCache.this.maxEntries) {
+                    evictionCount++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public static ReferenceDataCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * 读取缓存的列表，未命中时调用loader查询并缓存
+     * 返回副本，调用方可以自由修改列表本身
+     */
+    public <T> List<T> getList(String key, Supplier<List<T>> loader) {
+        return new ArrayList<>(get(key, loader));
+    }
+
+    /**
+     * 读取按编号建立的索引（编号 -> 对象），未命中时调用loader查询列表并建立索引
+     * 索引中的对象由所有调用方共享，只用于只读查找，需要修改时应重新查询数据库
+     */
+    public <T> Map<String, T> getIndex(String key, Supplier<List<T>> loader, Function<T, String> idOf) {
+        return get(key + ":byId", () -> {
+            Map<String, T> index = new HashMap<>();
+            for (T item : loader.get()) {
+                index.put(idOf.apply(item), item);
+            }
+            return Collections.unmodifiableMap(index);
+        });
+    }
+
+    /**
+     * 读取缓存的值，未命中时调用loader查询并缓存
+     * 查询出错时服务方法返回空列表，因此null和空集合不缓存
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(String key, Supplier<T> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+
+        long startGeneration;
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null) {
+                if (entry.expiresAt > System.currentTimeMillis()) {
+                    hitCount++;
+                    return (T) entry.value;
+                }
+                entries.remove(key);
+                evictionCount++;
+            }
+            missCount++;
+            startGeneration = generation;
+        }
+
+        // 在锁外查询数据库，避免慢查询阻塞其他键
+        T value = loader.get();
+        if (value == null || (value instanceof List<?> list && list.isEmpty())
+                || (value instanceof Map<?, ?> map && map.isEmpty())) {
+            return value;
+        }
+
+        synchronized (this) {
+            if (enabled && generation == startGeneration) {
+                entries.put(key, new Entry(value, System.currentTimeMillis() + ttlMillis));
+            }
+        }
+        return value;
+    }
+
+    /**
+     * 使某张表相关的缓存条目失效，写入该表后调用
+     */
+    public synchronized void invalidate(String table) {
+        generation++;
+        Iterator<String> keys = entries.keySet().iterator();
+        while (keys.hasNext()) {
+            String key = keys.next();
+            if (key.equals(table) || key.startsWith(table + ":")) {
+                keys.remove();
+                invalidationCount++;
+            }
+        }
+    }
+
+    /**
+     * 清空全部缓存条目
+     */
+    public synchronized void invalidateAll() {
+        generation++;
+        invalidationCount += entries.size();
+        entries.clear();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 开启或关闭缓存，关闭时清空已缓存的条目
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+        if (!enabled) {
+            invalidateAll();
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    public synchronized long getEvictionCount() {
+        return evictionCount;
+    }
+
+    public synchronized long getInvalidationCount() {
+        return invalidationCount;
+    }
+
+    /**
+     * 命中率（百分比）
+     */
+    public synchronized double getHitRate() {
+        long requests = hitCount + missCount;
+        return requests > 0 ? hitCount * 100.0 / requests : 0;
+    }
+
+    /**
+     * 清零统计计数
+     */
+    public synchronized void resetStatistics() {
+        hitCount = 0;
+        missCount = 0;
+        evictionCount = 0;
+        invalidationCount = 0;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("%s，条目 %d/%d，命中率 %.1f%%（命中 %d，未命中 %d），淘汰 %d，失效 %d",
+                enabled ? "已启用" : "已关闭", entries.size(), maxEntries, getHitRate(),
+                hitCount, missCount, evictionCount, invalidationCount);
+    }
+}
@@ -1,9 +1,15 @@
 package edu.ai.haut.service;
 
+import edu.ai.haut.model.StatisticsSnapshot;
 import edu.ai.haut.util.DatabaseUtil;
+import edu.ai.haut.util.EvaluationAggregates;
 
 import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -18,7 +24,7 @@ public class StatisticsService {
     public Map<String, Object> getStudentEvaluationStatistics(String periodId) {
         Map<String, Object> statistics = new HashMap<>();
         
-        try (Connection conn = DatabaseUtil.getConnection()) {
+        try (Connection conn = DatabaseUtil.getConnection(DatabaseUtil.Operation.REPORT)) {
             // 总学生数
             String totalStudentsSql = "SELECT COUNT(*) as total FROM students";
             try (PreparedStatement pstmt = conn.prepareStatement(totalStudentsSql)) {
@@ -28,41 +34,24 @@ public class StatisticsService {
                 }
             }
             
-            // 参与评教的学生数
-            String participatedStudentsSql = """
-                SELECT COUNT(DISTINCT student_id) as participated 
-                FROM evaluations 
-                WHERE period_id = ?
-            """;
-            try (PreparedStatement pstmt = conn.prepareStatement(participatedStudentsSql)) {
-                pstmt.setString(1, periodId);
-                ResultSet rs = pstmt.executeQuery();
-                if (rs.next()) {
-                    statistics.put("participatedStudents", rs.getInt("participated"));
-                }
-            }
-            
-            // 计算参与率
-            int total = (Integer) statistics.getOrDefault("totalStudents", 0);
-            int participated = (Integer) statistics.getOrDefault("participatedStudents", 0);
-            double participationRate = total > 0 ? (double) participated / total * 100 : 0;
-            statistics.put("participationRate", participationRate);
-            
-            // 评价分布统计
-            String distributionSql = """
+            // 参与评教的学生数和评价分布，按班级汇总行累加
+            String classAggregateSql = """
                 SELECT 
-                    COUNT(CASE WHEN total_score >= 90 THEN 1 END) as excellent,
-                    COUNT(CASE WHEN total_score >= 80 AND total_score < 90 THEN 1 END) as good,
-                    COUNT(CASE WHEN total_score >= 70 AND total_score < 80 THEN 1 END) as average,
-                    COUNT(CASE WHEN total_score >= 60 AND total_score < 70 THEN 1 END) as pass,
-                    COUNT(CASE WHEN total_score < 60 THEN 1 END) as fail
-                FROM evaluations 
-                WHERE period_id = ?
+                    COALESCE(SUM(participant_count), 0) as participated,
+                    COALESCE(SUM(excellent_count), 0) as excellent,
+                    COALESCE(SUM(good_count), 0) as good,
+                    COALESCE(SUM(average_count), 0) as average,
+                    COALESCE(SUM(pass_count), 0) as pass,
+                    COALESCE(SUM(fail_count), 0) as fail
+                FROM evaluation_aggregates 
+                WHERE period_id = ? AND dimension = 'CLASS'
             """;
-            try (PreparedStatement pstmt = conn.prepareStatement(distributionSql)) {
+            try (PreparedStatement pstmt = conn.prepareStatement(classAggregateSql)) {
                 pstmt.setString(1, periodId);
                 ResultSet rs = pstmt.executeQuery();
                 if (rs.next()) {
+                    statistics.put("participatedStudents", rs.getInt("participated"));
+
                     Map<String, Integer> distribution = new HashMap<>();
                     distribution.put("优秀", rs.getInt("excellent"));
                     distribution.put("良好", rs.getInt("good"));
@@ -73,6 +62,12 @@ public class StatisticsService {
                 }
             }
             
+            // 计算参与率
+            int total = (Integer) statistics.getOrDefault("totalStudents", 0);
+            int participated = (Integer) statistics.getOrDefault("participatedStudents", 0);
+            double participationRate = total > 0 ? (double) participated / total * 100 : 0;
+            statistics.put("participationRate", participationRate);
+            
         } catch (SQLException e) {
             System.err.println("获取学生评教统计时数据库错误: " + e.getMessage());
         }
@@ -88,23 +83,23 @@ public class StatisticsService {
     public Map<String, Object> getTeacherEvaluationStatistics(String periodId) {
         Map<String, Object> statistics = new HashMap<>();
         
-        try (Connection conn = DatabaseUtil.getConnection()) {
+        try (Connection conn = DatabaseUtil.getConnection(DatabaseUtil.Operation.REPORT)) {
             String sql = """
                 SELECT 
                     t.teacher_id,
                     t.name as teacher_name,
                     t.title,
                     t.college,
-                    COUNT(DISTINCT co.offering_id) as course_count,
-                    COUNT(e.evaluation_id) as evaluation_count,
-                    AVG(e.total_score) as avg_score,
-                    MIN(e.total_score) as min_score,
-                    MAX(e.total_score) as max_score
-                FROM teachers t
-                LEFT JOIN course_offerings co ON t.teacher_id = co.teacher_id
-                LEFT JOIN evaluations e ON co.offering_id = e.offering_id AND e.period_id = ?
-                GROUP BY t.teacher_id, t.name, t.title, t.college
-                HAVING COUNT(e.evaluation_id) > 0
+                    (SELECT COUNT(*) FROM course_offerings co WHERE co.teacher_id = t.teacher_id) as course_count,
+                    a.eval_count as evaluation_count,
+                    a.score_sum,
+                    a.score_sq_sum,
+                    CAST(a.score_sum AS DOUBLE) / a.eval_count as avg_score,
+                    a.min_score,
+                    a.max_score
+                FROM evaluation_aggregates a
+                JOIN teachers t ON a.group_id = t.teacher_id
+                WHERE a.period_id = ? AND a.dimension = 'TEACHER' AND a.eval_count > 0
                 ORDER BY avg_score DESC, evaluation_count DESC
             """;
             
@@ -126,6 +121,8 @@ public class StatisticsService {
                     teacherData.put("avgScore", rs.getDouble("avg_score"));
                     teacherData.put("minScore", rs.getDouble("min_score"));
                     teacherData.put("maxScore", rs.getDouble("max_score"));
+                    teacherData.put("stdDevScore", stdDev(rs.getInt("evaluation_count"),
+                            rs.getDouble("score_sum"), rs.getDouble("score_sq_sum")));
                     
                     // 计算等级
                     double avgScore = rs.getDouble("avg_score");
@@ -161,7 +158,7 @@ public class StatisticsService {
     public Map<String, Object> getCourseEvaluationStatistics(String periodId) {
         Map<String, Object> statistics = new HashMap<>();
         
-        try (Connection conn = DatabaseUtil.getConnection()) {
+        try (Connection conn = DatabaseUtil.getConnection(DatabaseUtil.Operation.REPORT)) {
             String sql = """
                 SELECT 
                     c.course_id,
@@ -169,16 +166,16 @@ public class StatisticsService {
                     c.course_type,
                     c.college,
                     c.credits,
-                    COUNT(DISTINCT co.offering_id) as offering_count,
-                    COUNT(e.evaluation_id) as evaluation_count,
-                    AVG(e.total_score) as avg_score,
-                    MIN(e.total_score) as min_score,
-                    MAX(e.total_score) as max_score
-                FROM courses c
-                LEFT JOIN course_offerings co ON c.course_id = co.course_id
-                LEFT JOIN evaluations e ON co.offering_id = e.offering_id AND e.period_id = ?
-                GROUP BY c.course_id, c.course_name, c.course_type, c.college, c.credits
-                HAVING COUNT(e.evaluation_id) > 0
+                    (SELECT COUNT(*) FROM course_offerings co WHERE co.course_id = c.course_id) as offering_count,
+                    a.eval_count as evaluation_count,
+                    a.score_sum,
+                    a.score_sq_sum,
+                    CAST(a.score_sum AS DOUBLE) / a.eval_count as avg_score,
+                    a.min_score,
+                    a.max_score
+                FROM evaluation_aggregates a
+                JOIN courses c ON a.group_id = c.course_id
+                WHERE a.period_id = ? AND a.dimension = 'COURSE' AND a.eval_count > 0
                 ORDER BY avg_score DESC, evaluation_count DESC
             """;
             
@@ -202,6 +199,8 @@ public class StatisticsService {
                     courseData.put("avgScore", rs.getDouble("avg_score"));
                     courseData.put("minScore", rs.getDouble("min_score"));
                     courseData.put("maxScore", rs.getDouble("max_score"));
+                    courseData.put("stdDevScore", stdDev(rs.getInt("evaluation_count"),
+                            rs.getDouble("score_sum"), rs.getDouble("score_sq_sum")));
                     
                     courseStats.put(rs.getString("course_id"), courseData);
                     
@@ -225,77 +224,256 @@ public class StatisticsService {
         
         return statistics;
     }
-    
+
     /**
-     * 获取系统总体统计信息
+     * 按评教指标统计平均分
      */
-    public Map<String, Object> getSystemOverallStatistics() {
+    public Map<String, Object> getCriteriaEvaluationStatistics(String periodId) {
         Map<String, Object> statistics = new HashMap<>();
-        
-        try (Connection conn = DatabaseUtil.getConnection()) {
-            // 用户统计
-            String[] userTables = {"students", "teachers", "administrators", "academic_affairs_staff"};
-            String[] userTypes = {"学生", "教师", "管理员", "教务人员"};
-            
-            for (int i = 0; i < userTables.length; i++) {
-                String sql = "SELECT COUNT(*) as count FROM " + userTables[i];
-                try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
-                    ResultSet rs = pstmt.executeQuery();
-                    if (rs.next()) {
-                        statistics.put(userTypes[i] + "数量", rs.getInt("count"));
-                    }
-                }
-            }
-            
-            // 课程统计
-            String courseSql = "SELECT COUNT(*) as count FROM courses";
-            try (PreparedStatement pstmt = conn.prepareStatement(courseSql)) {
-                ResultSet rs = pstmt.executeQuery();
-                if (rs.next()) {
-                    statistics.put("课程数量", rs.getInt("count"));
-                }
-            }
-            
-            // 班级统计
-            String classSql = "SELECT COUNT(*) as count FROM classes";
-            try (PreparedStatement pstmt = conn.prepareStatement(classSql)) {
-                ResultSet rs = pstmt.executeQuery();
-                if (rs.next()) {
-                    statistics.put("班级数量", rs.getInt("count"));
-                }
-            }
-            
-            // 开课统计
-            String offeringSql = "SELECT COUNT(*) as count FROM course_offerings";
-            try (PreparedStatement pstmt = conn.prepareStatement(offeringSql)) {
+
+        try (Connection conn = DatabaseUtil.getConnection(DatabaseUtil.Operation.REPORT)) {
+            String sql = """
+                SELECT
+                    ec.criteria_id,
+                    ec.criteria_name,
+                    ec.weight,
+                    COUNT(es.score) as score_count,
+                    AVG(CAST(es.score AS DOUBLE)) as avg_score,
+                    MIN(es.score) as min_score,
+                    MAX(es.score) as max_score
+                FROM evaluation_criteria ec
+                JOIN evaluation_scores es ON ec.criteria_id = es.criteria_id
+                JOIN evaluations e ON es.evaluation_id = e.evaluation_id
+                WHERE e.period_id = ?
+                GROUP BY ec.criteria_id, ec.criteria_name, ec.weight
+                ORDER BY ec.criteria_id
+            """;
+
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setString(1, periodId);
                 ResultSet rs = pstmt.executeQuery();
-                if (rs.next()) {
-                    statistics.put("开课数量", rs.getInt("count"));
+
+                Map<String, Map<String, Object>> criteriaStats = new LinkedHashMap<>();
+                while (rs.next()) {
+                    Map<String, Object> criteriaData = new HashMap<>();
+                    criteriaData.put("criteriaName", rs.getString("criteria_name"));
+                    criteriaData.put("weight", rs.getDouble("weight"));
+                    criteriaData.put("scoreCount", rs.getInt("score_count"));
+                    criteriaData.put("avgScore", rs.getDouble("avg_score"));
+                    criteriaData.put("minScore", rs.getInt("min_score"));
+                    criteriaData.put("maxScore", rs.getInt("max_score"));
+
+                    criteriaStats.put(rs.getString("criteria_id"), criteriaData);
                 }
+
+                statistics.put("criteriaStatistics", criteriaStats);
+                statistics.put("totalCriteria", criteriaStats.size());
             }
-            
-            // 评教统计
-            String evaluationSql = "SELECT COUNT(*) as count FROM evaluations";
-            try (PreparedStatement pstmt = conn.prepareStatement(evaluationSql)) {
+
+        } catch (SQLException e) {
+            System.err.println("获取评教指标统计时数据库错误: " + e.getMessage());
+        }
+
+        return statistics;
+    }
+
+    /**
+     * 获取系统总体统计信息
+     */
+    public Map<String, Object> getSystemOverallStatistics() {
+        Map<String, Object> statistics = new HashMap<>();
+        
+        try (Connection conn = DatabaseUtil.getConnection(DatabaseUtil.Operation.REPORT)) {
+            StatisticsSnapshot.SystemCounts counts = loadSystemCounts(conn);
+            statistics.put("学生数量", counts.getStudentCount());
+            statistics.put("教师数量", counts.getTeacherCount());
+            statistics.put("管理员数量", counts.getAdminCount());
+            statistics.put("教务人员数量", counts.getStaffCount());
+            statistics.put("课程数量", counts.getCourseCount());
+            statistics.put("班级数量", counts.getClassCount());
+            statistics.put("开课数量", counts.getOfferingCount());
+            statistics.put("评教记录数量", counts.getEvaluationCount());
+            statistics.put("评教周期数量", counts.getPeriodCount());
+        } catch (SQLException e) {
+            System.err.println("获取系统统计信息时数据库错误: " + e.getMessage());
+        }
+        
+        return statistics;
+    }
+
+    /**
+     * 获取评教周期的统计快照
+     * 系统数量一次查询，周期内的教师、课程和班级汇总一次查询，供统计报表页面共用
+     */
+    public StatisticsSnapshot getStatisticsSnapshot(String periodId) {
+        try (Connection conn = DatabaseUtil.getConnection(DatabaseUtil.Operation.REPORT)) {
+            StatisticsSnapshot.SystemCounts counts = loadSystemCounts(conn);
+
+            String sql = """
+                SELECT
+                    a.dimension,
+                    a.group_id,
+                    a.eval_count,
+                    a.participant_count,
+                    a.score_sum,
+                    a.score_sq_sum,
+                    a.min_score,
+                    a.max_score,
+                    a.excellent_count,
+                    a.good_count,
+                    a.average_count,
+                    a.pass_count,
+                    a.fail_count,
+                    COALESCE(t.name, c.course_name) as group_name,
+                    COALESCE(t.title, c.course_type) as category,
+                    COALESCE(t.college, c.college) as college,
+                    CASE a.dimension
+                        WHEN 'TEACHER' THEN (SELECT COUNT(*) FROM course_offerings co WHERE co.teacher_id = a.group_id)
+                        WHEN 'COURSE' THEN (SELECT COUNT(*) FROM course_offerings co WHERE co.course_id = a.group_id)
+                        ELSE 0
+                    END as offering_count
+                FROM evaluation_aggregates a
+                LEFT JOIN teachers t ON a.dimension = 'TEACHER' AND t.teacher_id = a.group_id
+                LEFT JOIN courses c ON a.dimension = 'COURSE' AND c.course_id = a.group_id
+                WHERE a.period_id = ? AND a.eval_count > 0
+            """;
+
+            List<StatisticsSnapshot.GroupStatistics> teachers = new ArrayList<>();
+            List<StatisticsSnapshot.GroupStatistics> courses = new ArrayList<>();
+            int participatedStudents = 0;
+            double scoreSum = 0;
+            int[] gradeCounts = new int[StatisticsSnapshot.GRADES.length];
+
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setString(1, periodId);
                 ResultSet rs = pstmt.executeQuery();
-                if (rs.next()) {
-                    statistics.put("评教记录数量", rs.getInt("count"));
+
+                while (rs.next()) {
+                    String dimension = rs.getString("dimension");
+                    int evaluationCount = rs.getInt("eval_count");
+                    double groupScoreSum = rs.getDouble("score_sum");
+
+                    if (EvaluationAggregates.CLASS.equals(dimension)) {
+                        // 班级分组覆盖本周期全部评教，用于参与人数和等级分布
+                        participatedStudents += rs.getInt("participant_count");
+                        scoreSum += groupScoreSum;
+                        gradeCounts[0] += rs.getInt("excellent_count");
+                        gradeCounts[1] += rs.getInt("good_count");
+                        gradeCounts[2] += rs.getInt("average_count");
+                        gradeCounts[3] += rs.getInt("pass_count");
+                        gradeCounts[4] += rs.getInt("fail_count");
+                        continue;
+                    }
+
+                    StatisticsSnapshot.GroupStatistics group = new StatisticsSnapshot.GroupStatistics(
+                            rs.getString("group_id"),
+                            rs.getString("group_name"),
+                            rs.getString("category"),
+                            rs.getString("college"),
+                            rs.getInt("offering_count"),
+                            evaluationCount,
+                            groupScoreSum / evaluationCount,
+                            rs.getDouble("min_score"),
+                            rs.getDouble("max_score"),
+                            stdDev(evaluationCount, groupScoreSum, rs.getDouble("score_sq_sum")));
+                    if (EvaluationAggregates.TEACHER.equals(dimension)) {
+                        teachers.add(group);
+                    } else {
+                        courses.add(group);
+                    }
                 }
             }
-            
-            // 评教周期统计
-            String periodSql = "SELECT COUNT(*) as count FROM evaluation_periods";
-            try (PreparedStatement pstmt = conn.prepareStatement(periodSql)) {
-                ResultSet rs = pstmt.executeQuery();
-                if (rs.next()) {
-                    statistics.put("评教周期数量", rs.getInt("count"));
+
+            return new StatisticsSnapshot(periodId, counts, participatedStudents, scoreSum, gradeCounts, teachers, courses);
+        } catch (SQLException e) {
+            System.err.println("获取统计快照时数据库错误: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 一次查询获取系统各类数据的数量
+     */
+    private StatisticsSnapshot.SystemCounts loadSystemCounts(Connection conn) throws SQLException {
+        String sql = """
+            SELECT
+                (SELECT COUNT(*) FROM students) as student_count,
+                (SELECT COUNT(*) FROM teachers) as teacher_count,
+                (SELECT COUNT(*) FROM academic_affairs_staff) as staff_count,
+                (SELECT COUNT(*) FROM administrators) as admin_count,
+                (SELECT COUNT(*) FROM classes) as class_count,
+                (SELECT COUNT(*) FROM courses) as course_count,
+                (SELECT COUNT(*) FROM course_offerings) as offering_count,
+                (SELECT COUNT(*) FROM evaluation_periods) as period_count,
+                (SELECT COUNT(*) FROM evaluations) as evaluation_count
+            FROM (VALUES (0))
+        """;
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            ResultSet rs = pstmt.executeQuery();
+            rs.next();
+            return new StatisticsSnapshot.SystemCounts(
+                    rs.getInt("student_count"),
+                    rs.getInt("teacher_count"),
+                    rs.getInt("staff_count"),
+                    rs.getInt("admin_count"),
+                    rs.getInt("class_count"),
+                    rs.getInt("course_count"),
+                    rs.getInt("offering_count"),
+                    rs.getInt("period_count"),
+                    rs.getInt("evaluation_count"));
+        }
+    }
+
+    /**
+     * 从评教记录重建统计汇总表，并校验重建结果
+     */
+    public Map<String, Object> rebuildAggregateStatistics() {
+        Map<String, Object> result = new HashMap<>();
+
+        try (Connection conn = DatabaseUtil.getConnection(DatabaseUtil.Operation.MAINTENANCE)) {
+            long start = System.nanoTime();
+            conn.setAutoCommit(false);
+            try {
+                try (Statement stmt = conn.createStatement()) {
+                    // 重建期间不允许评教提交写入，否则重建时提交的评教会被漏计或重复计入
+                    stmt.execute("LOCK TABLE evaluations WRITE, evaluation_aggregates WRITE");
                 }
+                result.put("groupCount", EvaluationAggregates.rebuild(conn));
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
             }
-            
+            result.put("elapsedMillis", (System.nanoTime() - start) / 1_000_000);
+            result.put("mismatches", EvaluationAggregates.verify(conn));
         } catch (SQLException e) {
-            System.err.println("获取系统统计信息时数据库错误: " + e.getMessage());
+            System.err.println("重建统计汇总时数据库错误: " + e.getMessage());
         }
-        
-        return statistics;
+
+        return result;
+    }
+
+    /**
+     * 校验统计汇总表与评教记录是否一致
+     * @return 不一致的分组，一致时为空
+     */
+    public List<String> verifyAggregateStatistics() {
+        try (Connection conn = DatabaseUtil.getConnection(DatabaseUtil.Operation.REPORT)) {
+            return EvaluationAggregates.verify(conn);
+        } catch (SQLException e) {
+            System.err.println("校验统计汇总时数据库错误: " + e.getMessage());
+            return Collections.singletonList("校验失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 根据评教数、总分和与平方和计算标准差
+     */
+    private static double stdDev(int count, double sum, double sumOfSquares) {
+        if (count <= 0) {
+            return 0;
+        }
+        double mean = sum / count;
+        return Math.sqrt(Math.max(0, sumOfSquares / count - mean * mean));
     }
 }
@@ -6,7 +6,9 @@ import edu.ai.haut.util.ValidationUtil;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * 学生服务类
@@ -50,6 +52,72 @@ public class StudentService extends BaseService {
         return result;
     }
     
+    /**
+     * 批量注册学生
+     * 跳过数据不合法或班级不存在的学生，其余学生分块批量写入，完成后统一刷新班级人数
+     * @return 成功注册的学生数量
+     */
+    public int registerStudents(List<Student> students) {
+        Set<String> classIds = getExistingClassIds();
+        List<Object[]> rows = new ArrayList<>();
+        for (Student student : students) {
+            if (!validateStudentData(student) || !classIds.contains(student.getClassId())) {
+                System.err.println("跳过不合法的学生数据: " + (student != null ? student.getStudentId() : null));
+                continue;
+            }
+            rows.add(new Object[]{student.getStudentId(), student.getName(), student.getGender(),
+                                  student.getGrade(), student.getMajor(), student.getClassId(), student.getPassword()});
+        }
+
+        String[] columns = {"student_id", "name", "gender", "grade", "major", "class_id", "password"};
+        int inserted = bulkInsertRecords("students", columns, rows);
+        if (inserted > 0) {
+            refreshClassStudentCounts();
+        }
+        return inserted;
+    }
+
+    /**
+     * 获取所有班级编号
+     */
+    private Set<String> getExistingClassIds() {
+        Set<String> classIds = new HashSet<>();
+        try {
+            String sql = "SELECT class_id FROM classes";
+            try (Connection conn = DatabaseUtil.getConnection();
+                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+                ResultSet rs = pstmt.executeQuery();
+                while (rs.next()) {
+                    classIds.add(rs.getString("class_id"));
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("获取班级编号列表时数据库错误: " + e.getMessage());
+        }
+        return classIds;
+    }
+
+    /**
+     * 按学生表重新计算所有班级的学生人数
+     */
+    public void refreshClassStudentCounts() {
+        try {
+            String sql = """
+                UPDATE classes SET student_count = (
+                    SELECT COUNT(*) FROM students WHERE students.class_id = classes.class_id
+                )
+            """;
+            try (Connection conn = DatabaseUtil.getConnection();
+                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.executeUpdate();
+                ReferenceDataCache.getInstance().invalidate(ReferenceDataCache.CLASSES);
+            }
+        } catch (SQLException e) {
+            System.err.println("刷新班级学生人数时数据库错误: " + e.getMessage());
+        }
+    }
+    
     /**
      * 验证学生数据
      */
@@ -76,6 +144,7 @@ public class StudentService extends BaseService {
                 pstmt.setInt(1, increment);
                 pstmt.setString(2, classId);
                 pstmt.executeUpdate();
+                ReferenceDataCache.getInstance().invalidate(ReferenceDataCache.CLASSES);
             }
         } catch (SQLException e) {
             System.err.println("更新班级学生人数时数据库错误: " + e.getMessage());
@@ -35,6 +35,26 @@ public class TeacherService extends BaseService {
         return insertRecord("teachers", columns, values);
     }
 
+    /**
+     * 批量注册教师
+     * 跳过数据不合法的教师，其余教师分块批量写入
+     * @return 成功注册的教师数量
+     */
+    public int registerTeachers(List<Teacher> teachers) {
+        List<Object[]> rows = new ArrayList<>();
+        for (Teacher teacher : teachers) {
+            if (!validateTeacherData(teacher)) {
+                System.err.println("跳过不合法的教师数据: " + (teacher != null ? teacher.getTeacherId() : null));
+                continue;
+            }
+            rows.add(new Object[]{teacher.getTeacherId(), teacher.getName(), teacher.getGender(),
+                                  teacher.getTitle(), teacher.getCollege(), teacher.getPassword()});
+        }
+
+        String[] columns = {"teacher_id", "name", "gender", "title", "college", "password"};
+        return bulkInsertRecords("teachers", columns, rows);
+    }
+
     /**
      * 验证教师数据
      */
@@ -81,6 +101,13 @@ public class TeacherService extends BaseService {
      * 获取所有教师列表
      */
     public List<Teacher> getAllTeachers() {
+        return ReferenceDataCache.getInstance().getList(ReferenceDataCache.TEACHERS, this::queryAllTeachers);
+    }
+
+    /**
+     * 从数据库查询所有教师列表
+     */
+    private List<Teacher> queryAllTeachers() {
         List<Teacher> teachers = new ArrayList<>();
         
         try {
@@ -165,6 +192,13 @@ public class TeacherService extends BaseService {
      * 获取所有学院列表
      */
     public List<String> getAllColleges() {
+        return ReferenceDataCache.getInstance().getList(ReferenceDataCache.TEACHERS + ":colleges", this::queryAllColleges);
+    }
+
+    /**
+     * 从数据库查询所有学院列表
+     */
+    private List<String> queryAllColleges() {
         List<String> colleges = new ArrayList<>();
         
         try {
@@ -189,6 +223,13 @@ public class TeacherService extends BaseService {
      * 获取所有职称列表
      */
     public List<String> getAllTitles() {
+        return ReferenceDataCache.getInstance().getList(ReferenceDataCache.TEACHERS + ":titles", this::queryAllTitles);
+    }
+
+    /**
+     * 从数据库查询所有职称列表
+     */
+    private List<String> queryAllTitles() {
         List<String> titles = new ArrayList<>();
         
         try {
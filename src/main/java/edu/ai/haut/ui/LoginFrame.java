@@ -6,11 +6,13 @@ import edu.ai.haut.ui.student.StudentMainFrame;
 import edu.ai.haut.ui.teacher.TeacherMainFrame;
 import edu.ai.haut.ui.admin.AdminMainFrame;
 import edu.ai.haut.ui.staff.StaffMainFrame;
+import edu.ai.haut.util.DatabaseUtil;
 
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.util.concurrent.ExecutionException;
 
 /**
  * 登录界面
@@ -266,29 +268,39 @@ public class LoginFrame extends JFrame {
             return;
         }
         
-        // 显示登录进度
-        loginButton.setText("登录中...");
+        // 显示登录进度，数据库仍在启动时提示等待
+        loginButton.setText(DatabaseUtil.isReady() ? "登录中..." : "等待数据库...");
         loginButton.setEnabled(false);
         
-        SwingUtilities.invokeLater(() -> {
-            try {
-                User user = userService.login(userId, password, userType);
-                
-                if (user != null) {
-                    // 登录成功，打开对应的主界面
-                    openMainFrame(user);
-                    dispose(); // 关闭登录窗口
-                } else {
-                    JOptionPane.showMessageDialog(this, "用户名或密码错误", "登录失败", JOptionPane.ERROR_MESSAGE);
+        new SwingWorker<User, Void>() {
+            @Override
+            protected User doInBackground() throws Exception {
+                DatabaseUtil.awaitReady();
+                return userService.login(userId, password, userType);
+            }
+            
+            @Override
+            protected void done() {
+                try {
+                    User user = get();
+                    
+                    if (user != null) {
+                        // 登录成功，打开对应的主界面
+                        openMainFrame(user);
+                        dispose(); // 关闭登录窗口
+                    } else {
+                        JOptionPane.showMessageDialog(LoginFrame.this, "用户名或密码错误", "登录失败", JOptionPane.ERROR_MESSAGE);
+                    }
+                } catch (InterruptedException | ExecutionException ex) {
+                    Throwable cause = ex.getCause() != null ? ex.getCause() : ex;
+                    JOptionPane.showMessageDialog(LoginFrame.this, "登录时发生错误: " + cause.getMessage(), "错误", JOptionPane.ERROR_MESSAGE);
+                } finally {
+                    loginButton.setText("登录");
+                    loginButton.setEnabled(true);
+                    passwordField.setText("");
                 }
-            } catch (Exception ex) {
-                JOptionPane.showMessageDialog(this, "登录时发生错误: " + ex.getMessage(), "错误", JOptionPane.ERROR_MESSAGE);
-            } finally {
-                loginButton.setText("登录");
-                loginButton.setEnabled(true);
-                passwordField.setText("");
             }
-        });
+        }.execute();
     }
     
     /**
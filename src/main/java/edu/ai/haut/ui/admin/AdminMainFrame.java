@@ -3,10 +3,12 @@ package edu.ai.haut.ui.admin;
 import edu.ai.haut.model.*;
 import edu.ai.haut.service.*;
 import edu.ai.haut.ui.LoginFrame;
+import edu.ai.haut.ui.common.BackgroundLoader;
 import edu.ai.haut.ui.common.ManagementUIHelper;
 import edu.ai.haut.ui.common.LayoutUtil;
 import edu.ai.haut.ui.common.TableUtil;
 import edu.ai.haut.util.DatabaseUtil;
+import edu.ai.haut.util.IdGenerator;
 
 import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
@@ -18,6 +20,10 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 /**
  * 管理员主界面
@@ -25,6 +31,11 @@ import java.util.Map;
  */
 public class AdminMainFrame extends JFrame {
     
+    /**
+     * 查看评教记录时每次读取的条数
+     */
+    private static final int EVALUATION_PAGE_SIZE = 100;
+    
     private User currentUser;
     private Administrator currentAdmin;
     
@@ -35,6 +46,7 @@ public class AdminMainFrame extends JFrame {
     private EvaluationService evaluationService;
     private StatisticsService statisticsService;
     private UserService userService;
+    private ManagementService managementService;
     private ManagementUIHelper managementUIHelper;
     
     private JTabbedPane tabbedPane;
@@ -51,6 +63,8 @@ public class AdminMainFrame extends JFrame {
     private JLabel statusLabel;
     private JComboBox<String> userTypeComboBox;
     
+    private final BackgroundLoader loader = new BackgroundLoader(this);
+    
     public AdminMainFrame(User user) {
         this.currentUser = user;
         this.currentAdmin = (Administrator) user;
@@ -62,6 +76,7 @@ public class AdminMainFrame extends JFrame {
         this.evaluationService = new EvaluationService();
         this.statisticsService = new StatisticsService();
         this.userService = new UserService();
+        this.managementService = new ManagementService();
         this.managementUIHelper = new ManagementUIHelper();
         
         initializeComponents();
@@ -165,6 +180,7 @@ public class AdminMainFrame extends JFrame {
         
         add(topPanel, BorderLayout.NORTH);
         add(tabbedPane, BorderLayout.CENTER);
+        add(loader.getProgressBar(), BorderLayout.SOUTH);
         
         // 设置按钮事件
         refreshButton.addActionListener(e -> loadData());
@@ -188,11 +204,13 @@ public class AdminMainFrame extends JFrame {
         JButton addUserButton = LayoutUtil.createButton("添加用户", LayoutUtil.SUCCESS_COLOR);
         JButton editUserButton = LayoutUtil.createButton("编辑用户", LayoutUtil.WARNING_COLOR);
         JButton deleteUserButton = LayoutUtil.createButton("删除用户", LayoutUtil.DANGER_COLOR);
+        JButton userEvaluationsButton = LayoutUtil.createButton("评教记录", LayoutUtil.PRIMARY_COLOR);
         
         toolPanel.add(queryUsersButton);
         toolPanel.add(addUserButton);
         toolPanel.add(editUserButton);
         toolPanel.add(deleteUserButton);
+        toolPanel.add(userEvaluationsButton);
         
         panel.add(toolPanel, BorderLayout.NORTH);
         
@@ -205,6 +223,7 @@ public class AdminMainFrame extends JFrame {
         addUserButton.addActionListener(e -> showAddUserDialog());
         editUserButton.addActionListener(e -> showEditUserDialog());
         deleteUserButton.addActionListener(e -> deleteSelectedUser());
+        userEvaluationsButton.addActionListener(e -> showUserEvaluationsDialog());
         
         return panel;
     }
@@ -372,37 +391,33 @@ public class AdminMainFrame extends JFrame {
     
     /**
      * 加载用户数据
+     * 连续切换用户类型时只保留最后一次查询
      */
     private void loadUserData() {
-        userTableModel.setRowCount(0);
+        String userType = (String) userTypeComboBox.getSelectedItem();
         
-        try {
-            String userType = (String) userTypeComboBox.getSelectedItem();
-            
+        loader.streamRows("user", userTableModel, sink -> {
             switch (userType) {
                 case "学生":
-                    loadStudentData();
+                    loadStudentData(sink);
                     break;
                 case "教师":
-                    loadTeacherData();
+                    loadTeacherData(sink);
                     break;
                 case "教务人员":
-                    loadStaffData();
+                    loadStaffData(sink);
                     break;
                 case "管理员":
-                    loadAdminData();
+                    loadAdminData(sink);
                     break;
             }
-        } catch (Exception e) {
-            JOptionPane.showMessageDialog(this, "加载用户数据失败: " + e.getMessage(), 
-                "错误", JOptionPane.ERROR_MESSAGE);
-        }
+        }, "加载用户数据失败");
     }
     
     /**
      * 加载学生数据
      */
-    private void loadStudentData() {
+    private void loadStudentData(Consumer<Object[]> sink) {
         List<Student> students = studentService.getAllStudents();
         for (Student student : students) {
             Object[] row = {
@@ -412,14 +427,14 @@ public class AdminMainFrame extends JFrame {
                 "学生",
                 String.format("年级:%s 专业:%s 班级:%s", student.getGrade(), student.getMajor(), student.getClassId())
             };
-            userTableModel.addRow(row);
+            sink.accept(row);
         }
     }
     
     /**
      * 加载教师数据
      */
-    private void loadTeacherData() {
+    private void loadTeacherData(Consumer<Object[]> sink) {
         List<Teacher> teachers = teacherService.getAllTeachers();
         for (Teacher teacher : teachers) {
             Object[] row = {
@@ -429,14 +444,14 @@ public class AdminMainFrame extends JFrame {
                 "教师",
                 String.format("职称:%s 学院:%s", teacher.getTitle(), teacher.getCollege())
             };
-            userTableModel.addRow(row);
+            sink.accept(row);
         }
     }
     
     /**
      * 加载教务人员数据
      */
-    private void loadStaffData() {
+    private void loadStaffData(Consumer<Object[]> sink) {
         try {
             AcademicAffairsStaffService staffService = new AcademicAffairsStaffService();
             List<AcademicAffairsStaff> staffList = staffService.getAllStaff();
@@ -448,7 +463,7 @@ public class AdminMainFrame extends JFrame {
                     "教务人员",
                     String.format("部门:%s 职位:%s", staff.getDepartment(), staff.getPosition())
                 };
-                userTableModel.addRow(row);
+                sink.accept(row);
             }
         } catch (Exception e) {
             System.err.println("加载教务人员数据失败: " + e.getMessage());
@@ -458,7 +473,7 @@ public class AdminMainFrame extends JFrame {
     /**
      * 加载管理员数据
      */
-    private void loadAdminData() {
+    private void loadAdminData(Consumer<Object[]> sink) {
         try {
             AdministratorService adminService = new AdministratorService();
             List<Administrator> adminList = adminService.getAllAdministrators();
@@ -470,7 +485,7 @@ public class AdminMainFrame extends JFrame {
                     "管理员",
                     "系统管理员"
                 };
-                userTableModel.addRow(row);
+                sink.accept(row);
             }
         } catch (Exception e) {
             System.err.println("加载管理员数据失败: " + e.getMessage());
@@ -481,78 +496,46 @@ public class AdminMainFrame extends JFrame {
      * 加载课程数据
      */
     private void loadCourseData() {
-        courseTableModel.setRowCount(0);
-        
-        try {
-            List<Course> courses = courseService.getAllCourses();
-            for (Course course : courses) {
-                Object[] row = {
-                    course.getCourseId(),
-                    course.getCourseName(),
-                    course.getCredits(),
-                    course.getCourseType(),
-                    course.getCollege()
-                };
-                courseTableModel.addRow(row);
-            }
-        } catch (Exception e) {
-            JOptionPane.showMessageDialog(this, "加载课程数据失败: " + e.getMessage(),
-                "错误", JOptionPane.ERROR_MESSAGE);
-        }
+        loader.loadRows("course", courseTableModel, courseService::getAllCourses,
+            course -> new Object[]{
+                course.getCourseId(),
+                course.getCourseName(),
+                course.getCredits(),
+                course.getCourseType(),
+                course.getCollege()
+            }, "加载课程数据失败");
     }
 
     /**
      * 加载班级数据
+     * 学生人数逐个班级查询，行转换在后台线程中完成
      */
     private void loadClassData() {
-        classTableModel.setRowCount(0);
-
-        try {
-            List<ClassRoom> classes = classService.getAllClasses();
-            for (ClassRoom classRoom : classes) {
-                // 获取班级学生数量
-                int studentCount = studentService.getStudentCountByClass(classRoom.getClassId());
-
-                Object[] row = {
-                    classRoom.getClassId(),
-                    classRoom.getClassName(),
-                    classRoom.getGrade(),
-                    classRoom.getMajor(),
-                    classRoom.getCollege(),
-                    studentCount
-                };
-                classTableModel.addRow(row);
-            }
-        } catch (Exception e) {
-            JOptionPane.showMessageDialog(this, "加载班级数据失败: " + e.getMessage(),
-                "错误", JOptionPane.ERROR_MESSAGE);
-        }
+        loader.loadRows("class", classTableModel, classService::getAllClasses,
+            classRoom -> new Object[]{
+                classRoom.getClassId(),
+                classRoom.getClassName(),
+                classRoom.getGrade(),
+                classRoom.getMajor(),
+                classRoom.getCollege(),
+                studentService.getStudentCountByClass(classRoom.getClassId())
+            }, "加载班级数据失败");
     }
 
     /**
      * 加载评教数据
      */
     private void loadEvaluationData() {
-        evaluationTableModel.setRowCount(0);
-        
-        try {
-            List<EvaluationPeriod> periods = evaluationService.getAllEvaluationPeriods();
-            for (EvaluationPeriod period : periods) {
-                Object[] row = {
-                    period.getPeriodId(),
-                    period.getPeriodName(),
-                    period.getSemester(),
-                    period.getStartDate().toString(),
-                    period.getEndDate().toString(),
-                    period.getStatus(),
-                    0 // 评教数量，需要单独查询
-                };
-                evaluationTableModel.addRow(row);
-            }
-        } catch (Exception e) {
-            JOptionPane.showMessageDialog(this, "加载评教数据失败: " + e.getMessage(), 
-                "错误", JOptionPane.ERROR_MESSAGE);
-        }
+        loader.loadRows("evaluation", evaluationTableModel, evaluationService::getAllEvaluationPeriods,
+            period -> new Object[]{
+                period.getPeriodId(),
+                period.getPeriodName(),
+                period.getSemester(),
+                period.getStartDate().toString(),
+                period.getEndDate().toString(),
+                period.getStatus(),
+                0 // 评教数量，需要单独查询
+            }, "加载评教数据失败");
     }
     
     /**
@@ -692,8 +675,8 @@ public class AdminMainFrame extends JFrame {
                         // 检查或创建班级
                         ClassRoom classRoom = classService.getClassByName(className);
                         if (classRoom == null) {
+                            // 班级编号由ClassService分配
                             classRoom = new ClassRoom();
-                            classRoom.setClassId("C" + System.currentTimeMillis());
                             classRoom.setClassName(className);
                             classRoom.setGrade(grade);
                             classRoom.setMajor(major);
@@ -821,7 +804,7 @@ public class AdminMainFrame extends JFrame {
                         // 获取学生当前班级信息并显示班级名称
                         String currentClassName = "";
                         try {
-                            ClassRoom currentClass = classService.getClassById(student.getClassId());
+                            ClassRoom currentClass = classService.lookupClass(student.getClassId());
                             if (currentClass != null) {
                                 currentClassName = currentClass.getClassName();
                             }
@@ -1084,8 +1067,8 @@ public class AdminMainFrame extends JFrame {
             return prefix + String.format("%02d", classNumber);
 
         } catch (Exception e) {
-            // 如果查询失败，使用时间戳作为后缀
-            return prefix + System.currentTimeMillis() % 100;
+            // 如果查询失败，由编号生成器分配
+            return IdGenerator.getInstance().nextId(IdGenerator.CLASS_PREFIX);
         }
     }
 
@@ -1121,9 +1104,8 @@ public class AdminMainFrame extends JFrame {
 
         } catch (Exception e) {
             System.err.println("生成班级编号时出错: " + e.getMessage());
-            // 备用方案：使用专业缩写+时间戳
-            String majorPrefix = getMajorPrefix(major);
-            return majorPrefix + grade + String.format("%02d", (int)(System.currentTimeMillis() % 100));
+            // 备用方案：由编号生成器分配
+            return IdGenerator.getInstance().nextId(IdGenerator.CLASS_PREFIX);
         }
     }
 
@@ -1203,6 +1185,133 @@ public class AdminMainFrame extends JFrame {
         }
     }
     
+    /**
+     * 显示选中学生的评教历史或选中教师在某个周期收到的评教
+     * 按评教时间倒序每次读取一页，"加载更多"从上一页的最后一条继续读取
+     */
+    private void showUserEvaluationsDialog() {
+        int selectedRow = userTable.getSelectedRow();
+        String userType = (String) userTypeComboBox.getSelectedItem();
+        if (selectedRow < 0) {
+            JOptionPane.showMessageDialog(this, "请选择要查看的学生或教师", "提示", JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+        if (!"学生".equals(userType) && !"教师".equals(userType)) {
+            JOptionPane.showMessageDialog(this, "只能查看学生或教师的评教记录", "提示", JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+        
+        boolean teacher = "教师".equals(userType);
+        String userId = (String) userTableModel.getValueAt(selectedRow, 0);
+        String userName = (String) userTableModel.getValueAt(selectedRow, 1);
+        
+        JDialog dialog = new JDialog(this, "评教记录 - " + userName, true);
+        dialog.setSize(900, 550);
+        dialog.setLocationRelativeTo(this);
+        
+        JPanel panel = new JPanel(new BorderLayout());
+        
+        // 教师按评教周期查看
+        JComboBox<String> periodComboBox = new JComboBox<>();
+        if (teacher) {
+            for (EvaluationPeriod period : evaluationService.getAllEvaluationPeriods()) {
+                periodComboBox.addItem(period.getPeriodId() + " - " + period.getPeriodName());
+            }
+            JPanel filterPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+            filterPanel.add(new JLabel("评教周期:"));
+            filterPanel.add(periodComboBox);
+            panel.add(filterPanel, BorderLayout.NORTH);
+        }
+        
+        String[] columns = {"评教编号", teacher ? "学号" : "授课教师", "课程", "班级", "评教周期", "总分", "等级", "评教时间"};
+        DefaultTableModel tableModel = new DefaultTableModel(columns, 0) {
+            @Override
+            public boolean isCellEditable(int row, int column) {
+                return false;
+            }
+        };
+        JTable table = new JTable(tableModel);
+        table.setRowHeight(25);
+        managementUIHelper.setupTableStyle(table);
+        panel.add(new JScrollPane(table), BorderLayout.CENTER);
+        
+        JLabel infoLabel = new JLabel();
+        infoLabel.setBorder(BorderFactory.createEmptyBorder(0, 10, 0, 10));
+        JButton moreButton = new JButton("加载更多");
+        moreButton.setEnabled(false);
+        JButton closeButton = new JButton("关闭");
+        closeButton.setBackground(new Color(70, 130, 180));
+        closeButton.setForeground(Color.WHITE);
+        closeButton.setFocusPainted(false);
+        
+        JPanel buttonPanel = new JPanel(new FlowLayout());
+        buttonPanel.add(moreButton);
+        buttonPanel.add(closeButton);
+        JPanel bottomPanel = new JPanel(new BorderLayout());
+        bottomPanel.add(infoLabel, BorderLayout.WEST);
+        bottomPanel.add(buttonPanel, BorderLayout.EAST);
+        panel.add(bottomPanel, BorderLayout.SOUTH);
+        
+        Function<EvaluationRow, Object[]> rowMapper = row -> new Object[]{
+            row.getEvaluationId(),
+            teacher ? row.getStudentId() : row.getTeacherName(),
+            row.getCourseName(),
+            row.getClassName(),
+            row.getPeriodName(),
+            String.format("%.1f", row.getTotalScore()),
+            row.getGrade(),
+            row.getEvaluationDate().toLocalDate().toString()
+        };
+        
+        // 下一页的游标和估算的总条数，只在事件分发线程中读写
+        AtomicReference<EvaluationRow> cursor = new AtomicReference<>();
+        AtomicInteger total = new AtomicInteger();
+        
+        Consumer<Boolean> loadPage = reset -> {
+            String selectedPeriod = (String) periodComboBox.getSelectedItem();
+            String periodId = selectedPeriod != null ? selectedPeriod.split(" - ")[0] : null;
+            if (reset) {
+                tableModel.setRowCount(0);
+                cursor.set(null);
+            }
+            EvaluationRow after = cursor.get();
+            AtomicReference<EvaluationRow> next = new AtomicReference<>();
+            AtomicInteger estimate = new AtomicInteger(total.get());
+            moreButton.setEnabled(false);
+            
+            loader.appendRows("userEvaluations", tableModel, sink -> {
+                if (after == null) {
+                    estimate.set(teacher
+                        ? managementService.estimateEvaluationCountByTeacherAndPeriod(userId, periodId)
+                        : managementService.estimateEvaluationCountByStudentId(userId));
+                }
+                next.set(teacher
+                    ? managementService.getEvaluationsByTeacherAndPeriod(userId, periodId, after, EVALUATION_PAGE_SIZE, sink)
+                    : managementService.getEvaluationsByStudentId(userId, after, EVALUATION_PAGE_SIZE, sink));
+            }, rowMapper, "加载评教记录失败", () -> {
+                cursor.set(next.get());
+                total.set(estimate.get());
+                moreButton.setEnabled(next.get() != null);
+                int loaded = tableModel.getRowCount();
+                infoLabel.setText(next.get() == null
+                    ? "共 " + loaded + " 条评教记录"
+                    : "已加载 " + loaded + " 条，共约 " + Math.max(loaded, total.get()) + " 条");
+            });
+        };
+        
+        periodComboBox.addActionListener(e -> loadPage.accept(true));
+        moreButton.addActionListener(e -> loadPage.accept(false));
+        closeButton.addActionListener(e -> {
+            loader.cancel("userEvaluations");
+            dialog.dispose();
+        });
+        
+        loadPage.accept(true);
+        
+        dialog.add(panel);
+        dialog.setVisible(true);
+    }
+    
     /**
      * 显示添加课程对话框
      */
@@ -1553,37 +1662,15 @@ public class AdminMainFrame extends JFrame {
      * 加载开课数据
      */
     private void loadOfferingData(DefaultTableModel tableModel) {
-        tableModel.setRowCount(0);
-
-        try {
-            List<CourseOffering> offerings = courseService.getAllCourseOfferings();
-            for (CourseOffering offering : offerings) {
-                // 获取课程名称
-                Course course = courseService.getCourseById(offering.getCourseId());
-                String courseName = course != null ? course.getCourseName() : "未知课程";
-
-                // 获取教师名称
-                Teacher teacher = teacherService.getTeacherById(offering.getTeacherId());
-                String teacherName = teacher != null ? teacher.getName() : "未知教师";
-
-                // 获取班级名称
-                ClassRoom classRoom = courseService.getClassRoomById(offering.getClassId());
-                String className = classRoom != null ? classRoom.getClassName() : "未知班级";
-
-                Object[] row = {
-                    offering.getOfferingId(),
-                    courseName,
-                    teacherName,
-                    className,
-                    offering.getSemester(),
-                    offering.getSchedule()
-                };
-                tableModel.addRow(row);
-            }
-        } catch (Exception e) {
-            JOptionPane.showMessageDialog(this, "加载开课数据失败: " + e.getMessage(),
-                "错误", JOptionPane.ERROR_MESSAGE);
-        }
+        loader.loadRows("offering", tableModel, courseService::getAllCourseOfferings,
+            offering -> new Object[]{
+                offering.getOfferingId(),
+                offering.getCourse().getCourseName(),
+                offering.getTeacher().getName(),
+                offering.getClassRoom().getClassName(),
+                offering.getSemester(),
+                offering.getSchedule()
+            }, "加载开课数据失败");
     }
 
     /**
@@ -2717,11 +2804,17 @@ public class AdminMainFrame extends JFrame {
         generateButton.setForeground(Color.WHITE);
         generateButton.setFocusPainted(false);
 
+        JButton rebuildButton = new JButton("重建统计数据");
+        rebuildButton.setBackground(new Color(255, 140, 0));
+        rebuildButton.setForeground(Color.WHITE);
+        rebuildButton.setFocusPainted(false);
+
         controlPanel.add(new JLabel("评教周期:"));
         controlPanel.add(periodComboBox);
         controlPanel.add(new JLabel("统计类型:"));
         controlPanel.add(statisticsTypeComboBox);
         controlPanel.add(generateButton);
+        controlPanel.add(rebuildButton);
 
         mainPanel.add(controlPanel, BorderLayout.NORTH);
 
@@ -2782,6 +2875,27 @@ public class AdminMainFrame extends JFrame {
             generateAdminStatisticsReport(periodId, statisticsType, statisticsTableModel, analysisArea);
         });
 
+        rebuildButton.addActionListener(e -> {
+            // 重建和校验要扫描全部评教记录，在后台执行，完成前禁用按钮
+            rebuildButton.setEnabled(false);
+            loader.load("rebuildStatistics", statisticsService::rebuildAggregateStatistics, result -> {
+                if (!result.containsKey("mismatches")) {
+                    JOptionPane.showMessageDialog(dialog, "重建统计数据失败，请查看日志", "错误", JOptionPane.ERROR_MESSAGE);
+                    return;
+                }
+
+                @SuppressWarnings("unchecked")
+                List<String> mismatches = (List<String>) result.get("mismatches");
+                String message = String.format("已重建 %s 个统计分组，耗时 %sms", result.get("groupCount"), result.get("elapsedMillis"));
+                if (mismatches.isEmpty()) {
+                    JOptionPane.showMessageDialog(dialog, message + "\n校验通过", "成功", JOptionPane.INFORMATION_MESSAGE);
+                } else {
+                    JOptionPane.showMessageDialog(dialog, message + "\n校验发现不一致的分组: " + mismatches,
+                        "警告", JOptionPane.WARNING_MESSAGE);
+                }
+            }, "重建统计数据失败", () -> rebuildButton.setEnabled(true));
+        });
+
         closeButton.addActionListener(e -> dialog.dispose());
 
         dialog.add(mainPanel);
@@ -2822,27 +2936,28 @@ public class AdminMainFrame extends JFrame {
      */
     private void generateAdminOverallStatistics(String periodId, DefaultTableModel tableModel, JTextArea analysisArea) {
         try {
-            // 获取基本统计数据
-            Map<String, Object> teacherStats = statisticsService.getTeacherEvaluationStatistics(periodId);
-            Map<String, Object> courseStats = statisticsService.getCourseEvaluationStatistics(periodId);
-            Map<String, Object> studentStats = statisticsService.getStudentEvaluationStatistics(periodId);
+            StatisticsSnapshot snapshot = statisticsService.getStatisticsSnapshot(periodId);
+            if (snapshot == null) {
+                throw new IllegalStateException("统计数据加载失败");
+            }
+            int teacherCount = snapshot.getTeachers().size();
+            int courseCount = snapshot.getCourses().size();
 
             // 添加统计数据到表格
-            tableModel.addRow(new Object[]{"参与教师总数", teacherStats.getOrDefault("totalTeachers", 0), "100%", "-", "已完成评教的教师数量"});
-            tableModel.addRow(new Object[]{"参与课程总数", courseStats.getOrDefault("totalCourses", 0), "100%", "-", "已完成评教的课程数量"});
-            tableModel.addRow(new Object[]{"参与学生总数", studentStats.getOrDefault("participatedStudents", 0),
-                String.format("%.1f%%", (Double) studentStats.getOrDefault("participationRate", 0.0)), "-", "参与评教的学生数量"});
+            tableModel.addRow(new Object[]{"参与教师总数", teacherCount, "100%", "-", "已完成评教的教师数量"});
+            tableModel.addRow(new Object[]{"参与课程总数", courseCount, "100%", "-", "已完成评教的课程数量"});
+            tableModel.addRow(new Object[]{"参与学生总数", snapshot.getParticipatedStudents(),
+                String.format("%.1f%%", snapshot.getParticipationRate()), "-", "参与评教的学生数量"});
 
-            double overallAvgScore = (Double) teacherStats.getOrDefault("overallAvgScore", 0.0);
+            double overallAvgScore = snapshot.getOverallAvgScore();
             tableModel.addRow(new Object[]{"总体平均分", String.format("%.2f", overallAvgScore), "-", getGradeByScore(overallAvgScore), "所有评教的平均分数"});
 
             // 生成分析报告
             StringBuilder analysis = new StringBuilder();
             analysis.append("=== 评教总体统计分析报告 ===\n\n");
             analysis.append("一、基本情况\n");
-            analysis.append(String.format("本次评教周期共有 %d 名教师、%d 门课程参与评教，",
-                teacherStats.getOrDefault("totalTeachers", 0), courseStats.getOrDefault("totalCourses", 0)));
-            analysis.append(String.format("学生参与率为 %.1f%%。\n\n", (Double) studentStats.getOrDefault("participationRate", 0.0)));
+            analysis.append(String.format("本次评教周期共有 %d 名教师、%d 门课程参与评教，", teacherCount, courseCount));
+            analysis.append(String.format("学生参与率为 %.1f%%。\n\n", snapshot.getParticipationRate()));
 
             analysis.append("二、评教结果分析\n");
             analysis.append(String.format("总体平均分为 %.2f 分，等级为 %s。\n\n", overallAvgScore, getGradeByScore(overallAvgScore)));
@@ -2868,61 +2983,39 @@ public class AdminMainFrame extends JFrame {
      */
     private void generateAdminTeacherRanking(String periodId, DefaultTableModel tableModel, JTextArea analysisArea) {
         try {
-            String sql = """
-                SELECT t.teacher_id, t.name, t.title, t.college,
-                       AVG(e.total_score) as avg_score, COUNT(e.evaluation_id) as eval_count
-                FROM teachers t
-                JOIN course_offerings co ON t.teacher_id = co.teacher_id
-                JOIN evaluations e ON co.offering_id = e.offering_id
-                WHERE e.period_id = ?
-                GROUP BY t.teacher_id, t.name, t.title, t.college
-                HAVING COUNT(e.evaluation_id) >= 3
-                ORDER BY avg_score DESC
-                LIMIT 20
-            """;
-
-            try (Connection conn = DatabaseUtil.getConnection();
-                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
-
-                pstmt.setString(1, periodId);
-                ResultSet rs = pstmt.executeQuery();
-
-                int rank = 1;
-                StringBuilder analysis = new StringBuilder();
-                analysis.append("=== 教师评教排名分析 ===\n\n");
-                analysis.append("排名规则：至少3次评教记录，按平均分排序\n\n");
-
-                while (rs.next()) {
-                    String teacherId = rs.getString("teacher_id");
-                    String name = rs.getString("name");
-                    String title = rs.getString("title");
-                    String college = rs.getString("college");
-                    double avgScore = rs.getDouble("avg_score");
-                    int evalCount = rs.getInt("eval_count");
-
-                    tableModel.addRow(new Object[]{
-                        name + "(" + teacherId + ")",
-                        String.format("%.2f", avgScore),
-                        title,
-                        String.valueOf(rank),
-                        college + " | " + evalCount + "次评教"
-                    });
-
-                    if (rank <= 10) {
-                        analysis.append(String.format("第%d名：%s（%s），平均分%.2f，评教%d次\n",
-                            rank, name, title, avgScore, evalCount));
-                    }
+            StatisticsSnapshot snapshot = statisticsService.getStatisticsSnapshot(periodId);
+            if (snapshot == null) {
+                throw new IllegalStateException("统计数据加载失败");
+            }
 
-                    rank++;
+            int rank = 1;
+            StringBuilder analysis = new StringBuilder();
+            analysis.append("=== 教师评教排名分析 ===\n\n");
+            analysis.append("排名规则：至少3次评教记录，按平均分排序\n\n");
+
+            for (StatisticsSnapshot.GroupStatistics group : StatisticsSnapshot.ranking(snapshot.getTeachers(), 3, 20)) {
+                tableModel.addRow(new Object[]{
+                    group.getName() + "(" + group.getId() + ")",
+                    String.format("%.2f", group.getAvgScore()),
+                    group.getCategory(),
+                    String.valueOf(rank),
+                    group.getCollege() + " | " + group.getEvaluationCount() + "次评教"
+                });
+
+                if (rank <= 10) {
+                    analysis.append(String.format("第%d名：%s（%s），平均分%.2f，评教%d次\n",
+                        rank, group.getName(), group.getCategory(), group.getAvgScore(), group.getEvaluationCount()));
                 }
 
-                analysis.append("\n分析建议：\n");
-                analysis.append("1. 排名前10的教师教学效果突出，可作为教学示范推广经验\n");
-                analysis.append("2. 建议对排名靠后的教师进行教学指导和培训\n");
-                analysis.append("3. 鼓励教师间相互学习，提升整体教学水平\n");
-
-                analysisArea.setText(analysis.toString());
+                rank++;
             }
+
+            analysis.append("\n分析建议：\n");
+            analysis.append("1. 排名前10的教师教学效果突出，可作为教学示范推广经验\n");
+            analysis.append("2. 建议对排名靠后的教师进行教学指导和培训\n");
+            analysis.append("3. 鼓励教师间相互学习，提升整体教学水平\n");
+
+            analysisArea.setText(analysis.toString());
         } catch (Exception e) {
             throw new RuntimeException("生成教师排名统计失败: " + e.getMessage(), e);
         }
@@ -2933,61 +3026,39 @@ public class AdminMainFrame extends JFrame {
      */
     private void generateAdminCourseRanking(String periodId, DefaultTableModel tableModel, JTextArea analysisArea) {
         try {
-            String sql = """
-                SELECT c.course_id, c.course_name, c.course_type, c.college,
-                       AVG(e.total_score) as avg_score, COUNT(e.evaluation_id) as eval_count
-                FROM courses c
-                JOIN course_offerings co ON c.course_id = co.course_id
-                JOIN evaluations e ON co.offering_id = e.offering_id
-                WHERE e.period_id = ?
-                GROUP BY c.course_id, c.course_name, c.course_type, c.college
-                HAVING COUNT(e.evaluation_id) >= 5
-                ORDER BY avg_score DESC
-                LIMIT 20
-            """;
-
-            try (Connection conn = DatabaseUtil.getConnection();
-                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
-
-                pstmt.setString(1, periodId);
-                ResultSet rs = pstmt.executeQuery();
-
-                int rank = 1;
-                StringBuilder analysis = new StringBuilder();
-                analysis.append("=== 课程评教排名分析 ===\n\n");
-                analysis.append("排名规则：至少5次评教记录，按平均分排序\n\n");
-
-                while (rs.next()) {
-                    String courseId = rs.getString("course_id");
-                    String courseName = rs.getString("course_name");
-                    String courseType = rs.getString("course_type");
-                    String college = rs.getString("college");
-                    double avgScore = rs.getDouble("avg_score");
-                    int evalCount = rs.getInt("eval_count");
-
-                    tableModel.addRow(new Object[]{
-                        courseName + "(" + courseId + ")",
-                        String.format("%.2f", avgScore),
-                        courseType,
-                        String.valueOf(rank),
-                        college + " | " + evalCount + "次评教"
-                    });
-
-                    if (rank <= 10) {
-                        analysis.append(String.format("第%d名：%s（%s），平均分%.2f，评教%d次\n",
-                            rank, courseName, courseType, avgScore, evalCount));
-                    }
+            StatisticsSnapshot snapshot = statisticsService.getStatisticsSnapshot(periodId);
+            if (snapshot == null) {
+                throw new IllegalStateException("统计数据加载失败");
+            }
 
-                    rank++;
+            int rank = 1;
+            StringBuilder analysis = new StringBuilder();
+            analysis.append("=== 课程评教排名分析 ===\n\n");
+            analysis.append("排名规则：至少5次评教记录，按平均分排序\n\n");
+
+            for (StatisticsSnapshot.GroupStatistics group : StatisticsSnapshot.ranking(snapshot.getCourses(), 5, 20)) {
+                tableModel.addRow(new Object[]{
+                    group.getName() + "(" + group.getId() + ")",
+                    String.format("%.2f", group.getAvgScore()),
+                    group.getCategory(),
+                    String.valueOf(rank),
+                    group.getCollege() + " | " + group.getEvaluationCount() + "次评教"
+                });
+
+                if (rank <= 10) {
+                    analysis.append(String.format("第%d名：%s（%s），平均分%.2f，评教%d次\n",
+                        rank, group.getName(), group.getCategory(), group.getAvgScore(), group.getEvaluationCount()));
                 }
 
-                analysis.append("\n分析建议：\n");
-                analysis.append("1. 排名前列的课程教学质量优秀，可总结教学经验\n");
-                analysis.append("2. 关注不同课程类型的评教差异，针对性改进\n");
-                analysis.append("3. 建议对评分较低的课程进行教学改革\n");
-
-                analysisArea.setText(analysis.toString());
+                rank++;
             }
+
+            analysis.append("\n分析建议：\n");
+            analysis.append("1. 排名前列的课程教学质量优秀，可总结教学经验\n");
+            analysis.append("2. 关注不同课程类型的评教差异，针对性改进\n");
+            analysis.append("3. 建议对评分较低的课程进行教学改革\n");
+
+            analysisArea.setText(analysis.toString());
         } catch (Exception e) {
             throw new RuntimeException("生成课程排名统计失败: " + e.getMessage(), e);
         }
@@ -3082,6 +3153,7 @@ public class AdminMainFrame extends JFrame {
             for (Map.Entry<String, Object> entry : stats.entrySet()) {
                 message.append(entry.getKey()).append(": ").append(entry.getValue()).append("\n");
             }
+            message.append("\n参考数据缓存: ").append(ReferenceDataCache.getInstance()).append("\n");
             
             JOptionPane.showMessageDialog(this, message.toString(), "系统统计", JOptionPane.INFORMATION_MESSAGE);
             
@@ -3098,6 +3170,7 @@ public class AdminMainFrame extends JFrame {
             JOptionPane.YES_NO_OPTION, JOptionPane.QUESTION_MESSAGE);
         
         if (option == JOptionPane.YES_OPTION) {
+            loader.cancelAll();
             dispose();
             new LoginFrame().setVisible(true);
         }
@@ -0,0 +1,319 @@
+package edu.ai.haut.ui.common;
+
+import javax.swing.*;
+import javax.swing.table.DefaultTableModel;
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * 后台数据加载器
+ * 在工作线程中执行数据库查询，分批把结果发布到事件分发线程，避免界面在查询期间卡住。
+ * 每个加载任务用一个键标识：同一键的任务同时最多运行一个，运行期间重复发起的刷新合并为一次，
+ * 旧任务被新请求取代后不再向界面发布结果。
+ * 除构造方法外，所有方法都应在事件分发线程中调用。
+ */
+public class BackgroundLoader {
+
+    /**
+     * 每批发布到界面的行数
+     */
+    private static final int CHUNK_SIZE = 200;
+
+    /**
+     * 逐条产生数据的后台查询，在工作线程中执行
+     */
+    @FunctionalInterface
+    public interface RowSource<T> {
+        void fetch(Consumer<T> sink) throws Exception;
+    }
+
+    private final Component owner;
+    private final JProgressBar progressBar;
+    private final Map<String, Task<?>> running = new HashMap<>();
+    private final Map<String, Runnable> pending = new HashMap<>();
+
+    public BackgroundLoader(Component owner) {
+        this.owner = owner;
+        this.progressBar = new JProgressBar();
+        progressBar.setStringPainted(true);
+        progressBar.setFont(new Font("微软雅黑", Font.PLAIN, 12));
+        progressBar.setVisible(false);
+    }
+
+    /**
+     * 获取显示加载进度的进度条，没有任务运行时自动隐藏
+     */
+    public JProgressBar getProgressBar() {
+        return progressBar;
+    }
+
+    /**
+     * 后台执行查询，完成后在事件分发线程中处理结果
+     * @param errorMessage 失败时提示信息的前缀，如"加载评教周期失败"
+     */
+    public <R> void load(String key, Callable<R> query, Consumer<R> onLoaded, String errorMessage) {
+        load(key, query, onLoaded, errorMessage, null);
+    }
+
+    /**
+     * 后台执行查询，完成后在事件分发线程中处理结果
+     * @param onFinished 任务结束后在事件分发线程中执行，成功、失败或取消时都会执行，可为null
+     */
+    public <R> void load(String key, Callable<R> query, Consumer<R> onLoaded, String errorMessage,
+                         Runnable onFinished) {
+        submit(key, () -> new Task<R>(key, errorMessage) {
+            @Override
+            protected R doInBackground() throws Exception {
+                return query.call();
+            }
+
+            @Override
+            protected void succeeded(R result) {
+                onLoaded.accept(result);
+            }
+
+            @Override
+            protected void cleanup() {
+                if (onFinished != null) {
+                    onFinished.run();
+                }
+            }
+        });
+    }
+
+    /**
+     * 后台查询列表并填充表格，方式同streamRows
+     */
+    public <T> void loadRows(String key, DefaultTableModel model, Callable<List<T>> query,
+                             Function<T, Object[]> rowMapper, String errorMessage) {
+        streamRows(key, model, sink -> {
+            for (T item : query.call()) {
+                sink.accept(item);
+            }
+        }, rowMapper, errorMessage, null);
+    }
+
+    /**
+     * 后台逐行产生表格数据并填充表格，方式同streamRows
+     */
+    public void streamRows(String key, DefaultTableModel model, RowSource<Object[]> source, String errorMessage) {
+        streamRows(key, model, source, Function.identity(), errorMessage, null);
+    }
+
+    /**
+     * 后台逐条产生数据并填充表格
+     * 表格为空时逐批追加，每批只触发一次插入事件；表格已有数据时（刷新）读取完成后按第一列的键
+     * 与现有数据比较，只更新变化的行，刷新期间旧数据保持显示，选中行和滚动位置不变。
+     * 行的转换也在工作线程中完成，界面线程只负责更新表格
+     * @param onFinished 全部行添加完成后在事件分发线程中执行，可为null
+     */
+    public <T> void streamRows(String key, DefaultTableModel model, RowSource<T> source,
+                               Function<T, Object[]> rowMapper, String errorMessage, Runnable onFinished) {
+        streamRows(key, model, source, rowMapper, errorMessage, onFinished, false);
+    }
+
+    /**
+     * 后台逐条产生数据并追加到表格末尾，不与现有数据比较，用于分页读取时的"加载更多"
+     * @param onFinished 全部行添加完成后在事件分发线程中执行，可为null
+     */
+    public <T> void appendRows(String key, DefaultTableModel model, RowSource<T> source,
+                               Function<T, Object[]> rowMapper, String errorMessage, Runnable onFinished) {
+        streamRows(key, model, source, rowMapper, errorMessage, onFinished, true);
+    }
+
+    private <T> void streamRows(String key, DefaultTableModel model, RowSource<T> source,
+                                Function<T, Object[]> rowMapper, String errorMessage, Runnable onFinished,
+                                boolean appendOnly) {
+        submit(key, () -> new Task<List<Object[]>>(key, errorMessage) {
+            private volatile boolean append;
+            private volatile int rowCount;
+
+            @Override
+            protected void started() {
+                append = appendOnly || model.getRowCount() == 0;
+            }
+
+            @Override
+            protected List<Object[]> doInBackground() throws Exception {
+                List<Object[]> rows = new ArrayList<>();
+                List<Object> chunk = new ArrayList<>(CHUNK_SIZE);
+                source.fetch(item -> {
+                    if (isCancelled()) {
+                        throw new CancellationException();
+                    }
+                    Object[] row = rowMapper.apply(item);
+                    rowCount++;
+                    if (!append) {
+                        rows.add(row);
+                    }
+                    chunk.add(row);
+                    if (chunk.size() >= CHUNK_SIZE) {
+                        publish(chunk.toArray());
+                        chunk.clear();
+                    }
+                });
+                if (!chunk.isEmpty()) {
+                    publish(chunk.toArray());
+                }
+                return rows;
+            }
+
+            @Override
+            protected void process(List<Object> chunks) {
+                if (!isCurrent()) {
+                    return;
+                }
+                if (append) {
+                    List<Object[]> rows = new ArrayList<>(chunks.size());
+                    for (Object row : chunks) {
+                        rows.add((Object[]) row);
+                    }
+                    TableUtil.appendRows(model, rows);
+                }
+                progressBar.setString("正在加载... 已加载 " + rowCount + " 行");
+            }
+
+            @Override
+            protected void succeeded(List<Object[]> rows) {
+                if (!append) {
+                    TableUtil.refreshRows(model, rows, 0);
+                }
+                if (onFinished != null) {
+                    onFinished.run();
+                }
+            }
+        });
+    }
+    
+    /**
+     * 取消某个键的加载任务，包括等待中的刷新
+     * 不中断工作线程：中断会打断HSQLDB的文件读写和连接池等待，任务在下一行数据处检查取消状态后结束
+     */
+    public void cancel(String key) {
+        pending.remove(key);
+        Task<?> task = running.get(key);
+        if (task != null) {
+            task.cancel(false);
+        }
+    }
+
+    /**
+     * 取消全部加载任务，窗口关闭时调用
+     */
+    public void cancelAll() {
+        pending.clear();
+        for (Task<?> task : new ArrayList<>(running.values())) {
+            task.cancel(false);
+        }
+    }
+
+    /**
+     * 同一键已有任务在运行时只保留最后一次请求，待当前任务结束后再执行
+     */
+    private void submit(String key, Supplier<Task<?>> factory) {
+        Runnable start = () -> {
+            Task<?> task = factory.get();
+            running.put(key, task);
+            task.started();
+            updateProgress();
+            task.execute();
+        };
+        Task<?> current = running.get(key);
+        if (current != null) {
+            // 当前结果已过时，停止向界面发布
+            current.superseded = true;
+            pending.put(key, start);
+        } else {
+            start.run();
+        }
+    }
+
+    private void finished(Task<?> task) {
+        if (running.get(task.key) == task) {
+            running.remove(task.key);
+        }
+        Runnable next = pending.remove(task.key);
+        if (next != null) {
+            next.run();
+        }
+        updateProgress();
+    }
+
+    private void updateProgress() {
+        boolean busy = !running.isEmpty();
+        if (busy && !progressBar.isVisible()) {
+            progressBar.setIndeterminate(true);
+            progressBar.setString("正在加载...");
+        }
+        progressBar.setVisible(busy);
+        owner.setCursor(busy ? Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR) : Cursor.getDefaultCursor());
+    }
+
+    /**
+     * 单个加载任务
+     */
+    private abstract class Task<R> extends SwingWorker<R, Object> {
+        private final String key;
+        private final String errorMessage;
+        private volatile boolean superseded;
+
+        Task(String key, String errorMessage) {
+            this.key = key;
+            this.errorMessage = errorMessage;
+        }
+
+        /**
+         * 任务开始前在事件分发线程中执行
+         */
+        protected void started() {
+        }
+
+        /**
+         * 任务成功完成且未被取代时在事件分发线程中执行
+         */
+        protected abstract void succeeded(R result);
+
+        /**
+         * 任务结束后在事件分发线程中执行，无论成功、失败或取消
+         */
+        protected void cleanup() {
+        }
+
+        protected boolean isCurrent() {
+            return !superseded && !isCancelled();
+        }
+
+        @Override
+        protected final void done() {
+            try {
+                if (isCurrent()) {
+                    succeeded(get());
+                }
+            } catch (CancellationException | InterruptedException e) {
+                // 任务已取消，忽略
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                if (isCurrent() && !(cause instanceof CancellationException)) {
+                    System.err.println(errorMessage + ": " + cause.getMessage());
+                    JOptionPane.showMessageDialog(owner, errorMessage + ": " + cause.getMessage(),
+                        "错误", JOptionPane.ERROR_MESSAGE);
+                }
+            } finally {
+                try {
+                    cleanup();
+                } finally {
+                    finished(this);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package edu.ai.haut.ui.common;
+
+import edu.ai.haut.model.EvaluationRow;
+import edu.ai.haut.service.EvaluationService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * 评教记录的分页数据源
+ * 按教师、周期、学生过滤评教记录，表格的每一列对应一个排序字段。
+ * 按默认顺序（评教时间倒序）浏览时记住每页的最后一行，下一页从这一行之后用键集分页读取，
+ * 翻页代价与滚动深度无关；按其他列排序或直接跳到尚未读过的页时才按偏移量读取。
+ */
+public class EvaluationPageSource implements PagedTableModel.PageSource {
+
+    private final EvaluationService evaluationService;
+    private final String teacherId;
+    private final String periodId;
+    private final String studentId;
+    private final String[] sortKeys;
+    private final Function<EvaluationRow, Object[]> rowMapper;
+
+    // 默认顺序下已读页的最后一行，键为下一页的起始偏移
+    private final Map<Integer, EvaluationRow> pageCursors = new ConcurrentHashMap<>();
+
+    /**
+     * @param teacherId 授课教师，为null时不限
+     * @param periodId 评教周期，为null时不限
+     * @param studentId 评教学生，为null时不限
+     * @param sortKeys 每列对应的排序字段（EvaluationService.SORT_BY_*），为null的列不能排序
+     * @param rowMapper 把列表行转换为表格行
+     */
+    public EvaluationPageSource(EvaluationService evaluationService, String teacherId, String periodId,
+                                String studentId, String[] sortKeys, Function<EvaluationRow, Object[]> rowMapper) {
+        this.evaluationService = evaluationService;
+        this.teacherId = teacherId;
+        this.periodId = periodId;
+        this.studentId = studentId;
+        this.sortKeys = sortKeys.clone();
+        this.rowMapper = rowMapper;
+    }
+
+    @Override
+    public int count() throws Exception {
+        // 表格刷新时重新读取总数，此后数据可能已变化，旧的游标不再对应原来的偏移
+        pageCursors.clear();
+        return evaluationService.estimateEvaluationCount(teacherId, periodId, studentId);
+    }
+
+    @Override
+    public List<Object[]> fetch(int offset, int limit, int sortColumn, boolean ascending) throws Exception {
+        List<Object[]> rows = new ArrayList<>();
+
+        // 未指定排序列时按评教时间倒序，与其他评教列表一致；已知上一页的最后一行时从它之后继续读取
+        EvaluationRow after = pageCursors.get(offset);
+        if (sortColumn < 0 && (offset == 0 || after != null)) {
+            EvaluationRow last = evaluationService.streamEvaluationRows(teacherId, periodId, studentId,
+                    after, limit, row -> rows.add(rowMapper.apply(row)));
+            if (last != null) {
+                pageCursors.put(offset + limit, last);
+            }
+            return rows;
+        }
+
+        String sortKey = sortColumn >= 0 ? sortKeys[sortColumn] : EvaluationService.SORT_BY_DATE;
+        boolean order = sortColumn >= 0 && ascending;
+        List<EvaluationRow> page = evaluationService.getEvaluationRows(
+                teacherId, periodId, studentId, sortKey, order, offset, limit);
+        for (EvaluationRow row : page) {
+            rows.add(rowMapper.apply(row));
+        }
+        // 按默认顺序跳到某页后，后续连续翻页仍可使用键集分页
+        if (sortColumn < 0 && page.size() == limit) {
+            pageCursors.put(offset + limit, page.get(page.size() - 1));
+        }
+        return rows;
+    }
+
+    @Override
+    public boolean isSortable(int column) {
+        return column < sortKeys.length && sortKeys[column] != null;
+    }
+}
@@ -0,0 +1,328 @@
+package edu.ai.haut.ui.common;
+
+import javax.swing.*;
+import javax.swing.table.AbstractTableModel;
+import javax.swing.table.TableColumn;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
+
+/**
+ * 分页加载的只读表格模型
+ * 表格只按需读取可见行所在的页，内存中保留最近访问的若干页，其余页被淘汰后再次滚动到时重新读取。
+ * 页在后台读取，读取完成前单元格显示为空；排序由数据源在数据库端完成，点击表头切换排序列和方向。
+ * 读取失败时保持现有行数，提示错误，该页在下次刷新前不再重试。
+ * 除构造方法外，所有方法都应在事件分发线程中调用。
+ */
+public class PagedTableModel extends AbstractTableModel {
+
+    public static final int DEFAULT_PAGE_SIZE = 200;
+    public static final int DEFAULT_MAX_PAGES = 10;
+
+    /**
+     * 分页数据源，方法在工作线程中执行
+     */
+    public interface PageSource {
+        /**
+         * 符合条件的总行数，可以是估计值，读取到末页时会按实际行数校正
+         */
+        int count() throws Exception;
+
+        /**
+         * 读取一页数据
+         * @param sortColumn 排序列的模型序号，为-1时按数据源的默认顺序
+         */
+        List<Object[]> fetch(int offset, int limit, int sortColumn, boolean ascending) throws Exception;
+
+        /**
+         * 某列是否支持排序
+         */
+        default boolean isSortable(int column) {
+            return true;
+        }
+    }
+
+    private final String[] columnNames;
+    private final int pageSize;
+    private final int maxPages;
+    private final LinkedHashMap<Integer, List<Object[]>> pages;
+
+    // 等待读取的页，最近请求的在队首；正在读取的页同时记录在loading中
+    private final Deque<Integer> requested = new ArrayDeque<>();
+    private final Set<Integer> loading = new HashSet<>();
+    // 读取失败的页，刷新前不再请求，避免重绘时反复读取和提示
+    private final Set<Integer> failed = new HashSet<>();
+    private boolean fetching;
+    private boolean errorReported;
+    private Consumer<String> errorHandler = message ->
+        JOptionPane.showMessageDialog(null, message, "错误", JOptionPane.ERROR_MESSAGE);
+
+    private PageSource source;
+    private int rowCount;
+    private int sortColumn = -1;
+    private boolean ascending = true;
+
+    // 每次刷新或重新排序时加一，用于丢弃过时的读取结果
+    private int generation;
+
+    public PagedTableModel(String[] columnNames) {
+        this(columnNames, DEFAULT_PAGE_SIZE, DEFAULT_MAX_PAGES);
+    }
+
+    public PagedTableModel(String[] columnNames, int pageSize, int maxPages) {
+        this.columnNames = columnNames.clone();
+        this.pageSize = pageSize;
+        this.maxPages = maxPages;
+        this.pages = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, List<Object[]>> eldest) {
+                return size() > PagedTableModel.this.maxPages;
+            }
+        };
+    }
+
+    /**
+     * 设置读取失败时的提示方式，默认弹出错误对话框；每次刷新后只提示第一次失败
+     */
+    public void setErrorHandler(Consumer<String> errorHandler) {
+        this.errorHandler = errorHandler;
+    }
+
+    /**
+     * 更换数据源并重新加载，为null时清空表格
+     */
+    public void setSource(PageSource source) {
+        this.source = source;
+        refresh();
+    }
+
+    /**
+     * 丢弃已加载的页，重新读取总行数，可见行随后按需读取
+     */
+    public void refresh() {
+        generation++;
+        pages.clear();
+        requested.clear();
+        loading.clear();
+        failed.clear();
+        errorReported = false;
+        if (rowCount > 0) {
+            int oldCount = rowCount;
+            rowCount = 0;
+            fireTableRowsDeleted(0, oldCount - 1);
+        }
+        if (source == null) {
+            return;
+        }
+
+        PageSource countSource = source;
+        int countGeneration = generation;
+        new SwingWorker<Integer, Void>() {
+            @Override
+            protected Integer doInBackground() throws Exception {
+                return countSource.count();
+            }
+
+            @Override
+            protected void done() {
+                if (countGeneration != generation) {
+                    return;
+                }
+                try {
+                    setRowCount(get());
+                } catch (InterruptedException | ExecutionException e) {
+                    reportError("读取表格行数失败", e);
+                }
+            }
+        }.execute();
+    }
+
+    /**
+     * 按某列排序，再次选择同一列时切换升降序
+     */
+    public void sortBy(int column) {
+        if (source == null || !source.isSortable(column)) {
+            return;
+        }
+        if (column == sortColumn) {
+            ascending = !ascending;
+        } else {
+            sortColumn = column;
+            ascending = true;
+        }
+        refresh();
+    }
+
+    public int getSortColumn() {
+        return sortColumn;
+    }
+
+    public boolean isAscending() {
+        return ascending;
+    }
+
+    /**
+     * 获取某行的全部数据，所在页尚未加载时返回null并开始加载
+     */
+    public Object[] getRow(int rowIndex) {
+        int pageIndex = rowIndex / pageSize;
+        List<Object[]> page = pages.get(pageIndex);
+        if (page == null) {
+            requestPage(pageIndex);
+            return null;
+        }
+        int offset = rowIndex - pageIndex * pageSize;
+        return offset < page.size() ? page.get(offset) : null;
+    }
+
+    /**
+     * 为表格安装表头点击排序，并在表头显示排序方向
+     */
+    public void installSortHeader(JTable table) {
+        table.getTableHeader().addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                int viewColumn = table.columnAtPoint(e.getPoint());
+                if (viewColumn < 0) {
+                    return;
+                }
+                sortBy(table.convertColumnIndexToModel(viewColumn));
+                for (int i = 0; i < table.getColumnCount(); i++) {
+                    TableColumn column = table.getColumnModel().getColumn(i);
+                    int modelColumn = column.getModelIndex();
+                    String name = columnNames[modelColumn];
+                    if (modelColumn == sortColumn) {
+                        name += ascending ? " ▲" : " ▼";
+                    }
+                    column.setHeaderValue(name);
+                }
+                table.getTableHeader().repaint();
+            }
+        });
+    }
+
+    @Override
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columnNames.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return columnNames[column];
+    }
+
+    @Override
+    public Object getValueAt(int rowIndex, int columnIndex) {
+        Object[] row = getRow(rowIndex);
+        return row != null && columnIndex < row.length ? row[columnIndex] : null;
+    }
+
+    @Override
+    public boolean isCellEditable(int rowIndex, int columnIndex) {
+        return false;
+    }
+
+    private void setRowCount(int count) {
+        if (count > rowCount) {
+            int oldCount = rowCount;
+            rowCount = count;
+            fireTableRowsInserted(oldCount, count - 1);
+        } else if (count < rowCount) {
+            int oldCount = rowCount;
+            rowCount = count;
+            fireTableRowsDeleted(count, oldCount - 1);
+        }
+    }
+
+    /**
+     * 请求读取某页，快速滚动时只保留最近请求的若干页
+     */
+    private void requestPage(int pageIndex) {
+        if (loading.contains(pageIndex) || failed.contains(pageIndex)) {
+            return;
+        }
+        requested.remove(pageIndex);
+        requested.addFirst(pageIndex);
+        while (requested.size() > maxPages) {
+            requested.removeLast();
+        }
+        fetchNext();
+    }
+
+    /**
+     * 同一时间只读取一页，读完后再读取下一个请求的页
+     */
+    private void fetchNext() {
+        if (fetching || requested.isEmpty() || source == null) {
+            return;
+        }
+        int pageIndex = requested.removeFirst();
+        loading.add(pageIndex);
+        fetching = true;
+
+        PageSource pageSource = source;
+        int pageGeneration = generation;
+        int column = sortColumn;
+        boolean order = ascending;
+        new SwingWorker<List<Object[]>, Void>() {
+            @Override
+            protected List<Object[]> doInBackground() throws Exception {
+                return pageSource.fetch(pageIndex * pageSize, pageSize, column, order);
+            }
+
+            @Override
+            protected void done() {
+                fetching = false;
+                if (pageGeneration == generation) {
+                    loading.remove(pageIndex);
+                    try {
+                        pageLoaded(pageIndex, get());
+                    } catch (InterruptedException | ExecutionException e) {
+                        // 失败的页不能当作末页，行数保持不变
+                        failed.add(pageIndex);
+                        reportError("读取表格数据失败", e);
+                    }
+                }
+                fetchNext();
+            }
+        }.execute();
+    }
+
+    private void reportError(String message, Exception e) {
+        Throwable cause = e.getCause() != null ? e.getCause() : e;
+        System.err.println(message + ": " + cause.getMessage());
+        if (!errorReported) {
+            errorReported = true;
+            errorHandler.accept(message + ": " + cause.getMessage());
+        }
+    }
+
+    private void pageLoaded(int pageIndex, List<Object[]> rows) {
+        pages.put(pageIndex, rows);
+        int offset = pageIndex * pageSize;
+        int end = offset + rows.size();
+
+        // 总行数是估计值时按实际读取到的行数校正
+        if (rows.size() < pageSize && end < rowCount) {
+            setRowCount(end);
+        } else if (end > rowCount) {
+            setRowCount(end);
+        }
+        if (end > offset) {
+            fireTableRowsUpdated(offset, end - 1);
+        }
+    }
+}
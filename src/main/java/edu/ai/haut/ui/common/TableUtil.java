@@ -6,6 +6,13 @@ import javax.swing.table.TableCellRenderer;
 import javax.swing.table.TableColumn;
 import java.awt.*;
 import java.awt.event.ActionListener;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.Vector;
 
 /**
  * 表格工具类
@@ -45,6 +52,22 @@ public class TableUtil {
         return table;
     }
     
+    /**
+     * 创建分页加载的只读表格，用于行数很多的结果集
+     * 数据按需从数据源分页读取，点击表头由数据源排序
+     */
+    public static JTable createPagedTable(String[] columns, PagedTableModel.PageSource source) {
+        PagedTableModel model = new PagedTableModel(columns);
+        
+        JTable table = new JTable(model);
+        styleTable(table);
+        model.installSortHeader(table);
+        model.setErrorHandler(message ->
+            JOptionPane.showMessageDialog(table, message, "错误", JOptionPane.ERROR_MESSAGE));
+        model.setSource(source);
+        return table;
+    }
+    
     /**
      * 创建带操作按钮的表格
      */
@@ -109,6 +132,164 @@ public class TableUtil {
         model.addRow(rowData);
     }
     
+    /**
+     * 用新数据整体替换表格内容，只触发一次数据变更事件
+     * 不触发结构变更，列宽和渲染器保持不变
+     */
+    public static void setRows(DefaultTableModel model, List<Object[]> rows) {
+        Vector<Vector<Object>> data = rowsOf(model);
+        data.clear();
+        data.ensureCapacity(rows.size());
+        for (Object[] row : rows) {
+            data.add(toRowVector(model, row));
+        }
+        model.fireTableDataChanged();
+    }
+    
+    /**
+     * 在表格末尾追加多行，只触发一次插入事件
+     */
+    public static void appendRows(DefaultTableModel model, List<Object[]> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        Vector<Vector<Object>> data = rowsOf(model);
+        int firstRow = data.size();
+        for (Object[] row : rows) {
+            data.add(toRowVector(model, row));
+        }
+        model.fireTableRowsInserted(firstRow, data.size() - 1);
+    }
+    
+    /**
+     * 按键列比较新旧数据，只对新增、删除和内容变化的行触发事件，选中行和滚动位置保持不变
+     * 键重复、保留下来的行先后顺序改变或变化的行超过一半时改为整体替换
+     */
+    public static void refreshRows(DefaultTableModel model, List<Object[]> rows, int keyColumn) {
+        Vector<Vector<Object>> data = rowsOf(model);
+        
+        Map<Object, Integer> newIndex = new HashMap<>(rows.size() * 2);
+        for (int i = 0; i < rows.size(); i++) {
+            if (newIndex.put(rows.get(i)[keyColumn], i) != null) {
+                setRows(model, rows);
+                return;
+            }
+        }
+        
+        // 统计变化的行数，并检查保留的行是否保持原来的先后顺序
+        Set<Object> oldKeys = new HashSet<>(data.size() * 2);
+        int changes = 0;
+        int kept = 0;
+        int lastIndex = -1;
+        for (Vector<?> oldRow : data) {
+            Object key = oldRow.get(keyColumn);
+            Integer index = newIndex.get(key);
+            if (!oldKeys.add(key) || (index != null && index <= lastIndex)) {
+                setRows(model, rows);
+                return;
+            }
+            if (index == null) {
+                changes++;
+            } else {
+                kept++;
+                lastIndex = index;
+                if (!sameRow(oldRow, rows.get(index))) {
+                    changes++;
+                }
+            }
+        }
+        changes += rows.size() - kept;
+        if (changes == 0) {
+            return;
+        }
+        if (changes * 2 > Math.max(data.size(), rows.size())) {
+            setRows(model, rows);
+            return;
+        }
+        
+        // 从后往前删除不再存在的行，连续的行合并为一个事件
+        int end = data.size() - 1;
+        while (end >= 0) {
+            if (newIndex.containsKey(data.get(end).get(keyColumn))) {
+                end--;
+                continue;
+            }
+            int start = end;
+            while (start > 0 && !newIndex.containsKey(data.get(start - 1).get(keyColumn))) {
+                start--;
+            }
+            data.subList(start, end + 1).clear();
+            model.fireTableRowsDeleted(start, end);
+            end = start - 1;
+        }
+        
+        // 剩余的行与新数据顺序一致，逐行对齐：键相同则按需更新，否则插入
+        int runStart = -1;
+        boolean runInsert = false;
+        for (int i = 0; i < rows.size(); i++) {
+            Object[] row = rows.get(i);
+            boolean insert = i >= data.size() || !Objects.equals(data.get(i).get(keyColumn), row[keyColumn]);
+            boolean changed = insert || !sameRow(data.get(i), row);
+            
+            // 先通知上一段连续的变化，再修改当前行
+            if (runStart >= 0 && (!changed || insert != runInsert)) {
+                fireRowsChanged(model, runStart, i - 1, runInsert);
+                runStart = -1;
+            }
+            if (insert) {
+                data.add(i, toRowVector(model, row));
+            } else if (changed) {
+                data.set(i, toRowVector(model, row));
+            }
+            if (changed && runStart < 0) {
+                runStart = i;
+                runInsert = insert;
+            }
+        }
+        if (runStart >= 0) {
+            fireRowsChanged(model, runStart, rows.size() - 1, runInsert);
+        }
+    }
+    
+    private static void fireRowsChanged(DefaultTableModel model, int firstRow, int lastRow, boolean inserted) {
+        if (inserted) {
+            model.fireTableRowsInserted(firstRow, lastRow);
+        } else {
+            model.fireTableRowsUpdated(firstRow, lastRow);
+        }
+    }
+    
+    private static boolean sameRow(Vector<?> oldRow, Object[] row) {
+        for (int i = 0; i < oldRow.size(); i++) {
+            Object value = i < row.length ? row[i] : null;
+            if (!Objects.equals(oldRow.get(i), value)) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * 表格模型的行数据，直接修改后由调用方触发相应事件
+     * DefaultTableModel.getDataVector只返回原始类型，行元素的类型转换集中在这里
+     */
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private static Vector<Vector<Object>> rowsOf(DefaultTableModel model) {
+        return (Vector) model.getDataVector();
+    }
+    
+    /**
+     * 转换为表格的行数据，长度与列数一致
+     */
+    private static Vector<Object> toRowVector(DefaultTableModel model, Object[] row) {
+        int columnCount = model.getColumnCount();
+        Vector<Object> vector = new Vector<>(columnCount);
+        for (int i = 0; i < columnCount; i++) {
+            vector.add(i < row.length ? row[i] : null);
+        }
+        return vector;
+    }
+    
     /**
      * 删除选中行
      */
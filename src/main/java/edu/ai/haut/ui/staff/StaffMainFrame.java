@@ -3,8 +3,11 @@ package edu.ai.haut.ui.staff;
 import edu.ai.haut.model.*;
 import edu.ai.haut.service.*;
 import edu.ai.haut.ui.LoginFrame;
+import edu.ai.haut.ui.common.BackgroundLoader;
+import edu.ai.haut.ui.common.EvaluationPageSource;
 import edu.ai.haut.ui.common.ManagementUIHelper;
 import edu.ai.haut.ui.common.LayoutUtil;
+import edu.ai.haut.ui.common.PagedTableModel;
 import edu.ai.haut.ui.common.TableUtil;
 import edu.ai.haut.util.DatabaseUtil;
 
@@ -16,9 +19,9 @@ import java.awt.event.ActionListener;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 /**
  * 教务人员主界面
@@ -26,6 +29,15 @@ import java.util.Map;
  */
 public class StaffMainFrame extends JFrame {
     
+    /**
+     * 评教结果表格各列对应的排序字段
+     */
+    private static final String[] EVALUATION_SORT_KEYS = {
+        EvaluationService.SORT_BY_ID, EvaluationService.SORT_BY_COURSE, EvaluationService.SORT_BY_TEACHER,
+        EvaluationService.SORT_BY_CLASS, EvaluationService.SORT_BY_SCORE, EvaluationService.SORT_BY_SCORE,
+        EvaluationService.SORT_BY_DATE
+    };
+    
     private User currentUser;
     private AcademicAffairsStaff currentStaff;
     
@@ -45,7 +57,7 @@ public class StaffMainFrame extends JFrame {
     private JTable evaluationPeriodTable;
     private JTable classTable;
     private JTable userTable;
-    private DefaultTableModel evaluationTableModel;
+    private PagedTableModel evaluationTableModel;
     private DefaultTableModel statisticsTableModel;
     private DefaultTableModel courseTableModel;
     private DefaultTableModel evaluationPeriodTableModel;
@@ -57,6 +69,9 @@ public class StaffMainFrame extends JFrame {
     private JComboBox<String> periodComboBox;
     private JComboBox<String> statisticsTypeComboBox;
     
+    private final BackgroundLoader loader = new BackgroundLoader(this);
+    private List<EvaluationPeriod> periods = List.of();
+    
     public StaffMainFrame(User user) {
         this.currentUser = user;
         this.currentStaff = (AcademicAffairsStaff) user;
@@ -103,8 +118,8 @@ public class StaffMainFrame extends JFrame {
         
         // 评教结果表格
         String[] evaluationColumns = {"评教编号", "课程名称", "授课教师", "班级", "总分", "等级", "评教日期"};
-        evaluationTable = TableUtil.createReadOnlyTable(evaluationColumns);
-        evaluationTableModel = (DefaultTableModel) evaluationTable.getModel();
+        evaluationTable = TableUtil.createPagedTable(evaluationColumns, null);
+        evaluationTableModel = (PagedTableModel) evaluationTable.getModel();
 
         // 统计分析表格
         String[] statisticsColumns = {"项目", "数量/分数", "百分比/等级", "备注"};
@@ -173,6 +188,7 @@ public class StaffMainFrame extends JFrame {
         
         add(topPanel, BorderLayout.NORTH);
         add(tabbedPane, BorderLayout.CENTER);
+        add(loader.getProgressBar(), BorderLayout.SOUTH);
         
         // 设置按钮事件
         refreshButton.addActionListener(e -> loadData());
@@ -250,11 +266,11 @@ public class StaffMainFrame extends JFrame {
     
     /**
      * 加载数据
+     * 统计数据依赖选中的评教周期，在评教周期加载完成后加载
      */
     private void loadData() {
         loadPeriods();
         loadEvaluationData();
-        loadStatisticsData();
         loadCourseData();
         loadEvaluationPeriodData();
     }
@@ -263,141 +279,116 @@ public class StaffMainFrame extends JFrame {
      * 加载评教周期
      */
     private void loadPeriods() {
-        periodComboBox.removeAllItems();
-        
-        try {
-            List<EvaluationPeriod> periods = evaluationService.getAllEvaluationPeriods();
+        loader.load("periods", evaluationService::getAllEvaluationPeriods, loadedPeriods -> {
+            periods = loadedPeriods;
+            periodComboBox.removeAllItems();
             for (EvaluationPeriod period : periods) {
                 periodComboBox.addItem(period.getPeriodName() + " (" + period.getSemester() + ")");
             }
             
             // 默认选择当前活跃周期
-            EvaluationPeriod currentPeriod = evaluationService.getCurrentActivePeriod();
-            if (currentPeriod != null) {
-                String currentItem = currentPeriod.getPeriodName() + " (" + currentPeriod.getSemester() + ")";
-                periodComboBox.setSelectedItem(currentItem);
-            }
-        } catch (Exception e) {
-            JOptionPane.showMessageDialog(this, "加载评教周期失败: " + e.getMessage(), 
-                "错误", JOptionPane.ERROR_MESSAGE);
-        }
+            loader.load("activePeriod", evaluationService::getCurrentActivePeriod, currentPeriod -> {
+                if (currentPeriod != null) {
+                    String currentItem = currentPeriod.getPeriodName() + " (" + currentPeriod.getSemester() + ")";
+                    periodComboBox.setSelectedItem(currentItem);
+                }
+                loadStatisticsData();
+            }, "加载评教周期失败");
+        }, "加载评教周期失败");
     }
     
     /**
      * 加载评教数据
+     * 表格滚动时按页读取评教记录，只保留最近访问的若干页
      */
     private void loadEvaluationData() {
-        evaluationTableModel.setRowCount(0);
-
-        try {
-            // 获取所有评教周期的评教记录
-            List<EvaluationPeriod> periods = evaluationService.getAllEvaluationPeriods();
-
-            for (EvaluationPeriod period : periods) {
-                // 获取所有教师在该周期的评教结果
-                List<Teacher> teachers = teacherService.getAllTeachers();
-
-                for (Teacher teacher : teachers) {
-                    List<Evaluation> evaluations = evaluationService.getTeacherEvaluationResults(
-                        teacher.getTeacherId(), period.getPeriodId());
-
-                    for (Evaluation evaluation : evaluations) {
-                        Object[] row = {
-                            evaluation.getEvaluationId(),
-                            evaluation.getCourseOffering() != null && evaluation.getCourseOffering().getCourse() != null ?
-                                evaluation.getCourseOffering().getCourse().getCourseName() : "未知课程",
-                            teacher.getName(),
-                            evaluation.getCourseOffering() != null && evaluation.getCourseOffering().getClassRoom() != null ?
-                                evaluation.getCourseOffering().getClassRoom().getClassName() : "未知班级",
-                            String.format("%.1f", evaluation.getTotalScore()),
-                            evaluation.getGrade(),
-                            evaluation.getEvaluationDate().toLocalDate().toString()
-                        };
-                        evaluationTableModel.addRow(row);
-                    }
-                }
-            }
-        } catch (Exception e) {
-            JOptionPane.showMessageDialog(this, "加载评教数据失败: " + e.getMessage(),
-                "错误", JOptionPane.ERROR_MESSAGE);
-        }
+        evaluationTableModel.setSource(new EvaluationPageSource(evaluationService, null, null, null,
+            EVALUATION_SORT_KEYS, row -> new Object[]{
+                row.getEvaluationId(),
+                row.getCourseName(),
+                row.getTeacherName(),
+                row.getClassName(),
+                String.format("%.1f", row.getTotalScore()),
+                row.getGrade(),
+                row.getEvaluationDate().toLocalDate().toString()
+            }));
     }
     
     /**
      * 加载统计数据
      */
     private void loadStatisticsData() {
-        statisticsTableModel.setRowCount(0);
+        EvaluationPeriod selectedPeriod = getSelectedPeriod();
+        if (selectedPeriod == null) {
+            loader.cancel("statistics");
+            statisticsTableModel.setRowCount(0);
+            return;
+        }
         
-        try {
-            EvaluationPeriod selectedPeriod = getSelectedPeriod();
-            if (selectedPeriod == null) {
-                return;
+        String statisticsType = (String) statisticsTypeComboBox.getSelectedItem();
+        loader.load("statistics", () -> {
+            StatisticsSnapshot snapshot = statisticsService.getStatisticsSnapshot(selectedPeriod.getPeriodId());
+            if (snapshot == null) {
+                throw new IllegalStateException("统计数据加载失败");
             }
-            
-            String statisticsType = (String) statisticsTypeComboBox.getSelectedItem();
-            
+            return snapshot;
+        }, snapshot -> {
+            List<Object[]> rows = new ArrayList<>();
             switch (statisticsType) {
                 case "按教师统计":
-                    loadTeacherStatistics(selectedPeriod.getPeriodId());
+                    loadTeacherStatistics(snapshot, rows);
                     break;
                 case "按课程统计":
-                    loadCourseStatistics(selectedPeriod.getPeriodId());
+                    loadCourseStatistics(snapshot, rows);
                     break;
                 case "按学生统计":
-                    loadStudentStatistics(selectedPeriod.getPeriodId());
+                    loadStudentStatistics(snapshot, rows);
                     break;
             }
-        } catch (Exception e) {
-            JOptionPane.showMessageDialog(this, "加载统计数据失败: " + e.getMessage(), 
-                "错误", JOptionPane.ERROR_MESSAGE);
-        }
+            TableUtil.refreshRows(statisticsTableModel, rows, 0);
+        }, "加载统计数据失败");
     }
     
     /**
      * 加载教师统计
      */
-    private void loadTeacherStatistics(String periodId) {
-        Map<String, Object> stats = statisticsService.getTeacherEvaluationStatistics(periodId);
-        
+    private void loadTeacherStatistics(StatisticsSnapshot snapshot, List<Object[]> rows) {
         Object[] totalRow = {
             "参与教师总数",
-            stats.getOrDefault("totalTeachers", 0),
+            snapshot.getTeachers().size(),
             "",
             "已完成评教的教师数量"
         };
-        statisticsTableModel.addRow(totalRow);
+        rows.add(totalRow);
         
         Object[] avgRow = {
             "总体平均分",
-            String.format("%.1f", (Double) stats.getOrDefault("overallAvgScore", 0.0)),
-            managementUIHelper.getGradeByScore((Double) stats.getOrDefault("overallAvgScore", 0.0)),
+            String.format("%.1f", snapshot.getTeacherAvgScore()),
+            managementUIHelper.getGradeByScore(snapshot.getTeacherAvgScore()),
             "所有教师的平均评教分数"
         };
-        statisticsTableModel.addRow(avgRow);
+        rows.add(avgRow);
     }
     
     /**
      * 加载课程统计
      */
-    private void loadCourseStatistics(String periodId) {
-        Map<String, Object> stats = statisticsService.getCourseEvaluationStatistics(periodId);
-        
+    private void loadCourseStatistics(StatisticsSnapshot snapshot, List<Object[]> rows) {
         Object[] totalRow = {
             "参与课程总数",
-            stats.getOrDefault("totalCourses", 0),
+            snapshot.getCourses().size(),
             "",
             "已完成评教的课程数量"
         };
-        statisticsTableModel.addRow(totalRow);
+        rows.add(totalRow);
         
         Object[] avgRow = {
             "总体平均分",
-            String.format("%.1f", (Double) stats.getOrDefault("overallAvgScore", 0.0)),
-            managementUIHelper.getGradeByScore((Double) stats.getOrDefault("overallAvgScore", 0.0)),
+            String.format("%.1f", snapshot.getCourseAvgScore()),
+            managementUIHelper.getGradeByScore(snapshot.getCourseAvgScore()),
             "所有课程的平均评教分数"
         };
-        statisticsTableModel.addRow(avgRow);
+        rows.add(avgRow);
     }
     
 
@@ -405,24 +396,22 @@ public class StaffMainFrame extends JFrame {
     /**
      * 加载学生统计
      */
-    private void loadStudentStatistics(String periodId) {
-        Map<String, Object> stats = statisticsService.getStudentEvaluationStatistics(periodId);
-        
+    private void loadStudentStatistics(StatisticsSnapshot snapshot, List<Object[]> rows) {
         Object[] totalRow = {
             "学生总数",
-            stats.getOrDefault("totalStudents", 0),
+            snapshot.getTotalStudents(),
             "",
             "系统中的学生总数"
         };
-        statisticsTableModel.addRow(totalRow);
+        rows.add(totalRow);
         
         Object[] participatedRow = {
             "参与评教学生数",
-            stats.getOrDefault("participatedStudents", 0),
-            String.format("%.1f%%", (Double) stats.getOrDefault("participationRate", 0.0)),
+            snapshot.getParticipatedStudents(),
+            String.format("%.1f%%", snapshot.getParticipationRate()),
             "已参与评教的学生数量"
         };
-        statisticsTableModel.addRow(participatedRow);
+        rows.add(participatedRow);
     }
     
 
@@ -436,16 +425,11 @@ public class StaffMainFrame extends JFrame {
             return null;
         }
         
-        try {
-            List<EvaluationPeriod> periods = evaluationService.getAllEvaluationPeriods();
-            for (EvaluationPeriod period : periods) {
-                String itemText = period.getPeriodName() + " (" + period.getSemester() + ")";
-                if (itemText.equals(selectedItem)) {
-                    return period;
-                }
+        for (EvaluationPeriod period : periods) {
+            String itemText = period.getPeriodName() + " (" + period.getSemester() + ")";
+            if (itemText.equals(selectedItem)) {
+                return period;
             }
-        } catch (Exception e) {
-            System.err.println("获取选中周期时出错: " + e.getMessage());
         }
         
         return null;
@@ -462,6 +446,10 @@ public class StaffMainFrame extends JFrame {
         }
 
         String evaluationId = (String) evaluationTableModel.getValueAt(selectedRow, 0);
+        if (evaluationId == null) {
+            JOptionPane.showMessageDialog(this, "评教记录正在加载，请稍候", "提示", JOptionPane.INFORMATION_MESSAGE);
+            return;
+        }
 
         try {
             Evaluation evaluation = evaluationService.getEvaluationById(evaluationId);
@@ -796,50 +784,30 @@ public class StaffMainFrame extends JFrame {
      * 加载课程数据
      */
     private void loadCourseData() {
-        courseTableModel.setRowCount(0);
-
-        try {
-            List<Course> courses = courseService.getAllCourses();
-            for (Course course : courses) {
-                Object[] row = {
-                    course.getCourseId(),
-                    course.getCourseName(),
-                    course.getCredits(),
-                    course.getCourseType(),
-                    course.getCollege()
-                };
-                courseTableModel.addRow(row);
-            }
-        } catch (Exception e) {
-            JOptionPane.showMessageDialog(this, "加载课程数据失败: " + e.getMessage(),
-                "错误", JOptionPane.ERROR_MESSAGE);
-        }
+        loader.loadRows("course", courseTableModel, courseService::getAllCourses,
+            course -> new Object[]{
+                course.getCourseId(),
+                course.getCourseName(),
+                course.getCredits(),
+                course.getCourseType(),
+                course.getCollege()
+            }, "加载课程数据失败");
     }
 
     /**
      * 加载评教周期数据
      */
     private void loadEvaluationPeriodData() {
-        evaluationPeriodTableModel.setRowCount(0);
-
-        try {
-            List<EvaluationPeriod> periods = evaluationService.getAllEvaluationPeriods();
-            for (EvaluationPeriod period : periods) {
-                Object[] row = {
-                    period.getPeriodId(),
-                    period.getPeriodName(),
-                    period.getSemester(),
-                    period.getStartDate().toString(),
-                    period.getEndDate().toString(),
-                    period.getStatus(),
-                    0 // 评教数量，需要单独查询
-                };
-                evaluationPeriodTableModel.addRow(row);
-            }
-        } catch (Exception e) {
-            JOptionPane.showMessageDialog(this, "加载评教数据失败: " + e.getMessage(),
-                "错误", JOptionPane.ERROR_MESSAGE);
-        }
+        loader.loadRows("evaluationPeriod", evaluationPeriodTableModel, evaluationService::getAllEvaluationPeriods,
+            period -> new Object[]{
+                period.getPeriodId(),
+                period.getPeriodName(),
+                period.getSemester(),
+                period.getStartDate().toString(),
+                period.getEndDate().toString(),
+                period.getStatus(),
+                0 // 评教数量，需要单独查询
+            }, "加载评教数据失败");
     }
 
     private void showCourseOfferingsDialog() {
@@ -918,37 +886,15 @@ public class StaffMainFrame extends JFrame {
      * 加载开课数据
      */
     private void loadCourseOfferingsData(DefaultTableModel tableModel) {
-        tableModel.setRowCount(0);
-
-        try {
-            List<CourseOffering> offerings = courseService.getAllCourseOfferings();
-            for (CourseOffering offering : offerings) {
-                // 获取课程名称
-                Course course = courseService.getCourseById(offering.getCourseId());
-                String courseName = course != null ? course.getCourseName() : "未知课程";
-
-                // 获取教师名称
-                Teacher teacher = teacherService.getTeacherById(offering.getTeacherId());
-                String teacherName = teacher != null ? teacher.getName() : "未知教师";
-
-                // 获取班级名称
-                ClassRoom classRoom = courseService.getClassRoomById(offering.getClassId());
-                String className = classRoom != null ? classRoom.getClassName() : "未知班级";
-
-                Object[] row = {
-                    offering.getOfferingId(),
-                    courseName,
-                    teacherName,
-                    className,
-                    offering.getSemester(),
-                    offering.getSchedule()
-                };
-                tableModel.addRow(row);
-            }
-        } catch (Exception e) {
-            JOptionPane.showMessageDialog(this, "加载开课数据失败: " + e.getMessage(),
-                "错误", JOptionPane.ERROR_MESSAGE);
-        }
+        loader.loadRows("offering", tableModel, courseService::getAllCourseOfferings,
+            offering -> new Object[]{
+                offering.getOfferingId(),
+                offering.getCourse().getCourseName(),
+                offering.getTeacher().getName(),
+                offering.getClassRoom().getClassName(),
+                offering.getSemester(),
+                offering.getSchedule()
+            }, "加载开课数据失败");
     }
 
     /**
@@ -1390,52 +1336,46 @@ public class StaffMainFrame extends JFrame {
      */
     private void generateOverallStatistics(String periodId, DefaultTableModel tableModel, JTextArea analysisArea) {
         try {
-            // 获取基本统计数据
-            Map<String, Object> teacherStats = statisticsService.getTeacherEvaluationStatistics(periodId);
-            Map<String, Object> courseStats = statisticsService.getCourseEvaluationStatistics(periodId);
-            Map<String, Object> studentStats = statisticsService.getStudentEvaluationStatistics(periodId);
+            StatisticsSnapshot snapshot = statisticsService.getStatisticsSnapshot(periodId);
+            if (snapshot == null) {
+                throw new IllegalStateException("统计数据加载失败");
+            }
+            int teacherCount = snapshot.getTeachers().size();
+            int courseCount = snapshot.getCourses().size();
 
             // 添加统计数据到表格
-            tableModel.addRow(new Object[]{"参与教师总数", teacherStats.getOrDefault("totalTeachers", 0), "100%", "-", "已完成评教的教师数量"});
-            tableModel.addRow(new Object[]{"参与课程总数", courseStats.getOrDefault("totalCourses", 0), "100%", "-", "已完成评教的课程数量"});
-            tableModel.addRow(new Object[]{"参与学生总数", studentStats.getOrDefault("participatedStudents", 0),
-                String.format("%.1f%%", (Double) studentStats.getOrDefault("participationRate", 0.0)), "-", "参与评教的学生数量"});
+            tableModel.addRow(new Object[]{"参与教师总数", teacherCount, "100%", "-", "已完成评教的教师数量"});
+            tableModel.addRow(new Object[]{"参与课程总数", courseCount, "100%", "-", "已完成评教的课程数量"});
+            tableModel.addRow(new Object[]{"参与学生总数", snapshot.getParticipatedStudents(),
+                String.format("%.1f%%", snapshot.getParticipationRate()), "-", "参与评教的学生数量"});
 
-            double overallAvgScore = (Double) teacherStats.getOrDefault("overallAvgScore", 0.0);
+            double overallAvgScore = snapshot.getOverallAvgScore();
             tableModel.addRow(new Object[]{"总体平均分", String.format("%.2f", overallAvgScore), "-", managementUIHelper.getGradeByScore(overallAvgScore), "所有评教的平均分数"});
 
             // 分数段统计
-            int excellentCount = getScoreRangeCount(periodId, 90, 100);
-            int goodCount = getScoreRangeCount(periodId, 80, 89);
-            int averageCount = getScoreRangeCount(periodId, 70, 79);
-            int passCount = getScoreRangeCount(periodId, 60, 69);
-            int failCount = getScoreRangeCount(periodId, 0, 59);
-            int totalEvaluations = excellentCount + goodCount + averageCount + passCount + failCount;
-
-            if (totalEvaluations > 0) {
-                tableModel.addRow(new Object[]{"优秀(90-100分)", excellentCount, String.format("%.1f%%", excellentCount * 100.0 / totalEvaluations), "-", "评分在90分以上"});
-                tableModel.addRow(new Object[]{"良好(80-89分)", goodCount, String.format("%.1f%%", goodCount * 100.0 / totalEvaluations), "-", "评分在80-89分"});
-                tableModel.addRow(new Object[]{"中等(70-79分)", averageCount, String.format("%.1f%%", averageCount * 100.0 / totalEvaluations), "-", "评分在70-79分"});
-                tableModel.addRow(new Object[]{"及格(60-69分)", passCount, String.format("%.1f%%", passCount * 100.0 / totalEvaluations), "-", "评分在60-69分"});
-                tableModel.addRow(new Object[]{"不及格(60分以下)", failCount, String.format("%.1f%%", failCount * 100.0 / totalEvaluations), "-", "评分在60分以下"});
+            if (snapshot.getTotalEvaluations() > 0) {
+                tableModel.addRow(new Object[]{"优秀(90-100分)", snapshot.getGradeCount("优秀"), String.format("%.1f%%", snapshot.getGradeRate("优秀")), "-", "评分在90分以上"});
+                tableModel.addRow(new Object[]{"良好(80-89分)", snapshot.getGradeCount("良好"), String.format("%.1f%%", snapshot.getGradeRate("良好")), "-", "评分在80-89分"});
+                tableModel.addRow(new Object[]{"中等(70-79分)", snapshot.getGradeCount("中等"), String.format("%.1f%%", snapshot.getGradeRate("中等")), "-", "评分在70-79分"});
+                tableModel.addRow(new Object[]{"及格(60-69分)", snapshot.getGradeCount("及格"), String.format("%.1f%%", snapshot.getGradeRate("及格")), "-", "评分在60-69分"});
+                tableModel.addRow(new Object[]{"不及格(60分以下)", snapshot.getGradeCount("不及格"), String.format("%.1f%%", snapshot.getGradeRate("不及格")), "-", "评分在60分以下"});
             }
 
             // 生成分析报告
             StringBuilder analysis = new StringBuilder();
             analysis.append("=== 评教总体统计分析报告 ===\n\n");
             analysis.append("一、基本情况\n");
-            analysis.append(String.format("本次评教周期共有 %d 名教师、%d 门课程参与评教，",
-                teacherStats.getOrDefault("totalTeachers", 0), courseStats.getOrDefault("totalCourses", 0)));
-            analysis.append(String.format("学生参与率为 %.1f%%。\n\n", (Double) studentStats.getOrDefault("participationRate", 0.0)));
+            analysis.append(String.format("本次评教周期共有 %d 名教师、%d 门课程参与评教，", teacherCount, courseCount));
+            analysis.append(String.format("学生参与率为 %.1f%%。\n\n", snapshot.getParticipationRate()));
 
             analysis.append("二、评教结果分析\n");
             analysis.append(String.format("总体平均分为 %.2f 分，等级为 %s。\n", overallAvgScore, managementUIHelper.getGradeByScore(overallAvgScore)));
 
-            if (totalEvaluations > 0) {
+            if (snapshot.getTotalEvaluations() > 0) {
                 analysis.append(String.format("其中优秀率为 %.1f%%，良好率为 %.1f%%，",
-                    excellentCount * 100.0 / totalEvaluations, goodCount * 100.0 / totalEvaluations));
+                    snapshot.getGradeRate("优秀"), snapshot.getGradeRate("良好")));
                 analysis.append(String.format("中等率为 %.1f%%，及格率为 %.1f%%。\n\n",
-                    averageCount * 100.0 / totalEvaluations, passCount * 100.0 / totalEvaluations));
+                    snapshot.getGradeRate("中等"), snapshot.getGradeRate("及格")));
             }
 
             analysis.append("三、建议\n");
@@ -1454,95 +1394,44 @@ public class StaffMainFrame extends JFrame {
         }
     }
 
-    /**
-     * 获取分数段统计
-     */
-    private int getScoreRangeCount(String periodId, int minScore, int maxScore) {
-        try {
-            String sql = """
-                SELECT COUNT(*) FROM evaluations e
-                JOIN evaluation_periods ep ON e.period_id = ep.period_id
-                WHERE e.period_id = ? AND e.total_score >= ? AND e.total_score <= ?
-            """;
-
-            try (Connection conn = DatabaseUtil.getConnection();
-                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
-
-                pstmt.setString(1, periodId);
-                pstmt.setInt(2, minScore);
-                pstmt.setInt(3, maxScore);
-
-                ResultSet rs = pstmt.executeQuery();
-                if (rs.next()) {
-                    return rs.getInt(1);
-                }
-            }
-        } catch (Exception e) {
-            System.err.println("获取分数段统计失败: " + e.getMessage());
-        }
-        return 0;
-    }
-
     /**
      * 生成教师排名统计
      */
     private void generateTeacherRanking(String periodId, DefaultTableModel tableModel, JTextArea analysisArea) {
         try {
-            String sql = """
-                SELECT t.teacher_id, t.name, t.title, t.college,
-                       AVG(e.total_score) as avg_score, COUNT(e.evaluation_id) as eval_count
-                FROM teachers t
-                JOIN course_offerings co ON t.teacher_id = co.teacher_id
-                JOIN evaluations e ON co.offering_id = e.offering_id
-                WHERE e.period_id = ?
-                GROUP BY t.teacher_id, t.name, t.title, t.college
-                HAVING COUNT(e.evaluation_id) >= 3
-                ORDER BY avg_score DESC
-                LIMIT 20
-            """;
-
-            try (Connection conn = DatabaseUtil.getConnection();
-                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
-
-                pstmt.setString(1, periodId);
-                ResultSet rs = pstmt.executeQuery();
-
-                int rank = 1;
-                StringBuilder analysis = new StringBuilder();
-                analysis.append("=== 教师评教排名分析 ===\n\n");
-                analysis.append("排名规则：至少3次评教记录，按平均分排序\n\n");
-
-                while (rs.next()) {
-                    String teacherId = rs.getString("teacher_id");
-                    String name = rs.getString("name");
-                    String title = rs.getString("title");
-                    String college = rs.getString("college");
-                    double avgScore = rs.getDouble("avg_score");
-                    int evalCount = rs.getInt("eval_count");
-
-                    tableModel.addRow(new Object[]{
-                        name + "(" + teacherId + ")",
-                        String.format("%.2f", avgScore),
-                        title,
-                        String.valueOf(rank),
-                        college + " | " + evalCount + "次评教"
-                    });
-
-                    if (rank <= 10) {
-                        analysis.append(String.format("第%d名：%s（%s），平均分%.2f，评教%d次\n",
-                            rank, name, title, avgScore, evalCount));
-                    }
+            StatisticsSnapshot snapshot = statisticsService.getStatisticsSnapshot(periodId);
+            if (snapshot == null) {
+                throw new IllegalStateException("统计数据加载失败");
+            }
 
-                    rank++;
+            int rank = 1;
+            StringBuilder analysis = new StringBuilder();
+            analysis.append("=== 教师评教排名分析 ===\n\n");
+            analysis.append("排名规则：至少3次评教记录，按平均分排序\n\n");
+
+            for (StatisticsSnapshot.GroupStatistics group : StatisticsSnapshot.ranking(snapshot.getTeachers(), 3, 20)) {
+                tableModel.addRow(new Object[]{
+                    group.getName() + "(" + group.getId() + ")",
+                    String.format("%.2f", group.getAvgScore()),
+                    group.getCategory(),
+                    String.valueOf(rank),
+                    group.getCollege() + " | " + group.getEvaluationCount() + "次评教"
+                });
+
+                if (rank <= 10) {
+                    analysis.append(String.format("第%d名：%s（%s），平均分%.2f，评教%d次\n",
+                        rank, group.getName(), group.getCategory(), group.getAvgScore(), group.getEvaluationCount()));
                 }
 
-                analysis.append("\n分析建议：\n");
-                analysis.append("1. 排名前10的教师教学效果突出，可作为教学示范推广经验\n");
-                analysis.append("2. 建议对排名靠后的教师进行教学指导和培训\n");
-                analysis.append("3. 鼓励教师间相互学习，提升整体教学水平\n");
-
-                analysisArea.setText(analysis.toString());
+                rank++;
             }
+
+            analysis.append("\n分析建议：\n");
+            analysis.append("1. 排名前10的教师教学效果突出，可作为教学示范推广经验\n");
+            analysis.append("2. 建议对排名靠后的教师进行教学指导和培训\n");
+            analysis.append("3. 鼓励教师间相互学习，提升整体教学水平\n");
+
+            analysisArea.setText(analysis.toString());
         } catch (Exception e) {
             throw new RuntimeException("生成教师排名统计失败: " + e.getMessage(), e);
         }
@@ -1553,61 +1442,39 @@ public class StaffMainFrame extends JFrame {
      */
     private void generateCourseRanking(String periodId, DefaultTableModel tableModel, JTextArea analysisArea) {
         try {
-            String sql = """
-                SELECT c.course_id, c.course_name, c.course_type, c.college,
-                       AVG(e.total_score) as avg_score, COUNT(e.evaluation_id) as eval_count
-                FROM courses c
-                JOIN course_offerings co ON c.course_id = co.course_id
-                JOIN evaluations e ON co.offering_id = e.offering_id
-                WHERE e.period_id = ?
-                GROUP BY c.course_id, c.course_name, c.course_type, c.college
-                HAVING COUNT(e.evaluation_id) >= 5
-                ORDER BY avg_score DESC
-                LIMIT 20
-            """;
-
-            try (Connection conn = DatabaseUtil.getConnection();
-                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
-
-                pstmt.setString(1, periodId);
-                ResultSet rs = pstmt.executeQuery();
-
-                int rank = 1;
-                StringBuilder analysis = new StringBuilder();
-                analysis.append("=== 课程评教排名分析 ===\n\n");
-                analysis.append("排名规则：至少5次评教记录，按平均分排序\n\n");
-
-                while (rs.next()) {
-                    String courseId = rs.getString("course_id");
-                    String courseName = rs.getString("course_name");
-                    String courseType = rs.getString("course_type");
-                    String college = rs.getString("college");
-                    double avgScore = rs.getDouble("avg_score");
-                    int evalCount = rs.getInt("eval_count");
-
-                    tableModel.addRow(new Object[]{
-                        courseName + "(" + courseId + ")",
-                        String.format("%.2f", avgScore),
-                        courseType,
-                        String.valueOf(rank),
-                        college + " | " + evalCount + "次评教"
-                    });
-
-                    if (rank <= 10) {
-                        analysis.append(String.format("第%d名：%s（%s），平均分%.2f，评教%d次\n",
-                            rank, courseName, courseType, avgScore, evalCount));
-                    }
+            StatisticsSnapshot snapshot = statisticsService.getStatisticsSnapshot(periodId);
+            if (snapshot == null) {
+                throw new IllegalStateException("统计数据加载失败");
+            }
 
-                    rank++;
+            int rank = 1;
+            StringBuilder analysis = new StringBuilder();
+            analysis.append("=== 课程评教排名分析 ===\n\n");
+            analysis.append("排名规则：至少5次评教记录，按平均分排序\n\n");
+
+            for (StatisticsSnapshot.GroupStatistics group : StatisticsSnapshot.ranking(snapshot.getCourses(), 5, 20)) {
+                tableModel.addRow(new Object[]{
+                    group.getName() + "(" + group.getId() + ")",
+                    String.format("%.2f", group.getAvgScore()),
+                    group.getCategory(),
+                    String.valueOf(rank),
+                    group.getCollege() + " | " + group.getEvaluationCount() + "次评教"
+                });
+
+                if (rank <= 10) {
+                    analysis.append(String.format("第%d名：%s（%s），平均分%.2f，评教%d次\n",
+                        rank, group.getName(), group.getCategory(), group.getAvgScore(), group.getEvaluationCount()));
                 }
 
-                analysis.append("\n分析建议：\n");
-                analysis.append("1. 排名前列的课程教学质量优秀，可总结教学经验\n");
-                analysis.append("2. 关注不同课程类型的评教差异，针对性改进\n");
-                analysis.append("3. 建议对评分较低的课程进行教学改革\n");
-
-                analysisArea.setText(analysis.toString());
+                rank++;
             }
+
+            analysis.append("\n分析建议：\n");
+            analysis.append("1. 排名前列的课程教学质量优秀，可总结教学经验\n");
+            analysis.append("2. 关注不同课程类型的评教差异，针对性改进\n");
+            analysis.append("3. 建议对评分较低的课程进行教学改革\n");
+
+            analysisArea.setText(analysis.toString());
         } catch (Exception e) {
             throw new RuntimeException("生成课程排名统计失败: " + e.getMessage(), e);
         }
@@ -1685,6 +1552,7 @@ public class StaffMainFrame extends JFrame {
             JOptionPane.YES_NO_OPTION, JOptionPane.QUESTION_MESSAGE);
         
         if (option == JOptionPane.YES_OPTION) {
+            loader.cancelAll();
             dispose();
             new LoginFrame().setVisible(true);
         }
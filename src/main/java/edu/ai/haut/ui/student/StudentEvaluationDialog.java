@@ -374,7 +374,6 @@ public class StudentEvaluationDialog extends JDialog {
         try {
             // 创建评教记录
             Evaluation evaluation = new Evaluation();
-            evaluation.setEvaluationId(generateEvaluationId());
             evaluation.setStudentId(student.getStudentId());
             evaluation.setOfferingId(courseOffering.getOfferingId());
             evaluation.setPeriodId(evaluationPeriod.getPeriodId());
@@ -398,7 +397,8 @@ public class StudentEvaluationDialog extends JDialog {
             evaluation.setTotalScore(totalScore);
             
             // 提交评教
-            if (evaluationService.submitEvaluation(evaluation)) {
+            EvaluationService.SubmitResult result = evaluationService.submitEvaluation(evaluation);
+            if (result == EvaluationService.SubmitResult.ACCEPTED) {
                 evaluationSubmitted = true;
                 JOptionPane.showMessageDialog(this, 
                     String.format("评教提交成功！\n总分: %.1f分\n等级: %s", 
@@ -406,8 +406,14 @@ public class StudentEvaluationDialog extends JDialog {
                     "提交成功", 
                     JOptionPane.INFORMATION_MESSAGE);
                 dispose();
+            } else if (result == EvaluationService.SubmitResult.DUPLICATE) {
+                // 已在其他窗口提交过，关闭后课程列表会显示为已评教
+                evaluationSubmitted = true;
+                JOptionPane.showMessageDialog(this, result.getMessage(), 
+                    "提示", JOptionPane.WARNING_MESSAGE);
+                dispose();
             } else {
-                JOptionPane.showMessageDialog(this, "评教提交失败，请重试", 
+                JOptionPane.showMessageDialog(this, result.getMessage(), 
                     "提交失败", JOptionPane.ERROR_MESSAGE);
             }
             
@@ -417,13 +423,6 @@ public class StudentEvaluationDialog extends JDialog {
         }
     }
     
-    /**
-     * 生成评教记录ID
-     */
-    private String generateEvaluationId() {
-        return "E" + System.currentTimeMillis();
-    }
-    
     /**
      * 是否已提交评教
      */
@@ -3,6 +3,7 @@ package edu.ai.haut.ui.student;
 import edu.ai.haut.model.*;
 import edu.ai.haut.service.*;
 import edu.ai.haut.ui.LoginFrame;
+import edu.ai.haut.ui.common.BackgroundLoader;
 import edu.ai.haut.ui.common.TableUtil;
 import edu.ai.haut.ui.student.StudentMainFrame.ButtonEditor;
 import edu.ai.haut.ui.student.StudentMainFrame.ButtonRenderer;
@@ -14,6 +15,7 @@ import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.util.List;
+import java.util.Set;
 
 /**
  * 学生主界面
@@ -37,6 +39,8 @@ public class StudentMainFrame extends JFrame {
     private JLabel welcomeLabel;
     private JLabel statusLabel;
     
+    private final BackgroundLoader loader = new BackgroundLoader(this);
+    
     public StudentMainFrame(User user) {
         this.currentUser = user;
         this.currentStudent = (Student) user;
@@ -163,6 +167,7 @@ public class StudentMainFrame extends JFrame {
         
         add(topPanel, BorderLayout.NORTH);
         add(tabbedPane, BorderLayout.CENTER);
+        add(loader.getProgressBar(), BorderLayout.SOUTH);
         
         // 设置按钮事件
         refreshButton.addActionListener(e -> loadData());
@@ -225,22 +230,15 @@ public class StudentMainFrame extends JFrame {
      * 加载课程数据
      */
     private void loadCourseData() {
-        courseTableModel.setRowCount(0);
-        
-        try {
+        loader.streamRows("course", courseTableModel, sink -> {
             List<CourseOffering> offerings = courseService.getCourseOfferingsByClass(currentStudent.getClassId());
             EvaluationPeriod currentPeriod = evaluationService.getCurrentActivePeriod();
+            Set<String> evaluatedOfferingIds = currentPeriod != null
+                ? evaluationService.getEvaluatedOfferingIds(currentStudent.getStudentId(), currentPeriod.getPeriodId())
+                : Set.of();
             
             for (CourseOffering offering : offerings) {
-                String status = "未评教";
-                if (currentPeriod != null) {
-                    boolean hasEvaluated = evaluationService.hasStudentEvaluated(
-                        currentStudent.getStudentId(), 
-                        offering.getOfferingId(), 
-                        currentPeriod.getPeriodId()
-                    );
-                    status = hasEvaluated ? "已评教" : "未评教";
-                }
+                String status = evaluatedOfferingIds.contains(offering.getOfferingId()) ? "已评教" : "未评教";
                 
                 Object[] row = {
                     offering.getOfferingId(),
@@ -251,41 +249,28 @@ public class StudentMainFrame extends JFrame {
                     status,
                     "评教"
                 };
-                courseTableModel.addRow(row);
+                sink.accept(row);
             }
-        } catch (Exception e) {
-            JOptionPane.showMessageDialog(this, "加载课程数据失败: " + e.getMessage(), 
-                "错误", JOptionPane.ERROR_MESSAGE);
-        }
+        }, "加载课程数据失败");
     }
     
     /**
      * 加载历史数据
      */
     private void loadHistoryData() {
-        historyTableModel.setRowCount(0);
-        
-        try {
-            List<Evaluation> evaluations = evaluationService.getStudentEvaluationHistory(currentStudent.getStudentId());
-            
-            for (Evaluation evaluation : evaluations) {
-                Object[] row = {
-                    evaluation.getEvaluationId(),
-                    evaluation.getCourseOffering() != null && evaluation.getCourseOffering().getCourse() != null ? 
-                        evaluation.getCourseOffering().getCourse().getCourseName() : "未知课程",
-                    evaluation.getCourseOffering() != null && evaluation.getCourseOffering().getTeacher() != null ? 
-                        evaluation.getCourseOffering().getTeacher().getName() : "未知教师",
-                    evaluation.getPeriod() != null ? evaluation.getPeriod().getPeriodName() : "未知周期",
-                    String.format("%.1f", evaluation.getTotalScore()),
-                    evaluation.getGrade(),
-                    evaluation.getEvaluationDate().toLocalDate().toString()
-                };
-                historyTableModel.addRow(row);
-            }
-        } catch (Exception e) {
-            JOptionPane.showMessageDialog(this, "加载历史数据失败: " + e.getMessage(), 
-                "错误", JOptionPane.ERROR_MESSAGE);
-        }
+        loader.loadRows("history", historyTableModel,
+            () -> evaluationService.getStudentEvaluationHistory(currentStudent.getStudentId()),
+            evaluation -> new Object[]{
+                evaluation.getEvaluationId(),
+                evaluation.getCourseOffering() != null && evaluation.getCourseOffering().getCourse() != null ? 
+                    evaluation.getCourseOffering().getCourse().getCourseName() : "未知课程",
+                evaluation.getCourseOffering() != null && evaluation.getCourseOffering().getTeacher() != null ? 
+                    evaluation.getCourseOffering().getTeacher().getName() : "未知教师",
+                evaluation.getPeriod() != null ? evaluation.getPeriod().getPeriodName() : "未知周期",
+                String.format("%.1f", evaluation.getTotalScore()),
+                evaluation.getGrade(),
+                evaluation.getEvaluationDate().toLocalDate().toString()
+            }, "加载历史数据失败");
     }
     
     /**
@@ -326,6 +311,7 @@ public class StudentMainFrame extends JFrame {
             JOptionPane.YES_NO_OPTION, JOptionPane.QUESTION_MESSAGE);
 
         if (option == JOptionPane.YES_OPTION) {
+            loader.cancelAll();
             dispose();
             new LoginFrame().setVisible(true);
         }
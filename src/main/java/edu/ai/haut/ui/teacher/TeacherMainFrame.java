@@ -3,6 +3,9 @@ package edu.ai.haut.ui.teacher;
 import edu.ai.haut.model.*;
 import edu.ai.haut.service.*;
 import edu.ai.haut.ui.LoginFrame;
+import edu.ai.haut.ui.common.BackgroundLoader;
+import edu.ai.haut.ui.common.EvaluationPageSource;
+import edu.ai.haut.ui.common.PagedTableModel;
 import edu.ai.haut.ui.common.TableUtil;
 
 import javax.swing.*;
@@ -11,6 +14,7 @@ import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.util.List;
+import java.util.Map;
 
 /**
  * 教师主界面
@@ -18,6 +22,14 @@ import java.util.List;
  */
 public class TeacherMainFrame extends JFrame {
     
+    /**
+     * 评教结果表格各列对应的排序字段，学生列不显示真实信息，不能排序
+     */
+    private static final String[] EVALUATION_SORT_KEYS = {
+        EvaluationService.SORT_BY_ID, EvaluationService.SORT_BY_COURSE, EvaluationService.SORT_BY_CLASS,
+        null, EvaluationService.SORT_BY_SCORE, EvaluationService.SORT_BY_SCORE, EvaluationService.SORT_BY_DATE
+    };
+    
     private User currentUser;
     private Teacher currentTeacher;
     
@@ -30,12 +42,15 @@ public class TeacherMainFrame extends JFrame {
     private JTable courseTable;
     private JTable evaluationTable;
     private DefaultTableModel courseTableModel;
-    private DefaultTableModel evaluationTableModel;
+    private PagedTableModel evaluationTableModel;
     
     private JLabel welcomeLabel;
     private JLabel statusLabel;
     private JComboBox<String> periodComboBox;
     
+    private final BackgroundLoader loader = new BackgroundLoader(this);
+    private List<EvaluationPeriod> periods = List.of();
+    
     public TeacherMainFrame(User user) {
         this.currentUser = user;
         this.currentTeacher = (Teacher) user;
@@ -84,13 +99,11 @@ public class TeacherMainFrame extends JFrame {
 
         // 评教结果表格
         String[] evaluationColumns = {"评教编号", "课程名称", "班级", "学生", "总分", "等级", "评教日期"};
-        evaluationTableModel = new DefaultTableModel(evaluationColumns, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
+        evaluationTableModel = new PagedTableModel(evaluationColumns);
         evaluationTable = new JTable(evaluationTableModel);
+        evaluationTableModel.installSortHeader(evaluationTable);
+        evaluationTableModel.setErrorHandler(message ->
+            JOptionPane.showMessageDialog(this, message, "错误", JOptionPane.ERROR_MESSAGE));
 
         // 设置表格样式
         setupTableStyle(courseTable);
@@ -176,6 +189,7 @@ public class TeacherMainFrame extends JFrame {
         
         add(topPanel, BorderLayout.NORTH);
         add(tabbedPane, BorderLayout.CENTER);
+        add(loader.getProgressBar(), BorderLayout.SOUTH);
         
         // 设置按钮事件
         refreshButton.addActionListener(e -> loadData());
@@ -209,7 +223,9 @@ public class TeacherMainFrame extends JFrame {
                     int row = evaluationTable.getSelectedRow();
                     if (row >= 0) {
                         String evaluationId = (String) evaluationTableModel.getValueAt(row, 0);
-                        showEvaluationDetails(evaluationId);
+                        if (evaluationId != null) {
+                            showEvaluationDetails(evaluationId);
+                        }
                     }
                 }
             }
@@ -235,11 +251,10 @@ public class TeacherMainFrame extends JFrame {
     
     /**
      * 加载数据
+     * 评教周期加载完成后再按当前周期加载课程和评教数据
      */
     private void loadData() {
         loadPeriods();
-        loadCourseData();
-        loadEvaluationData();
     }
 
     /**
@@ -261,61 +276,43 @@ public class TeacherMainFrame extends JFrame {
      * 加载评教周期
      */
     private void loadPeriods() {
-        periodComboBox.removeAllItems();
-        
-        try {
-            List<EvaluationPeriod> periods = evaluationService.getAllEvaluationPeriods();
+        loader.load("periods", evaluationService::getAllEvaluationPeriods, loadedPeriods -> {
+            periods = loadedPeriods;
+            periodComboBox.removeAllItems();
             for (EvaluationPeriod period : periods) {
                 periodComboBox.addItem(period.getPeriodName() + " (" + period.getSemester() + ")");
             }
             
             // 默认选择当前活跃周期
-            EvaluationPeriod currentPeriod = evaluationService.getCurrentActivePeriod();
-            if (currentPeriod != null) {
-                String currentItem = currentPeriod.getPeriodName() + " (" + currentPeriod.getSemester() + ")";
-                periodComboBox.setSelectedItem(currentItem);
-            }
-        } catch (Exception e) {
-            JOptionPane.showMessageDialog(this, "加载评教周期失败: " + e.getMessage(), 
-                "错误", JOptionPane.ERROR_MESSAGE);
-        }
+            loader.load("activePeriod", evaluationService::getCurrentActivePeriod, currentPeriod -> {
+                if (currentPeriod != null) {
+                    String currentItem = currentPeriod.getPeriodName() + " (" + currentPeriod.getSemester() + ")";
+                    periodComboBox.setSelectedItem(currentItem);
+                    loadCourseDataByPeriod(currentPeriod);
+                }
+                loadEvaluationData();
+            }, "加载评教周期失败");
+        }, "加载评教周期失败");
     }
     
-    /**
-     * 加载课程数据
-     */
-    private void loadCourseData() {
-        EvaluationPeriod currentPeriod = evaluationService.getCurrentActivePeriod();
-        if (currentPeriod != null) {
-            loadCourseDataByPeriod(currentPeriod);
-        }
-    }
-
     /**
      * 根据指定评教周期加载课程数据
      */
     private void loadCourseDataByPeriod(EvaluationPeriod period) {
-        courseTableModel.setRowCount(0);
-
-        try {
+        loader.streamRows("course", courseTableModel, sink -> {
             List<CourseOffering> offerings = courseService.getCourseOfferingsByTeacher(currentTeacher.getTeacherId());
+            Map<String, OfferingScoreSummary> summary = evaluationService.getOfferingScoreSummary(
+                currentTeacher.getTeacherId(), period.getPeriodId());
 
             for (CourseOffering offering : offerings) {
-                // 计算指定周期的评教统计信息
+                // 指定周期的评教统计信息
                 int evaluationCount = 0;
                 double averageScore = 0.0;
 
-                List<Evaluation> evaluations = evaluationService.getTeacherEvaluationResults(
-                    currentTeacher.getTeacherId(), period.getPeriodId()).stream()
-                    .filter(e -> offering.getOfferingId().equals(e.getOfferingId()))
-                    .toList();
-
-                evaluationCount = evaluations.size();
-                if (evaluationCount > 0) {
-                    double totalScore = evaluations.stream()
-                        .mapToDouble(Evaluation::getTotalScore)
-                        .sum();
-                    averageScore = totalScore / evaluationCount;
+                OfferingScoreSummary offeringSummary = summary.get(offering.getOfferingId());
+                if (offeringSummary != null) {
+                    evaluationCount = offeringSummary.getEvaluationCount();
+                    averageScore = offeringSummary.getAvgScore();
                 }
 
                 Object[] row = {
@@ -327,47 +324,33 @@ public class TeacherMainFrame extends JFrame {
                     evaluationCount,
                     String.format("%.1f", averageScore)
                 };
-                courseTableModel.addRow(row);
+                sink.accept(row);
             }
-        } catch (Exception e) {
-            JOptionPane.showMessageDialog(this, "加载课程数据失败: " + e.getMessage(),
-                "错误", JOptionPane.ERROR_MESSAGE);
-        }
+        }, "加载课程数据失败");
     }
     
     /**
      * 加载评教数据
+     * 表格滚动时按页读取评教记录，只保留最近访问的若干页
      */
     private void loadEvaluationData() {
-        evaluationTableModel.setRowCount(0);
-        
-        try {
-            EvaluationPeriod selectedPeriod = getSelectedPeriod();
-            if (selectedPeriod == null) {
-                return;
-            }
-            
-            List<Evaluation> evaluations = evaluationService.getTeacherEvaluationResults(
-                currentTeacher.getTeacherId(), selectedPeriod.getPeriodId());
-            
-            for (Evaluation evaluation : evaluations) {
-                Object[] row = {
-                    evaluation.getEvaluationId(),
-                    evaluation.getCourseOffering() != null && evaluation.getCourseOffering().getCourse() != null ? 
-                        evaluation.getCourseOffering().getCourse().getCourseName() : "未知课程",
-                    evaluation.getCourseOffering() != null && evaluation.getCourseOffering().getClassRoom() != null ? 
-                        evaluation.getCourseOffering().getClassRoom().getClassName() : "未知班级",
-                    "***", // 不显示学生姓名，保护隐私
-                    String.format("%.1f", evaluation.getTotalScore()),
-                    evaluation.getGrade(),
-                    evaluation.getEvaluationDate().toLocalDate().toString()
-                };
-                evaluationTableModel.addRow(row);
-            }
-        } catch (Exception e) {
-            JOptionPane.showMessageDialog(this, "加载评教数据失败: " + e.getMessage(), 
-                "错误", JOptionPane.ERROR_MESSAGE);
+        EvaluationPeriod selectedPeriod = getSelectedPeriod();
+        if (selectedPeriod == null) {
+            evaluationTableModel.setSource(null);
+            return;
         }
+        
+        evaluationTableModel.setSource(new EvaluationPageSource(evaluationService,
+            currentTeacher.getTeacherId(), selectedPeriod.getPeriodId(), null,
+            EVALUATION_SORT_KEYS, row -> new Object[]{
+                row.getEvaluationId(),
+                row.getCourseName(),
+                row.getClassName(),
+                "***", // 不显示学生姓名，保护隐私
+                String.format("%.1f", row.getTotalScore()),
+                row.getGrade(),
+                row.getEvaluationDate().toLocalDate().toString()
+            }));
     }
     
     /**
@@ -379,16 +362,11 @@ public class TeacherMainFrame extends JFrame {
             return null;
         }
         
-        try {
-            List<EvaluationPeriod> periods = evaluationService.getAllEvaluationPeriods();
-            for (EvaluationPeriod period : periods) {
-                String itemText = period.getPeriodName() + " (" + period.getSemester() + ")";
-                if (itemText.equals(selectedItem)) {
-                    return period;
-                }
+        for (EvaluationPeriod period : periods) {
+            String itemText = period.getPeriodName() + " (" + period.getSemester() + ")";
+            if (itemText.equals(selectedItem)) {
+                return period;
             }
-        } catch (Exception e) {
-            System.err.println("获取选中周期时出错: " + e.getMessage());
         }
         
         return null;
@@ -458,6 +436,7 @@ public class TeacherMainFrame extends JFrame {
             JOptionPane.YES_NO_OPTION, JOptionPane.QUESTION_MESSAGE);
         
         if (option == JOptionPane.YES_OPTION) {
+            loader.cancelAll();
             dispose();
             new LoginFrame().setVisible(true);
         }
@@ -0,0 +1,552 @@
+package edu.ai.haut.util;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 数据库连接池
+ * 有界连接池：借出时校验连接有效性，记录等待时间，并检测长时间未归还的连接。
+ * 泄漏检测只记录借出时间和线程，借出位置的调用栈开销较大，只在排查泄漏时开启。
+ * 借出的连接调用close()时归还到池中，而不是关闭物理连接。
+ * 每个物理连接附带一个按SQL文本索引的LRU预编译语句缓存，相同SQL只解析一次。
+ */
+public class ConnectionPool {
+
+    private final String url;
+    private final Properties props;
+    private final int minSize;
+    private final int maxSize;
+    private final long borrowTimeoutMillis;
+    private final long leakThresholdMillis;
+    private final boolean leakTrace;
+    private final int validationTimeoutSeconds;
+    private final int statementCacheSize;
+
+    // 空闲连接按后进先出使用，保持热连接
+    private final LinkedBlockingDeque<PooledConnection> idle = new LinkedBlockingDeque<>();
+    private final Set<PooledConnection> borrowed = ConcurrentHashMap.newKeySet();
+    private final Semaphore permits;
+    private final ScheduledExecutorService leakDetector;
+    private volatile boolean closed;
+
+    // 统计指标
+    private final AtomicLong borrowCount = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final AtomicLong timeoutCount = new AtomicLong();
+    private final AtomicLong createdCount = new AtomicLong();
+    private final AtomicLong discardedCount = new AtomicLong();
+    private final AtomicLong leakCount = new AtomicLong();
+    private final AtomicLong statementCacheHits = new AtomicLong();
+    private final AtomicLong statementCacheMisses = new AtomicLong();
+
+    public ConnectionPool(String url, Properties props, int minSize, int maxSize,
+                          long borrowTimeoutMillis, long leakThresholdMillis, int validationTimeoutSeconds,
+                          int statementCacheSize, boolean leakTrace) {
+        if (minSize < 0 || maxSize <= 0 || minSize > maxSize) {
+            throw new IllegalArgumentException("连接池大小配置无效: min=" + minSize + ", max=" + maxSize);
+        }
+        this.url = url;
+        this.props = props;
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+        this.leakThresholdMillis = leakThresholdMillis;
+        this.leakTrace = leakTrace;
+        this.validationTimeoutSeconds = validationTimeoutSeconds;
+        this.statementCacheSize = Math.max(0, statementCacheSize);
+        this.permits = new Semaphore(maxSize, true);
+
+        if (leakThresholdMillis > 0) {
+            leakDetector = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "connection-leak-detector");
+                t.setDaemon(true);
+                return t;
+            });
+            long interval = Math.max(1000, leakThresholdMillis / 2);
+            leakDetector.scheduleAtFixedRate(this::detectLeaks, interval, interval, TimeUnit.MILLISECONDS);
+        } else {
+            leakDetector = null;
+        }
+    }
+
+    /**
+     * 预先创建最小数量的连接
+     */
+    public void prefill() throws SQLException {
+        while (idle.size() + borrowed.size() < minSize) {
+            idle.offerLast(createConnection());
+        }
+    }
+
+    /**
+     * 从连接池借出连接
+     */
+    public Connection borrow() throws SQLException {
+        if (closed) {
+            throw new SQLException("连接池已关闭");
+        }
+
+        long start = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(borrowTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                timeoutCount.incrementAndGet();
+                throw new SQLException("获取数据库连接超时（" + borrowTimeoutMillis + "ms），当前已借出 "
+                        + borrowed.size() + "/" + maxSize);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("等待数据库连接时被中断", e);
+        }
+        recordWait(System.nanoTime() - start);
+
+        try {
+            PooledConnection pooled;
+            while ((pooled = idle.pollFirst()) != null) {
+                if (isValid(pooled)) {
+                    break;
+                }
+                discard(pooled);
+            }
+            if (pooled == null) {
+                pooled = createConnection();
+            }
+
+            pooled.borrowedAt = System.currentTimeMillis();
+            pooled.borrowThread = Thread.currentThread().getName();
+            pooled.borrowSite = leakTrace && leakDetector != null ? new Throwable("连接借出位置") : null;
+            pooled.leakReported = false;
+            borrowed.add(pooled);
+            borrowCount.incrementAndGet();
+            return pooled.newHandle();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * 归还连接到连接池
+     */
+    private void release(PooledConnection pooled) {
+        if (!borrowed.remove(pooled)) {
+            return;
+        }
+
+        try {
+            Connection physical = pooled.physical;
+            if (!physical.getAutoCommit()) {
+                physical.rollback();
+                physical.setAutoCommit(true);
+            }
+            // 借出期间按操作类型调整过隔离级别时恢复默认值
+            if (physical.getTransactionIsolation() != pooled.defaultIsolation) {
+                physical.setTransactionIsolation(pooled.defaultIsolation);
+            }
+            physical.clearWarnings();
+
+            if (closed) {
+                discard(pooled);
+            } else {
+                idle.offerFirst(pooled);
+            }
+        } catch (SQLException e) {
+            System.err.println("归还数据库连接时出错，连接将被丢弃: " + e.getMessage());
+            discard(pooled);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private PooledConnection createConnection() throws SQLException {
+        Connection physical = DriverManager.getConnection(url, props);
+        createdCount.incrementAndGet();
+        return new PooledConnection(physical, physical.getTransactionIsolation());
+    }
+
+    private boolean isValid(PooledConnection pooled) {
+        try {
+            return !pooled.physical.isClosed() && pooled.physical.isValid(validationTimeoutSeconds);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private void discard(PooledConnection pooled) {
+        discardedCount.incrementAndGet();
+        try {
+            pooled.physical.close();
+        } catch (SQLException e) {
+            System.err.println("关闭物理连接时出错: " + e.getMessage());
+        }
+    }
+
+    private void recordWait(long waitNanos) {
+        totalWaitNanos.addAndGet(waitNanos);
+        maxWaitNanos.accumulateAndGet(waitNanos, Math::max);
+    }
+
+    /**
+     * 检测超过阈值仍未归还的连接
+     */
+    private void detectLeaks() {
+        long now = System.currentTimeMillis();
+        for (PooledConnection pooled : borrowed) {
+            if (!pooled.leakReported && now - pooled.borrowedAt > leakThresholdMillis) {
+                pooled.leakReported = true;
+                leakCount.incrementAndGet();
+                System.err.println("疑似数据库连接泄漏：线程 " + pooled.borrowThread + " 借出的连接已 "
+                        + (now - pooled.borrowedAt) + "ms 未归还"
+                        + (pooled.borrowSite == null ? "，以 -Ddb.pool.leakTrace=true 启动可输出借出位置" : ""));
+                if (pooled.borrowSite != null) {
+                    pooled.borrowSite.printStackTrace();
+                }
+            }
+        }
+    }
+
+    /**
+     * 关闭连接池
+     * 立即关闭空闲连接，借出中的连接在归还时关闭
+     */
+    public void shutdown() {
+        closed = true;
+        if (leakDetector != null) {
+            leakDetector.shutdownNow();
+        }
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            discard(pooled);
+        }
+    }
+
+    /**
+     * 获取连接池统计信息
+     */
+    public Stats getStats() {
+        return new Stats(borrowed.size(), idle.size(), maxSize, borrowCount.get(),
+                totalWaitNanos.get(), maxWaitNanos.get(), timeoutCount.get(),
+                createdCount.get(), discardedCount.get(), leakCount.get(),
+                statementCacheHits.get(), statementCacheMisses.get());
+    }
+
+    /**
+     * 池化连接
+     */
+    private final class PooledConnection {
+        private final Connection physical;
+        private final StatementCache statementCache;
+        private final int defaultIsolation;
+        private volatile long borrowedAt;
+        private volatile String borrowThread;
+        private volatile Throwable borrowSite;
+        private volatile boolean leakReported;
+
+        PooledConnection(Connection physical, int defaultIsolation) {
+            this.physical = physical;
+            this.defaultIsolation = defaultIsolation;
+            this.statementCache = statementCacheSize > 0 ? new StatementCache(statementCacheSize) : null;
+        }
+
+        /**
+         * 每次借出创建新的句柄，归还后旧句柄失效
+         */
+        Connection newHandle() {
+            return (Connection) Proxy.newProxyInstance(
+                    Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class},
+                    new Handle(this));
+        }
+    }
+
+    /**
+     * 借出连接句柄，拦截close()以归还连接
+     */
+    private final class Handle implements InvocationHandler {
+        private final PooledConnection pooled;
+        private boolean released;
+
+        Handle(PooledConnection pooled) {
+            this.pooled = pooled;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!released) {
+                        released = true;
+                        release(pooled);
+                    }
+                    return null;
+                case "isClosed":
+                    return released || pooled.physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection@" + Integer.toHexString(System.identityHashCode(proxy));
+                default:
+                    break;
+            }
+
+            if (released) {
+                throw new SQLException("连接已归还连接池，不能继续使用");
+            }
+            if (pooled.statementCache != null && "prepareStatement".equals(method.getName())
+                    && args != null && args.length == 1) {
+                return pooled.statementCache.prepare((Connection) proxy, pooled.physical, (String) args[0]);
+            }
+            try {
+                return method.invoke(pooled.physical, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    /**
+     * 预编译语句缓存
+     * 按SQL文本索引的LRU缓存，只由持有连接的线程访问
+     */
+    private final class StatementCache {
+        private final LinkedHashMap<String, CachedStatement> entries;
+
+        StatementCache(int capacity) {
+            this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, CachedStatement> eldest) {
+                    if (size() <= capacity) {
+                        return false;
+                    }
+                    // 正在使用的语句延后到归还时关闭
+                    CachedStatement evicted = eldest.getValue();
+                    evicted.evicted = true;
+                    if (!evicted.inUse) {
+                        evicted.closeQuietly();
+                    }
+                    return true;
+                }
+            };
+        }
+
+        PreparedStatement prepare(Connection handle, Connection physical, String sql) throws SQLException {
+            CachedStatement cached = entries.get(sql);
+            if (cached != null && !cached.inUse) {
+                statementCacheHits.incrementAndGet();
+            } else {
+                statementCacheMisses.incrementAndGet();
+                CachedStatement created = new CachedStatement(physical.prepareStatement(sql));
+                if (cached != null) {
+                    // 同一SQL在当前连接上已被占用（嵌套使用），此语句不进入缓存
+                    created.evicted = true;
+                } else {
+                    entries.put(sql, created);
+                }
+                cached = created;
+            }
+            cached.inUse = true;
+            return cached.newHandle(handle);
+        }
+    }
+
+    /**
+     * 缓存中的预编译语句
+     */
+    private static final class CachedStatement {
+        private final PreparedStatement physical;
+        private boolean inUse;
+        private boolean evicted;
+        private ResultSet lastResultSet;
+        // 预编译时的设置，调用方修改后在归还时恢复，避免影响下一个使用相同SQL的调用方
+        private final int defaultFetchSize;
+        private final int defaultMaxRows;
+        private final int defaultQueryTimeout;
+
+        CachedStatement(PreparedStatement physical) throws SQLException {
+            this.physical = physical;
+            this.defaultFetchSize = physical.getFetchSize();
+            this.defaultMaxRows = physical.getMaxRows();
+            this.defaultQueryTimeout = physical.getQueryTimeout();
+        }
+
+        PreparedStatement newHandle(Connection connectionHandle) {
+            return (PreparedStatement) Proxy.newProxyInstance(
+                    PreparedStatement.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class},
+                    new StatementHandle(this, connectionHandle));
+        }
+
+        /**
+         * 逻辑关闭：清理状态后留在缓存中复用
+         */
+        void recycle() {
+            inUse = false;
+            if (evicted) {
+                closeQuietly();
+                return;
+            }
+            try {
+                // 调用方通常不关闭结果集，归还前关闭，避免缓存的语句一直持有上次查询的全部结果
+                if (lastResultSet != null) {
+                    lastResultSet.close();
+                    lastResultSet = null;
+                }
+                physical.clearParameters();
+                physical.clearWarnings();
+                physical.setFetchSize(defaultFetchSize);
+                physical.setMaxRows(defaultMaxRows);
+                physical.setQueryTimeout(defaultQueryTimeout);
+            } catch (SQLException e) {
+                evicted = true;
+                closeQuietly();
+            }
+        }
+
+        void closeQuietly() {
+            try {
+                physical.close();
+            } catch (SQLException e) {
+                System.err.println("关闭预编译语句时出错: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 预编译语句句柄，拦截close()以回收语句
+     */
+    private static final class StatementHandle implements InvocationHandler {
+        private final CachedStatement cached;
+        private final Connection connectionHandle;
+        private boolean closed;
+
+        StatementHandle(CachedStatement cached, Connection connectionHandle) {
+            this.cached = cached;
+            this.connectionHandle = connectionHandle;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        cached.recycle();
+                    }
+                    return null;
+                case "isClosed":
+                    return closed || cached.physical.isClosed();
+                case "getConnection":
+                    return connectionHandle;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "CachedStatement@" + Integer.toHexString(System.identityHashCode(proxy));
+                default:
+                    break;
+            }
+
+            if (closed) {
+                throw new SQLException("预编译语句已关闭");
+            }
+            try {
+                Object result = method.invoke(cached.physical, args);
+                if (result instanceof ResultSet) {
+                    cached.lastResultSet = (ResultSet) result;
+                }
+                return result;
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    /**
+     * 连接池统计信息
+     */
+    public static final class Stats {
+        private final int active;
+        private final int idle;
+        private final int maxSize;
+        private final long borrowCount;
+        private final long totalWaitNanos;
+        private final long maxWaitNanos;
+        private final long timeoutCount;
+        private final long createdCount;
+        private final long discardedCount;
+        private final long leakCount;
+        private final long statementCacheHits;
+        private final long statementCacheMisses;
+
+        Stats(int active, int idle, int maxSize, long borrowCount, long totalWaitNanos, long maxWaitNanos,
+              long timeoutCount, long createdCount, long discardedCount, long leakCount,
+              long statementCacheHits, long statementCacheMisses) {
+            this.active = active;
+            this.idle = idle;
+            this.maxSize = maxSize;
+            this.borrowCount = borrowCount;
+            this.totalWaitNanos = totalWaitNanos;
+            this.maxWaitNanos = maxWaitNanos;
+            this.timeoutCount = timeoutCount;
+            this.createdCount = createdCount;
+            this.discardedCount = discardedCount;
+            this.leakCount = leakCount;
+            this.statementCacheHits = statementCacheHits;
+            this.statementCacheMisses = statementCacheMisses;
+        }
+
+        public int getActive() { return active; }
+        public int getIdle() { return idle; }
+        public int getMaxSize() { return maxSize; }
+        public long getBorrowCount() { return borrowCount; }
+        public long getTimeoutCount() { return timeoutCount; }
+        public long getCreatedCount() { return createdCount; }
+        public long getDiscardedCount() { return discardedCount; }
+        public long getLeakCount() { return leakCount; }
+        public long getStatementCacheHits() { return statementCacheHits; }
+        public long getStatementCacheMisses() { return statementCacheMisses; }
+
+        public double getStatementCacheHitRate() {
+            long total = statementCacheHits + statementCacheMisses;
+            return total > 0 ? (double) statementCacheHits / total * 100 : 0;
+        }
+
+        public double getAverageWaitMillis() {
+            return borrowCount > 0 ? totalWaitNanos / 1_000_000.0 / borrowCount : 0;
+        }
+
+        public double getMaxWaitMillis() {
+            return maxWaitNanos / 1_000_000.0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("连接池: 活跃=%d, 空闲=%d, 上限=%d, 借出次数=%d, 平均等待=%.3fms, 最大等待=%.3fms, "
+                            + "超时=%d, 新建=%d, 丢弃=%d, 泄漏=%d, 语句缓存命中=%d, 未命中=%d, 命中率=%.1f%%",
+                    active, idle, maxSize, borrowCount, getAverageWaitMillis(), getMaxWaitMillis(),
+                    timeoutCount, createdCount, discardedCount, leakCount,
+                    statementCacheHits, statementCacheMisses, getStatementCacheHitRate());
+        }
+    }
+}
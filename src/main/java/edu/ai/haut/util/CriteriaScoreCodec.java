@@ -0,0 +1,241 @@
+package edu.ai.haut.util;
+
+import edu.ai.haut.model.CriteriaScores;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 评教指标分数编解码工具
+ * 负责指标分数与JSON字符串（如 {"C001":85,"C002":90}）之间的转换，
+ * 用于兼容旧版criteria_scores字段和数据迁移；另提供紧凑的二进制格式。
+ * 解析为单次扫描，不使用split和正则，已登记的指标编号不会产生新的字符串。
+ * 解析时跳过超出评分范围（0-100）的分数；二进制格式原样保存任意int分数。
+ */
+public class CriteriaScoreCodec {
+
+    private static final byte BINARY_VERSION = 1;
+
+    /**
+     * 解析分数字符串，兼容JSON格式和 C001:85,C002:90 的简单格式
+     * 超出评分范围的分数输出错误后跳过，其余指标照常解析
+     */
+    public static CriteriaScores parse(String criteriaScores) {
+        CriteriaScores scores = new CriteriaScores();
+        if (criteriaScores == null) {
+            return scores;
+        }
+
+        int length = criteriaScores.length();
+        int pos = 0;
+        while (pos < length) {
+            // 定位键的起止位置，跳过空白、大括号、引号和分隔符
+            pos = skip(criteriaScores, pos, " \t\r\n{},\"");
+            if (pos >= length) {
+                break;
+            }
+            int keyStart = pos;
+            while (pos < length && criteriaScores.charAt(pos) != ':' && criteriaScores.charAt(pos) != '"') {
+                pos++;
+            }
+            int keyEnd = trimEnd(criteriaScores, keyStart, pos);
+            pos = skip(criteriaScores, pos, " \t\r\n\"");
+            if (pos >= length || criteriaScores.charAt(pos) != ':') {
+                System.err.println("解析评分数据时出错: 缺少冒号，位置 " + pos);
+                break;
+            }
+            pos = skip(criteriaScores, pos + 1, " \t\r\n\"");
+
+            // 解析整数值
+            boolean negative = pos < length && criteriaScores.charAt(pos) == '-';
+            if (negative) {
+                pos++;
+            }
+            int digitsStart = pos;
+            int value = 0;
+            boolean outOfRange = negative;
+            while (pos < length) {
+                char c = criteriaScores.charAt(pos);
+                if (c < '0' || c > '9') {
+                    break;
+                }
+                // 超出范围后只跳过剩余数字，不再累加，避免长数字串溢出
+                if (!outOfRange) {
+                    value = value * 10 + (c - '0');
+                    outOfRange = !ValidationUtil.isValidScore(value);
+                }
+                pos++;
+            }
+            if (pos == digitsStart || keyEnd == keyStart) {
+                System.err.println("解析评分数据时出错: 无效的键值对，位置 " + keyStart);
+                break;
+            }
+            if (outOfRange) {
+                System.err.println("解析评分数据时出错: 分数超出范围，位置 " + digitsStart);
+                continue;
+            }
+            scores.setByOrdinal(CriteriaScores.ordinalOf(criteriaScores, keyStart, keyEnd), value);
+        }
+        return scores;
+    }
+
+    /**
+     * 构建分数字符串（JSON格式）
+     */
+    public static String format(CriteriaScores scores) {
+        if (scores == null || scores.isEmpty()) {
+            return "";
+        }
+
+        StringBuilder sb = new StringBuilder(2 + scores.size() * 12);
+        sb.append('{');
+        scores.forEach((criteriaId, score) -> {
+            if (sb.length() > 1) sb.append(',');
+            sb.append('"').append(criteriaId).append("\":").append(score);
+        });
+        sb.append('}');
+        return sb.toString();
+    }
+
+    /**
+     * 编码为二进制格式：版本号、条目数，每个条目为指标编号长度、编号字节（ASCII）和ZigZag变长分数
+     * @throws IllegalArgumentException 指标过多、编号过长或编号含非ASCII字符时
+     */
+    public static byte[] encode(CriteriaScores scores) {
+        if (scores.size() > 255) {
+            throw new IllegalArgumentException("指标数量过多: " + scores.size());
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream(2 + scores.size() * 8);
+        out.write(BINARY_VERSION);
+        out.write(scores.size());
+        scores.forEach((criteriaId, score) -> {
+            int idLength = criteriaId.length();
+            if (idLength > 255) {
+                throw new IllegalArgumentException("指标编号过长: " + criteriaId);
+            }
+            out.write(idLength);
+            for (int i = 0; i < idLength; i++) {
+                char c = criteriaId.charAt(i);
+                if (c > 0x7F) {
+                    throw new IllegalArgumentException("指标编号只能包含ASCII字符: " + criteriaId);
+                }
+                out.write(c);
+            }
+            int zigzag = (score << 1) ^ (score >> 31);
+            while ((zigzag & ~0x7F) != 0) {
+                out.write((zigzag & 0x7F) | 0x80);
+                zigzag >>>= 7;
+            }
+            out.write(zigzag);
+        });
+        return out.toByteArray();
+    }
+
+    /**
+     * 从二进制格式解码
+     * @throws IllegalArgumentException 版本不支持、数据被截断或编号含非ASCII字节时
+     */
+    public static CriteriaScores decode(byte[] data) {
+        CriteriaScores scores = new CriteriaScores();
+        if (data == null || data.length == 0) {
+            return scores;
+        }
+        if (data[0] != BINARY_VERSION) {
+            throw new IllegalArgumentException("不支持的评分数据版本: " + data[0]);
+        }
+        if (data.length < 2) {
+            throw truncated(data.length);
+        }
+
+        AsciiSequence id = new AsciiSequence(data);
+        int count = data[1] & 0xFF;
+        int pos = 2;
+        for (int n = 0; n < count; n++) {
+            if (pos >= data.length) {
+                throw truncated(pos);
+            }
+            int idLength = data[pos++] & 0xFF;
+            if (pos + idLength > data.length) {
+                throw truncated(pos);
+            }
+            for (int i = pos; i < pos + idLength; i++) {
+                if (data[i] < 0) {
+                    throw new IllegalArgumentException("指标编号含非ASCII字节，位置 " + i);
+                }
+            }
+            id.offset = pos;
+            id.length = idLength;
+            pos += idLength;
+
+            int zigzag = 0;
+            int shift = 0;
+            byte b;
+            do {
+                if (pos >= data.length) {
+                    throw truncated(pos);
+                }
+                if (shift > 28) {
+                    throw new IllegalArgumentException("分数编码过长，位置 " + pos);
+                }
+                b = data[pos++];
+                zigzag |= (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+
+            scores.setByOrdinal(CriteriaScores.ordinalOf(id, 0, idLength), (zigzag >>> 1) ^ -(zigzag & 1));
+        }
+        return scores;
+    }
+
+    private static IllegalArgumentException truncated(int pos) {
+        return new IllegalArgumentException("评分数据不完整，位置 " + pos);
+    }
+
+    private static int skip(String text, int pos, String chars) {
+        while (pos < text.length() && chars.indexOf(text.charAt(pos)) >= 0) {
+            pos++;
+        }
+        return pos;
+    }
+
+    private static int trimEnd(String text, int start, int end) {
+        while (end > start && Character.isWhitespace(text.charAt(end - 1))) {
+            end--;
+        }
+        return end;
+    }
+
+    /**
+     * 将字节数组的一段视为ASCII字符序列，用于按编号查找指标序号而不创建字符串
+     */
+    private static final class AsciiSequence implements CharSequence {
+        private final byte[] data;
+        private int offset;
+        private int length;
+
+        AsciiSequence(byte[] data) {
+            this.data = data;
+        }
+
+        @Override
+        public int length() {
+            return length;
+        }
+
+        @Override
+        public char charAt(int index) {
+            return (char) (data[offset + index] & 0xFF);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return new String(data, offset + start, end - start, StandardCharsets.ISO_8859_1);
+        }
+
+        @Override
+        public String toString() {
+            return subSequence(0, length).toString();
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package edu.ai.haut.util;
+
+import edu.ai.haut.model.BackupSnapshot;
+import org.hsqldb.lib.tar.TarMalformatException;
+import org.hsqldb.lib.tar.TarReader;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * 数据库在线备份
+ * 使用 BACKUP DATABASE ... NOT BLOCKING 在运行中生成压缩归档，备份期间评教提交不受影响。
+ * 每次备份都是完整快照（HSQLDB不支持增量备份），按保留策略删除旧快照。
+ * 恢复时数据库必须未打开：先解压到临时目录并检查，再把现有文件移到备份目录，最后换入恢复的文件；
+ * 换入中途失败时撤销已完成的移动，数据目录保持恢复前的状态。
+ */
+public class DatabaseBackup {
+
+    // 备份配置，可通过系统属性覆盖（如 -Ddb.backup.dir=/mnt/backup）
+    private static final String BACKUP_DIR = System.getProperty("db.backup.dir", "backup");
+    private static final int KEEP_COUNT = Integer.getInteger("db.backup.keepCount", 14);
+    private static final int KEEP_DAYS = Integer.getInteger("db.backup.keepDays", 30);
+
+    private static final DateTimeFormatter FILE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmssSSS");
+    private static final String ARCHIVE_SUFFIX = ".tar.gz";
+
+    /**
+     * 生成一个备份快照，并按保留策略删除旧快照
+     * @return 新快照，失败时返回null
+     */
+    public static BackupSnapshot createSnapshot() {
+        File dir = new File(BACKUP_DIR);
+        if (!dir.isDirectory() && !dir.mkdirs()) {
+            System.err.println("创建备份目录失败: " + dir.getAbsolutePath());
+            return null;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        File archive = new File(dir, baseName() + "-" + now.format(FILE_TIME) + ARCHIVE_SUFFIX);
+        String path = archive.getPath().replace('\\', '/').replace("'", "''");
+
+        long start = System.nanoTime();
+        try (Connection conn = DatabaseUtil.getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("BACKUP DATABASE TO '" + path + "' NOT BLOCKING");
+        } catch (SQLException e) {
+            System.err.println("备份数据库时数据库错误: " + e.getMessage());
+            return null;
+        }
+        long durationMillis = (System.nanoTime() - start) / 1_000_000;
+
+        BackupSnapshot snapshot = new BackupSnapshot(archive, now, archive.length(), durationMillis);
+        System.out.printf("数据库备份完成：%s，%s，耗时 %dms%n", archive.getName(),
+                StorageProfiles.formatBytes(snapshot.getSizeBytes()), durationMillis);
+        rotate();
+        return snapshot;
+    }
+
+    /**
+     * 列出备份目录中的快照，最新的在前
+     */
+    public static List<BackupSnapshot> listSnapshots() {
+        List<BackupSnapshot> snapshots = new ArrayList<>();
+        File[] files = new File(BACKUP_DIR).listFiles();
+        if (files == null) {
+            return snapshots;
+        }
+        String prefix = baseName() + "-";
+        for (File file : files) {
+            String name = file.getName();
+            if (!file.isFile() || !name.startsWith(prefix) || !name.endsWith(ARCHIVE_SUFFIX)) {
+                continue;
+            }
+            try {
+                LocalDateTime createdAt = LocalDateTime.parse(
+                        name.substring(prefix.length(), name.length() - ARCHIVE_SUFFIX.length()), FILE_TIME);
+                snapshots.add(new BackupSnapshot(file, createdAt, file.length(), -1));
+            } catch (DateTimeParseException e) {
+                // 不是本程序生成的文件，忽略
+            }
+        }
+        snapshots.sort(Comparator.comparing(BackupSnapshot::getCreatedAt).reversed());
+        return snapshots;
+    }
+
+    /**
+     * 按保留策略删除旧快照：超过保留份数或保留天数的删除，最新的一份始终保留
+     * @return 删除的快照数量
+     */
+    public static int rotate() {
+        List<BackupSnapshot> snapshots = listSnapshots();
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(KEEP_DAYS);
+        int deleted = 0;
+        for (int i = 1; i < snapshots.size(); i++) {
+            BackupSnapshot snapshot = snapshots.get(i);
+            if (i < KEEP_COUNT && snapshot.getCreatedAt().isAfter(cutoff)) {
+                continue;
+            }
+            if (snapshot.getFile().delete()) {
+                System.out.println("已删除过期备份: " + snapshot.getFile().getName());
+                deleted++;
+            } else {
+                System.err.println("删除过期备份失败: " + snapshot.getFile().getAbsolutePath());
+            }
+        }
+        return deleted;
+    }
+
+    /**
+     * 从快照恢复数据库，只能在数据库打开之前调用
+     * 现有数据库文件移到数据目录下的 before-restore-时间 目录中，不会被删除；
+     * 存在锁文件说明数据库正被其他进程使用（或上次没有正常关闭），此时不恢复
+     * @return 恢复成功返回true
+     */
+    public static boolean restore(File archive) {
+        if (DatabaseUtil.isStarted()) {
+            System.err.println("数据库已打开，无法恢复备份");
+            return false;
+        }
+        if (!archive.isFile()) {
+            System.err.println("备份文件不存在: " + archive.getAbsolutePath());
+            return false;
+        }
+
+        File dbFile = new File(DatabaseUtil.getDatabasePath());
+        File dataDir = dbFile.getAbsoluteFile().getParentFile();
+        String stamp = LocalDateTime.now().format(FILE_TIME);
+        File extractDir = new File(dataDir, "restore-" + stamp);
+        File previousDir = new File(dataDir, "before-restore-" + stamp);
+
+        File lockFile = new File(dataDir, dbFile.getName() + ".lck");
+        if (lockFile.exists()) {
+            System.err.println("数据库正被其他程序使用，无法恢复备份（存在锁文件 " + lockFile.getAbsolutePath()
+                    + "）；确认没有程序打开数据库后删除该文件再重试");
+            return false;
+        }
+
+        // 已完成的移动，每项为{原位置, 新位置}，失败时按相反顺序撤销
+        List<File[]> moves = new ArrayList<>();
+        try {
+            Files.createDirectories(extractDir.toPath());
+            new TarReader(archive, TarReader.EXTRACT_MODE, null, null, extractDir).read();
+
+            // 归档中必须有数据库的.properties和.script文件
+            File[] restored = extractDir.listFiles();
+            if (restored == null || !new File(extractDir, dbFile.getName() + ".properties").isFile()
+                    || !new File(extractDir, dbFile.getName() + ".script").isFile()) {
+                System.err.println("备份文件不完整: " + archive.getAbsolutePath());
+                return false;
+            }
+
+            File[] current = dataDir.listFiles((dir, name) -> name.startsWith(dbFile.getName() + "."));
+            try {
+                if (current != null && current.length > 0) {
+                    Files.createDirectories(previousDir.toPath());
+                    for (File file : current) {
+                        move(file, new File(previousDir, file.getName()), moves);
+                    }
+                }
+                for (File file : restored) {
+                    move(file, new File(dataDir, file.getName()), moves);
+                }
+            } catch (IOException e) {
+                rollback(moves);
+                previousDir.delete();
+                throw e;
+            }
+
+            System.out.println("已从备份恢复数据库: " + archive.getName()
+                    + (previousDir.isDirectory() ? "，原数据库文件已移到 " + previousDir.getPath() : ""));
+            return true;
+        } catch (IOException | TarMalformatException e) {
+            System.err.println("恢复备份失败: " + e.getMessage());
+            return false;
+        } finally {
+            deleteDirectory(extractDir);
+        }
+    }
+
+    private static void move(File source, File target, List<File[]> moves) throws IOException {
+        Files.move(source.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        moves.add(new File[]{source, target});
+    }
+
+    /**
+     * 按相反顺序撤销已完成的移动，把原数据库文件放回数据目录
+     */
+    private static void rollback(List<File[]> moves) {
+        for (int i = moves.size() - 1; i >= 0; i--) {
+            File[] move = moves.get(i);
+            try {
+                Files.move(move[1].toPath(), move[0].toPath(), StandardCopyOption.REPLACE_EXISTING);
+            } catch (IOException e) {
+                System.err.println("撤销恢复失败，请手动将 " + move[1].getAbsolutePath() + " 移回 "
+                        + move[0].getAbsolutePath() + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 删除解压用的临时目录及其中剩余的文件
+     */
+    private static void deleteDirectory(File dir) {
+        if (!dir.exists()) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(dir.toPath())) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        } catch (IOException e) {
+            System.err.println("删除临时目录失败: " + dir.getAbsolutePath());
+        }
+    }
+
+    private static String baseName() {
+        return new File(DatabaseUtil.getDatabasePath()).getName();
+    }
+}
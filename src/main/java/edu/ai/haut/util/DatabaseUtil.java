@@ -1,7 +1,18 @@
 package edu.ai.haut.util;
 
 import java.sql.*;
+import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * 数据库工具类
@@ -9,49 +20,250 @@ import java.util.Properties;
  */
 public class DatabaseUtil {
 
-    private static final String DB_URL = "jdbc:hsqldb:file:data/studentevaluation;shutdown=true";
+    // 数据库文件位置，可通过系统属性覆盖（如 -Ddb.path=target/test-data/studentevaluation）
+    private static final String DB_PATH = System.getProperty("db.path", "data/studentevaluation");
+    private static final String DB_URL = "jdbc:hsqldb:file:" + DB_PATH + ";shutdown=true";
     private static final String DB_USER = "SA";
     private static final String DB_PASSWORD = "";
 
-    private static Connection connection;
+    // 连接池配置，可通过系统属性覆盖（如 -Ddb.pool.maxSize=20）
+    private static final int POOL_MIN_SIZE = Integer.getInteger("db.pool.minSize", 2);
+    private static final int POOL_MAX_SIZE = Integer.getInteger("db.pool.maxSize", 10);
+    private static final long POOL_BORROW_TIMEOUT_MS = Long.getLong("db.pool.borrowTimeoutMs", 10_000L);
+    private static final long POOL_LEAK_THRESHOLD_MS = Long.getLong("db.pool.leakThresholdMs", 30_000L);
+    // 记录每次借出连接的调用栈，便于定位泄漏位置，开销较大，只在排查时开启
+    private static final boolean POOL_LEAK_TRACE = Boolean.parseBoolean(System.getProperty("db.pool.leakTrace", "false"));
+    private static final int POOL_VALIDATION_TIMEOUT_S = Integer.getInteger("db.pool.validationTimeoutSeconds", 2);
+    private static final int POOL_STATEMENT_CACHE_SIZE = Integer.getInteger("db.pool.statementCacheSize", 64);
 
-    static {
+    // 批量写入时每个事务包含的行数
+    private static final int BATCH_CHUNK_SIZE = Integer.getInteger("db.batch.chunkSize", 1000);
+
+    // 事务模式：LOCKS（表锁）、MVLOCKS 或 MVCC（多版本，读写互不阻塞）
+    private static final String TX_MODE = System.getProperty("db.tx.mode", "MVCC").trim().toUpperCase();
+
+    /**
+     * 数据库操作类型，借出连接时按类型设置事务隔离级别
+     * 隔离级别可通过系统属性覆盖（如 -Ddb.isolation.report=REPEATABLE_READ）
+     */
+    public enum Operation {
+        /** 统计报表等只读查询：每条语句读取已提交数据的快照，不阻塞也不等待评教提交 */
+        REPORT("db.isolation.report", Connection.TRANSACTION_READ_COMMITTED),
+        /** 评教提交：可串行化，与并发提交修改同一汇总行时失败，由调用方重试 */
+        SUBMIT("db.isolation.submit", Connection.TRANSACTION_SERIALIZABLE),
+        /**
+         * 重建统计汇总等批量维护：事务开始时用LOCK TABLE独占要修改的表，评教提交等待维护完成，
+         * 之后每条语句读取最新提交的数据。不用可串行化：其快照在等待表锁之前就已确定，
+         * 会与等待期间提交的评教冲突而失败
+         */
+        MAINTENANCE("db.isolation.maintenance", Connection.TRANSACTION_READ_COMMITTED);
+
+        private final int isolation;
+
+        Operation(String property, int defaultIsolation) {
+            this.isolation = parseIsolation(System.getProperty(property), defaultIsolation);
+        }
+
+        public int getIsolation() {
+            return isolation;
+        }
+
+        private static int parseIsolation(String value, int defaultIsolation) {
+            if (value == null) {
+                return defaultIsolation;
+            }
+            switch (value.trim().toUpperCase()) {
+                case "READ_UNCOMMITTED": return Connection.TRANSACTION_READ_UNCOMMITTED;
+                case "READ_COMMITTED": return Connection.TRANSACTION_READ_COMMITTED;
+                case "REPEATABLE_READ": return Connection.TRANSACTION_REPEATABLE_READ;
+                case "SERIALIZABLE": return Connection.TRANSACTION_SERIALIZABLE;
+                default:
+                    System.err.println("隔离级别配置无效，将使用默认值: " + value);
+                    return defaultIsolation;
+            }
+        }
+    }
+
+    // 关闭时等待正在进行的启动完成的最长时间，避免初始数据只写入一部分
+    private static final long BOOTSTRAP_SHUTDOWN_WAIT_MS = 10_000L;
+
+    private static volatile ConnectionPool pool;
+
+    // 数据库启动（加载驱动、打开、建表、初始数据、迁移）完成时完成，启动失败时以异常完成
+    private static final CompletableFuture<Void> READY = new CompletableFuture<>();
+    private static final AtomicBoolean STARTED = new AtomicBoolean();
+
+    /**
+     * 在后台线程中启动数据库，可重复调用，只启动一次
+     * 程序入口应尽早调用，使数据库启动与界面创建同时进行
+     * @return 数据库就绪时完成的future
+     */
+    public static CompletableFuture<Void> startAsync() {
+        if (STARTED.compareAndSet(false, true)) {
+            Thread thread = new Thread(() -> {
+                try {
+                    bootstrap();
+                    READY.complete(null);
+                } catch (Throwable e) {
+                    System.err.println("数据库初始化失败: " + e.getMessage());
+                    READY.completeExceptionally(e);
+                }
+            }, "database-bootstrap");
+            thread.setDaemon(true);
+            thread.start();
+        }
+        return READY.copy();
+    }
+
+    /**
+     * 数据库是否已开始启动（包括启动中和已就绪）
+     */
+    public static boolean isStarted() {
+        return STARTED.get();
+    }
+
+    /**
+     * 数据库是否已就绪
+     */
+    public static boolean isReady() {
+        return READY.isDone() && !READY.isCompletedExceptionally();
+    }
+
+    /**
+     * 等待数据库就绪，尚未启动时先启动
+     * 启动耗时较长，不应在事件分发线程中调用
+     */
+    public static void awaitReady() throws SQLException {
+        try {
+            startAsync().join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            throw new SQLException("数据库初始化失败: " + cause.getMessage(), cause);
+        }
+    }
+
+    /**
+     * 启动数据库并输出各阶段耗时
+     */
+    private static void bootstrap() throws Exception {
+        long start = System.nanoTime();
         try {
-            // 加载HSQLDB驱动 - 正确的驱动类名
             Class.forName("org.hsqldb.jdbc.JDBCDriver");
-            initializeDatabase();
         } catch (ClassNotFoundException e) {
-            throw new RuntimeException("无法加载HSQLDB驱动", e);
+            throw new SQLException("无法加载HSQLDB驱动", e);
         }
+        long driverLoaded = System.nanoTime();
+
+        long heapBeforeOpen = StorageProfiles.isReportEnabled() ? StorageProfiles.usedHeap() : 0;
+        long openStart = System.nanoTime();
+        ConnectionPool connectionPool = createPool();
+        long opened = System.nanoTime();
+
+        long tablesCreated;
+        long seeded;
+        long migrated;
+        try (Connection conn = connectionPool.borrow()) {
+            applyTransactionControl(conn);
+            createTables(conn);
+            tablesCreated = System.nanoTime();
+            insertInitialData(conn);
+            seeded = System.nanoTime();
+            migrateSchema(conn);
+            migrated = System.nanoTime();
+            if (StorageProfiles.isReportEnabled()) {
+                StorageProfiles.printReport(conn, opened - openStart, heapBeforeOpen);
+            }
+        } catch (SQLException | RuntimeException e) {
+            connectionPool.shutdown();
+            throw e;
+        }
+        pool = connectionPool;
+        MaintenanceScheduler.start();
+
+        System.out.printf("数据库初始化完成：加载驱动 %.1fms，打开 %.1fms，建表 %.1fms，初始数据 %.1fms，迁移 %.1fms，共 %.1fms%n",
+                millis(driverLoaded - start), millis(opened - openStart), millis(tablesCreated - opened),
+                millis(seeded - tablesCreated), millis(migrated - seeded), millis(migrated - start));
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    /**
+     * 创建连接池
+     */
+    private static ConnectionPool createPool() {
+        Properties props = new Properties();
+        props.setProperty("user", DB_USER);
+        props.setProperty("password", DB_PASSWORD);
+        props.setProperty("shutdown", "true");
+
+        ConnectionPool connectionPool = new ConnectionPool(DB_URL, props, POOL_MIN_SIZE, POOL_MAX_SIZE,
+                POOL_BORROW_TIMEOUT_MS, POOL_LEAK_THRESHOLD_MS, POOL_VALIDATION_TIMEOUT_S,
+                POOL_STATEMENT_CACHE_SIZE, POOL_LEAK_TRACE);
+        try {
+            connectionPool.prefill();
+        } catch (SQLException e) {
+            throw new RuntimeException("初始化数据库连接池失败", e);
+        }
+        return connectionPool;
     }
 
     /**
      * 获取数据库连接
+     * 从连接池借出，调用close()时归还到连接池
      */
     public static Connection getConnection() throws SQLException {
-        if (connection == null || connection.isClosed()) {
-            Properties props = new Properties();
-            props.setProperty("user", DB_USER);
-            props.setProperty("password", DB_PASSWORD);
-            props.setProperty("shutdown", "true");
-            connection = DriverManager.getConnection(DB_URL, props);
-        }
-        return connection;
+        awaitReady();
+        return pool.borrow();
     }
 
     /**
-     * 初始化数据库
+     * 按操作类型获取数据库连接，连接使用该类型的隔离级别，归还时恢复默认值
      */
-    private static void initializeDatabase() {
-        try (Connection conn = getConnection()) {
-            createTables(conn);
-            insertInitialData(conn);
-            System.out.println("数据库初始化完成，测试数据已添加");
+    public static Connection getConnection(Operation operation) throws SQLException {
+        Connection conn = getConnection();
+        try {
+            if (conn.getTransactionIsolation() != operation.getIsolation()) {
+                conn.setTransactionIsolation(operation.getIsolation());
+            }
         } catch (SQLException e) {
-            throw new RuntimeException("数据库初始化失败", e);
+            conn.close();
+            throw e;
         }
+        return conn;
+    }
+
+    /**
+     * 数据库文件路径（不含扩展名），数据库由同名的.script、.log、.data等文件组成
+     */
+    public static String getDatabasePath() {
+        return DB_PATH;
+    }
+
+    /**
+     * 获取连接池统计信息，数据库尚未就绪时返回null
+     */
+    public static ConnectionPool.Stats getPoolStats() {
+        ConnectionPool current = pool;
+        return current != null ? current.getStats() : null;
     }
     
+    /**
+     * 设置数据库的事务模式，设置保存在数据库中，已是目标模式时不做修改
+     */
+    private static void applyTransactionControl(Connection conn) throws SQLException {
+        String sql = "SELECT property_value FROM information_schema.system_properties WHERE property_name = 'hsqldb.tx'";
+        try (Statement stmt = conn.createStatement()) {
+            ResultSet rs = stmt.executeQuery(sql);
+            String current = rs.next() ? rs.getString(1).toUpperCase() : "";
+            if (!current.equals(TX_MODE)) {
+                stmt.execute("SET DATABASE TRANSACTION CONTROL " + TX_MODE);
+                System.out.println("已将事务模式由 " + current + " 设置为 " + TX_MODE);
+            }
+        }
+    }
+
     /**
      * 创建数据库表
      */
@@ -170,12 +382,11 @@ public class DatabaseUtil {
             
             // 评教记录表
             """
-            CREATE TABLE IF NOT EXISTS evaluations (
+            CREATE %s TABLE IF NOT EXISTS evaluations (
                 evaluation_id VARCHAR(20) PRIMARY KEY,
                 student_id VARCHAR(20) NOT NULL,
                 offering_id VARCHAR(20) NOT NULL,
                 period_id VARCHAR(20) NOT NULL,
-                criteria_scores CLOB NOT NULL,
                 total_score DECIMAL(5,2),
                 comments CLOB,
                 evaluation_date TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
@@ -184,7 +395,44 @@ public class DatabaseUtil {
                 FOREIGN KEY (period_id) REFERENCES evaluation_periods(period_id),
                 UNIQUE(student_id, offering_id, period_id)
             )
+            """.formatted(StorageProfiles.profileOf("evaluations")),
+
+            // 评教指标分数表
+            """
+            CREATE %s TABLE IF NOT EXISTS evaluation_scores (
+                evaluation_id VARCHAR(20) NOT NULL,
+                criteria_id VARCHAR(20) NOT NULL,
+                score INTEGER NOT NULL,
+                PRIMARY KEY (evaluation_id, criteria_id),
+                FOREIGN KEY (evaluation_id) REFERENCES evaluations(evaluation_id) ON DELETE CASCADE
+            )
+            """.formatted(StorageProfiles.profileOf("evaluation_scores")),
+
+            // 按指标统计分数
             """
+            CREATE INDEX IF NOT EXISTS idx_evaluation_scores_criteria ON evaluation_scores (criteria_id, score)
+            """,
+
+            // 评教统计汇总表（按周期和教师/课程/班级分组）
+            """
+            CREATE %s TABLE IF NOT EXISTS evaluation_aggregates (
+                period_id VARCHAR(20) NOT NULL,
+                dimension VARCHAR(10) NOT NULL,
+                group_id VARCHAR(20) NOT NULL,
+                eval_count INTEGER NOT NULL,
+                participant_count INTEGER NOT NULL,
+                score_sum DECIMAL(14,2) NOT NULL,
+                score_sq_sum DECIMAL(18,4) NOT NULL,
+                min_score DECIMAL(5,2),
+                max_score DECIMAL(5,2),
+                excellent_count INTEGER NOT NULL,
+                good_count INTEGER NOT NULL,
+                average_count INTEGER NOT NULL,
+                pass_count INTEGER NOT NULL,
+                fail_count INTEGER NOT NULL,
+                PRIMARY KEY (period_id, dimension, group_id)
+            )
+            """.formatted(StorageProfiles.profileOf("evaluation_aggregates"))
         };
         
         try (Statement stmt = conn.createStatement()) {
@@ -194,6 +442,80 @@ public class DatabaseUtil {
         }
     }
     
+    /**
+     * 执行版本化的模式迁移，并补建缺失的索引、校正表的存储方式
+     */
+    private static void migrateSchema(Connection conn) throws SQLException {
+        // 索引按声明校正而不是作为版本化迁移执行一次：每次启动都要补建被手工删除的索引，
+        // 新声明的索引也无需登记新版本。放在迁移之前，回填和重建汇总时就能用上这些索引
+        IndexBootstrap.ensureIndexes(conn);
+
+        // V1（二级索引）和V4（存储配置）已改为启动校正，已有数据库中仍登记着这两个版本，
+        // 迁移按已登记的最大版本号跳过，新的迁移须从V5开始编号
+        SchemaMigrator migrator = new SchemaMigrator()
+            .register(2, "将criteria_scores拆分到evaluation_scores表", DatabaseUtil::migrateCriteriaScores)
+            .register(3, "生成评教统计汇总表", EvaluationAggregates::rebuild);
+        migrator.migrate(conn);
+
+        // 存储配置来自系统属性，每次启动都按当前配置转换表类型、设置缓存大小，而不是只在迁移时执行一次
+        StorageProfiles.apply(conn);
+    }
+
+    /**
+     * 将旧版evaluations.criteria_scores（JSON字符串）回填到evaluation_scores表，然后删除该列
+     */
+    private static void migrateCriteriaScores(Connection conn) throws SQLException {
+        String columnSql = """
+            SELECT COUNT(*) FROM information_schema.columns
+            WHERE table_schema = 'PUBLIC' AND table_name = 'EVALUATIONS' AND column_name = 'CRITERIA_SCORES'
+        """;
+        try (PreparedStatement pstmt = conn.prepareStatement(columnSql)) {
+            ResultSet rs = pstmt.executeQuery();
+            if (!rs.next() || rs.getInt(1) == 0) {
+                return;
+            }
+        }
+
+        // 边读边写，每BATCH_CHUNK_SIZE行执行一次批处理，不把全部指标分数载入内存；
+        // 不在中途提交，整个回填与删除旧列在同一个迁移事务中完成
+        String selectSql = """
+            SELECT e.evaluation_id, e.criteria_scores FROM evaluations e
+            WHERE NOT EXISTS (SELECT 1 FROM evaluation_scores es WHERE es.evaluation_id = e.evaluation_id)
+        """;
+        String insertSql = "INSERT INTO evaluation_scores (evaluation_id, criteria_id, score) VALUES (?, ?, ?)";
+        int migrated = 0;
+        try (PreparedStatement select = conn.prepareStatement(selectSql);
+             PreparedStatement insert = conn.prepareStatement(insertSql)) {
+            select.setFetchSize(BATCH_CHUNK_SIZE);
+            ResultSet rs = select.executeQuery();
+            int pending = 0;
+            while (rs.next()) {
+                insert.setString(1, rs.getString("evaluation_id"));
+                Map<String, Integer> scores = CriteriaScoreCodec.parse(rs.getString("criteria_scores")).toMap();
+                for (Map.Entry<String, Integer> score : scores.entrySet()) {
+                    insert.setString(2, score.getKey());
+                    insert.setInt(3, score.getValue());
+                    insert.addBatch();
+                    pending++;
+                }
+                if (pending >= BATCH_CHUNK_SIZE) {
+                    insert.executeBatch();
+                    migrated += pending;
+                    pending = 0;
+                }
+            }
+            if (pending > 0) {
+                insert.executeBatch();
+                migrated += pending;
+            }
+        }
+        System.out.println("回填了 " + migrated + " 条指标分数");
+
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("ALTER TABLE evaluations DROP COLUMN criteria_scores");
+        }
+    }
+
     /**
      * 插入初始数据（包括管理员和测试数据）
      */
@@ -251,31 +573,68 @@ public class DatabaseUtil {
     }
     
     /**
-     * 关闭数据库连接
+     * 关闭数据库连接池
      */
     public static void closeConnection() {
-        try {
-            if (connection != null && !connection.isClosed()) {
-                connection.close();
+        if (STARTED.get()) {
+            try {
+                READY.get(BOOTSTRAP_SHUTDOWN_WAIT_MS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException | TimeoutException e) {
+                // 启动失败或超时，关闭已打开的部分
             }
-        } catch (SQLException e) {
-            System.err.println("关闭数据库连接时出错: " + e.getMessage());
+        }
+        MaintenanceScheduler.stop();
+        if (pool != null) {
+            System.out.println(pool.getStats());
+            pool.shutdown();
         }
     }
     
     /**
-     * 通用批量插入数据方法
+     * 通用批量插入数据方法（初始化数据使用）
      */
     private static void batchInsert(Connection conn, String sql, Object[][] data, String dataType) throws SQLException {
+        int inserted = executeBatch(conn, sql, Arrays.asList(data), BATCH_CHUNK_SIZE);
+        System.out.println("插入了 " + inserted + " 个" + dataType);
+    }
+
+    /**
+     * 分块执行批量写入
+     * 每块使用addBatch/executeBatch一次提交，失败时回滚当前块并抛出异常，已提交的块保留
+     * @return 成功写入的行数
+     */
+    private static int executeBatch(Connection conn, String sql, List<Object[]> rows, int chunkSize) throws SQLException {
+        int size = Math.max(1, chunkSize);
+        int written = 0;
+        boolean autoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+
         try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            for (Object[] row : data) {
-                for (int i = 0; i < row.length; i++) {
-                    pstmt.setObject(i + 1, row[i]);
+            for (int start = 0; start < rows.size(); start += size) {
+                int end = Math.min(start + size, rows.size());
+                try {
+                    for (Object[] row : rows.subList(start, end)) {
+                        for (int i = 0; i < row.length; i++) {
+                            pstmt.setObject(i + 1, row[i]);
+                        }
+                        pstmt.addBatch();
+                    }
+                    pstmt.executeBatch();
+                    conn.commit();
+                    written += end - start;
+                } catch (SQLException e) {
+                    pstmt.clearBatch();
+                    conn.rollback();
+                    throw new BatchWriteException("批量写入第 " + (start + 1) + "-" + end + " 行失败，已提交 " + written + " 行",
+                            written, e);
                 }
-                pstmt.executeUpdate();
             }
+        } finally {
+            conn.setAutoCommit(autoCommit);
         }
-        System.out.println("插入了 " + data.length + " 个" + dataType);
+        return written;
     }
 
     // ==================== 数据插入方法 ====================
@@ -482,30 +841,52 @@ public class DatabaseUtil {
      */
     private static void insertEvaluations(Connection conn) throws SQLException {
         String sql = """
-            INSERT INTO evaluations (evaluation_id, student_id, offering_id, period_id, criteria_scores, total_score, comments)
-            VALUES (?, ?, ?, ?, ?, ?, ?)
+            INSERT INTO evaluations (evaluation_id, student_id, offering_id, period_id, total_score, comments)
+            VALUES (?, ?, ?, ?, ?, ?)
         """;
 
         Object[][] evaluationData = {
             // 2024年春季学期期中评教记录 - 使用2024年的开课信息和评教周期
-            {"E001", "231210400111", "OFF001", "P001", "{\"C001\":85,\"C002\":90,\"C003\":88,\"C004\":92,\"C005\":87}", 88.4, "老师讲课很认真，内容丰富"},
-            {"E002", "231210400112", "OFF001", "P001", "{\"C001\":90,\"C002\":88,\"C003\":85,\"C004\":90,\"C005\":92}", 88.8, "教学方法很好，互动性强"},
-            {"E003", "231210400113", "OFF001", "P001", "{\"C001\":88,\"C002\":92,\"C003\":90,\"C004\":85,\"C005\":88}", 89.0, "课程内容实用，受益匪浅"},
+            {"E001", "231210400111", "OFF001", "P001", 88.4, "老师讲课很认真，内容丰富"},
+            {"E002", "231210400112", "OFF001", "P001", 88.8, "教学方法很好，互动性强"},
+            {"E003", "231210400113", "OFF001", "P001", 89.0, "课程内容实用，受益匪浅"},
 
             // 2024年春季学期期末评教记录
-            {"E004", "231210400111", "OFF002", "P002", "{\"C001\":92,\"C002\":90,\"C003\":88,\"C004\":90,\"C005\":85}", 89.2, "Java课程很实用"},
-            {"E005", "231210400112", "OFF002", "P002", "{\"C001\":85,\"C002\":88,\"C003\":92,\"C004\":88,\"C005\":90}", 88.6, "编程实践很有帮助"},
+            {"E004", "231210400111", "OFF002", "P002", 89.2, "Java课程很实用"},
+            {"E005", "231210400112", "OFF002", "P002", 88.6, "编程实践很有帮助"},
 
             // 2025年春季学期期中评教记录
-            {"E006", "231210500111", "OFF004", "P005", "{\"C001\":90,\"C002\":85,\"C003\":88,\"C004\":92,\"C005\":88}", 88.4, "老师很负责任"},
-            {"E007", "231210500112", "OFF004", "P005", "{\"C001\":88,\"C002\":90,\"C003\":85,\"C004\":88,\"C005\":92}", 88.6, "课堂氛围很好"},
+            {"E006", "231210500111", "OFF004", "P005", 88.4, "老师很负责任"},
+            {"E007", "231210500112", "OFF004", "P005", 88.6, "课堂氛围很好"},
 
             // 2025年春季学期期末评教记录（当前进行中的周期）
-            {"E008", "231210400111", "OFF001", "P006", "{\"C001\":90,\"C002\":92,\"C003\":89,\"C004\":88,\"C005\":91}", 90.0, "期末复习很有帮助"},
-            {"E009", "231210400112", "OFF005", "P006", "{\"C001\":87,\"C002\":89,\"C003\":90,\"C004\":92,\"C005\":88}", 89.2, "数据库课程很实用"}
+            {"E008", "231210400111", "OFF001", "P006", 90.0, "期末复习很有帮助"},
+            {"E009", "231210400112", "OFF005", "P006", 89.2, "数据库课程很实用"}
+        };
+
+        // 各评教记录的指标分数，依次对应C001-C005
+        int[][] criteriaScores = {
+            {85, 90, 88, 92, 87},
+            {90, 88, 85, 90, 92},
+            {88, 92, 90, 85, 88},
+            {92, 90, 88, 90, 85},
+            {85, 88, 92, 88, 90},
+            {90, 85, 88, 92, 88},
+            {88, 90, 85, 88, 92},
+            {90, 92, 89, 88, 91},
+            {87, 89, 90, 92, 88}
         };
 
         batchInsert(conn, sql, evaluationData, "条评教记录");
+
+        List<Object[]> scoreData = new ArrayList<>();
+        for (int i = 0; i < evaluationData.length; i++) {
+            for (int j = 0; j < criteriaScores[i].length; j++) {
+                scoreData.add(new Object[]{evaluationData[i][0], String.format("C%03d", j + 1), criteriaScores[i][j]});
+            }
+        }
+        String scoreSql = "INSERT INTO evaluation_scores (evaluation_id, criteria_id, score) VALUES (?, ?, ?)";
+        batchInsert(conn, scoreSql, scoreData.toArray(new Object[0][]), "条指标分数");
     }
 
     /**
@@ -616,4 +997,96 @@ public class DatabaseUtil {
         }
     }
 
+    /**
+     * 批量插入记录
+     * 按db.batch.chunkSize分块，每块一个事务
+     * @return 成功插入的行数，出错时返回已提交的行数
+     * @throws IllegalArgumentException 数据列数与字段数不一致
+     */
+    public static int bulkInsert(String tableName, String[] columns, List<Object[]> rows) {
+        if (rows.isEmpty()) {
+            return 0;
+        }
+
+        String sql = "INSERT INTO " + tableName + " (" + String.join(", ", columns) + ") VALUES ("
+                + placeholders(columns.length) + ")";
+        return bulkWrite(sql, columns.length, rows, "批量插入");
+    }
+
+    /**
+     * 批量插入或更新记录
+     * 使用MERGE语句，按keyColumns匹配已有记录，存在则更新其余列，不存在则插入
+     * @return 成功写入的行数，出错时返回已提交的行数
+     * @throws IllegalArgumentException keyColumns为空或包含columns以外的字段，或数据列数与字段数不一致
+     */
+    public static int bulkUpsert(String tableName, String[] columns, String[] keyColumns, List<Object[]> rows) {
+        List<String> keys = Arrays.asList(keyColumns);
+        if (keys.isEmpty() || !Arrays.asList(columns).containsAll(keys)) {
+            throw new IllegalArgumentException("匹配字段必须是写入字段的非空子集: " + keys);
+        }
+        if (rows.isEmpty()) {
+            return 0;
+        }
+
+        StringBuilder on = new StringBuilder();
+        StringBuilder set = new StringBuilder();
+        StringBuilder values = new StringBuilder();
+        for (String column : columns) {
+            if (keys.contains(column)) {
+                if (on.length() > 0) on.append(" AND ");
+                on.append("t.").append(column).append(" = v.").append(column);
+            } else {
+                if (set.length() > 0) set.append(", ");
+                set.append("t.").append(column).append(" = v.").append(column);
+            }
+            if (values.length() > 0) values.append(", ");
+            values.append("v.").append(column);
+        }
+
+        String columnList = String.join(", ", columns);
+        StringBuilder sql = new StringBuilder("MERGE INTO ").append(tableName).append(" t USING (VALUES (")
+                .append(placeholders(columns.length)).append(")) AS v(").append(columnList).append(") ON ")
+                .append(on);
+        if (set.length() > 0) {
+            sql.append(" WHEN MATCHED THEN UPDATE SET ").append(set);
+        }
+        sql.append(" WHEN NOT MATCHED THEN INSERT (").append(columnList).append(") VALUES (").append(values).append(")");
+
+        return bulkWrite(sql.toString(), columns.length, rows, "批量更新");
+    }
+
+    private static int bulkWrite(String sql, int columnCount, List<Object[]> rows, String operation) {
+        for (Object[] row : rows) {
+            if (row.length != columnCount) {
+                throw new IllegalArgumentException(operation + "的数据列数与字段数不一致: " + row.length + " != " + columnCount);
+            }
+        }
+
+        long start = System.nanoTime();
+        try (Connection conn = getConnection()) {
+            int written = executeBatch(conn, sql, rows, BATCH_CHUNK_SIZE);
+            System.out.printf("%s %d 行，耗时 %.1fms%n", operation, written, (System.nanoTime() - start) / 1_000_000.0);
+            return written;
+        } catch (SQLException e) {
+            System.err.println(operation + "时数据库错误: " + e.getMessage()
+                    + (e.getCause() != null ? " (" + e.getCause().getMessage() + ")" : ""));
+            return e instanceof BatchWriteException batchError ? batchError.committed : 0;
+        }
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+
+    /**
+     * 批量写入异常，记录出错前已提交的行数
+     */
+    private static class BatchWriteException extends SQLException {
+        private final int committed;
+
+        BatchWriteException(String message, int committed, SQLException cause) {
+            super(message, cause);
+            this.committed = committed;
+        }
+    }
 }
@@ -0,0 +1,210 @@
+package edu.ai.haut.util;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 评教统计汇总表维护
+ * evaluation_aggregates按(评教周期, 统计维度, 分组编号)保存评教数、参与学生数、总分和、平方和、
+ * 最高最低分以及各等级人数，统计查询只需读取分组行而不必扫描全部评教记录。
+ * 提交评教时在同一事务中增量更新；绕过EvaluationService直接写入evaluations的批量导入需要调用rebuild重建。
+ */
+public class EvaluationAggregates {
+
+    public static final String TEACHER = "TEACHER";
+    public static final String COURSE = "COURSE";
+    public static final String CLASS = "CLASS";
+
+    /**
+     * 统计维度 -> course_offerings中的分组列
+     */
+    private static final String[][] DIMENSIONS = {
+        {TEACHER, "teacher_id"},
+        {COURSE, "course_id"},
+        {CLASS, "class_id"}
+    };
+
+    private static final String AGGREGATE_COLUMNS = """
+        period_id, dimension, group_id, eval_count, participant_count, score_sum, score_sq_sum,
+        min_score, max_score, excellent_count, good_count, average_count, pass_count, fail_count""";
+
+    private static final String MERGE_SQL = """
+        MERGE INTO evaluation_aggregates a
+        USING (VALUES (CAST(? AS VARCHAR(20)), CAST(? AS VARCHAR(10)), CAST(? AS VARCHAR(20)),
+                       CAST(? AS DECIMAL(5,2)), CAST(? AS INTEGER)))
+              AS v(period_id, dimension, group_id, score, new_participant)
+        ON a.period_id = v.period_id AND a.dimension = v.dimension AND a.group_id = v.group_id
+        WHEN MATCHED THEN UPDATE SET
+            eval_count = a.eval_count + 1,
+            participant_count = a.participant_count + v.new_participant,
+            score_sum = a.score_sum + v.score,
+            score_sq_sum = a.score_sq_sum + v.score * v.score,
+            min_score = LEAST(a.min_score, v.score),
+            max_score = GREATEST(a.max_score, v.score),
+            excellent_count = a.excellent_count + CASE WHEN v.score >= 90 THEN 1 ELSE 0 END,
+            good_count = a.good_count + CASE WHEN v.score >= 80 AND v.score < 90 THEN 1 ELSE 0 END,
+            average_count = a.average_count + CASE WHEN v.score >= 70 AND v.score < 80 THEN 1 ELSE 0 END,
+            pass_count = a.pass_count + CASE WHEN v.score >= 60 AND v.score < 70 THEN 1 ELSE 0 END,
+            fail_count = a.fail_count + CASE WHEN v.score < 60 THEN 1 ELSE 0 END
+        WHEN NOT MATCHED THEN INSERT (""" + AGGREGATE_COLUMNS + """
+        ) VALUES (
+            v.period_id, v.dimension, v.group_id, 1, v.new_participant, v.score, v.score * v.score,
+            v.score, v.score,
+            CASE WHEN v.score >= 90 THEN 1 ELSE 0 END,
+            CASE WHEN v.score >= 80 AND v.score < 90 THEN 1 ELSE 0 END,
+            CASE WHEN v.score >= 70 AND v.score < 80 THEN 1 ELSE 0 END,
+            CASE WHEN v.score >= 60 AND v.score < 70 THEN 1 ELSE 0 END,
+            CASE WHEN v.score < 60 THEN 1 ELSE 0 END)
+        """;
+
+    /**
+     * 将一条新提交的评教计入汇总，须在插入评教记录的同一事务中、插入之后调用
+     */
+    public static void recordEvaluation(Connection conn, String evaluationId, String studentId,
+                                        String offeringId, String periodId, double totalScore) throws SQLException {
+        String[] groupIds = new String[DIMENSIONS.length];
+        String offeringSql = "SELECT teacher_id, course_id, class_id FROM course_offerings WHERE offering_id = ?";
+        try (PreparedStatement pstmt = conn.prepareStatement(offeringSql)) {
+            pstmt.setString(1, offeringId);
+            ResultSet rs = pstmt.executeQuery();
+            if (!rs.next()) {
+                throw new SQLException("开课信息不存在: " + offeringId);
+            }
+            for (int i = 0; i < DIMENSIONS.length; i++) {
+                groupIds[i] = rs.getString(DIMENSIONS[i][1]);
+            }
+        }
+
+        // 该学生本周期在同一分组内是否已有其他评教，用于维护参与学生数
+        String participatedSql = """
+            SELECT COUNT(CASE WHEN co.teacher_id = ? THEN 1 END),
+                   COUNT(CASE WHEN co.course_id = ? THEN 1 END),
+                   COUNT(CASE WHEN co.class_id = ? THEN 1 END)
+            FROM evaluations e
+            JOIN course_offerings co ON e.offering_id = co.offering_id
+            WHERE e.student_id = ? AND e.period_id = ? AND e.evaluation_id <> ?
+        """;
+        boolean[] participated = new boolean[DIMENSIONS.length];
+        try (PreparedStatement pstmt = conn.prepareStatement(participatedSql)) {
+            for (int i = 0; i < DIMENSIONS.length; i++) {
+                pstmt.setString(i + 1, groupIds[i]);
+            }
+            pstmt.setString(4, studentId);
+            pstmt.setString(5, periodId);
+            pstmt.setString(6, evaluationId);
+            ResultSet rs = pstmt.executeQuery();
+            if (rs.next()) {
+                for (int i = 0; i < DIMENSIONS.length; i++) {
+                    participated[i] = rs.getInt(i + 1) > 0;
+                }
+            }
+        }
+
+        try (PreparedStatement pstmt = conn.prepareStatement(MERGE_SQL)) {
+            for (int i = 0; i < DIMENSIONS.length; i++) {
+                pstmt.setString(1, periodId);
+                pstmt.setString(2, DIMENSIONS[i][0]);
+                pstmt.setString(3, groupIds[i]);
+                pstmt.setDouble(4, totalScore);
+                pstmt.setInt(5, participated[i] ? 0 : 1);
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+        }
+    }
+
+    /**
+     * 从评教记录重新生成全部汇总
+     * @return 生成的汇总行数
+     */
+    public static int rebuild(Connection conn) throws SQLException {
+        int rows = 0;
+        try (Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("DELETE FROM evaluation_aggregates");
+            for (String[] dimension : DIMENSIONS) {
+                rows += stmt.executeUpdate("INSERT INTO evaluation_aggregates (" + AGGREGATE_COLUMNS + ") "
+                        + groupedSelect(dimension, false));
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * 重新生成某个分组在各周期的汇总，用于开课的教师、课程或班级被修改后
+     */
+    public static void refreshGroup(Connection conn, String dimension, String groupId) throws SQLException {
+        String[] target = findDimension(dimension);
+        try (PreparedStatement delete = conn.prepareStatement(
+                     "DELETE FROM evaluation_aggregates WHERE dimension = ? AND group_id = ?");
+             PreparedStatement insert = conn.prepareStatement(
+                     "INSERT INTO evaluation_aggregates (" + AGGREGATE_COLUMNS + ") " + groupedSelect(target, true))) {
+            delete.setString(1, dimension);
+            delete.setString(2, groupId);
+            delete.executeUpdate();
+            insert.setString(1, groupId);
+            insert.executeUpdate();
+        }
+    }
+
+    /**
+     * 将汇总表与评教记录的实时分组结果逐行比较
+     * @return 不一致的分组（周期/维度/分组编号），一致时为空
+     */
+    public static List<String> verify(Connection conn) throws SQLException {
+        StringBuilder live = new StringBuilder();
+        for (String[] dimension : DIMENSIONS) {
+            if (live.length() > 0) {
+                live.append(" UNION ALL ");
+            }
+            live.append(groupedSelect(dimension, false));
+        }
+        String stored = "SELECT " + AGGREGATE_COLUMNS + " FROM evaluation_aggregates";
+        String sql = "SELECT period_id, dimension, group_id FROM ((" + stored + ") EXCEPT (" + live + ")) "
+                + "UNION SELECT period_id, dimension, group_id FROM ((" + live + ") EXCEPT (" + stored + ")) "
+                + "ORDER BY 1, 2, 3";
+
+        List<String> mismatches = new ArrayList<>();
+        try (Statement stmt = conn.createStatement()) {
+            ResultSet rs = stmt.executeQuery(sql);
+            while (rs.next()) {
+                mismatches.add(rs.getString(1) + "/" + rs.getString(2) + "/" + rs.getString(3));
+            }
+        }
+        return mismatches;
+    }
+
+    /**
+     * 按维度对评教记录分组的查询，列顺序与AGGREGATE_COLUMNS一致
+     */
+    private static String groupedSelect(String[] dimension, boolean filterGroup) {
+        String groupColumn = "co." + dimension[1];
+        return """
+            SELECT e.period_id AS period_id, '%s' AS dimension, %s AS group_id, COUNT(*), COUNT(DISTINCT e.student_id),
+                   SUM(e.total_score), SUM(e.total_score * e.total_score),
+                   MIN(e.total_score), MAX(e.total_score),
+                   SUM(CASE WHEN e.total_score >= 90 THEN 1 ELSE 0 END),
+                   SUM(CASE WHEN e.total_score >= 80 AND e.total_score < 90 THEN 1 ELSE 0 END),
+                   SUM(CASE WHEN e.total_score >= 70 AND e.total_score < 80 THEN 1 ELSE 0 END),
+                   SUM(CASE WHEN e.total_score >= 60 AND e.total_score < 70 THEN 1 ELSE 0 END),
+                   SUM(CASE WHEN e.total_score < 60 THEN 1 ELSE 0 END)
+            FROM evaluations e
+            JOIN course_offerings co ON e.offering_id = co.offering_id
+            %s
+            GROUP BY e.period_id, %s
+            """.formatted(dimension[0], groupColumn, filterGroup ? "WHERE " + groupColumn + " = ?" : "", groupColumn);
+    }
+
+    private static String[] findDimension(String dimension) {
+        for (String[] candidate : DIMENSIONS) {
+            if (candidate[0].equals(dimension)) {
+                return candidate;
+            }
+        }
+        throw new IllegalArgumentException("未知的统计维度: " + dimension);
+    }
+}
@@ -0,0 +1,98 @@
+package edu.ai.haut.util;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 编号生成器
+ * 生成由时间、节点号和序号组成的唯一编号，用于评教记录等由系统自动分配编号的数据。
+ * 编号数值为63位：41位毫秒时间（自2024-01-01起，约可用69年）、10位节点号、12位毫秒内序号，
+ * 编码为定长13位的36进制字符串，加上前缀后不超过VARCHAR(20)，字符串顺序与生成顺序一致。
+ * 同一毫秒内序号用完或系统时钟回拨时借用下一毫秒，保证单调递增；生成过程无锁，可在多线程中并发调用。
+ * 节点号通过系统属性 -Dhaut.node.id=0..1023 指定，未指定时由主机名和进程号计算。
+ */
+public final class IdGenerator {
+
+    public static final String EVALUATION_PREFIX = "E";
+    public static final String CLASS_PREFIX = "C";
+
+    private static final long EPOCH_MILLIS = 1704067200000L;   // 2024-01-01T00:00:00Z
+    private static final int NODE_BITS = 10;
+    private static final int SEQUENCE_BITS = 12;
+    private static final int MAX_NODE_ID = (1 << NODE_BITS) - 1;
+    private static final int ENCODED_LENGTH = 13;
+    private static final int MAX_PREFIX_LENGTH = 20 - ENCODED_LENGTH;
+
+    private static final IdGenerator INSTANCE = new IdGenerator(defaultNodeId());
+
+    private final int nodeId;
+
+    // 最近一次分配的(毫秒时间 << SEQUENCE_BITS | 序号)
+    private final AtomicLong lastTick = new AtomicLong();
+
+    public IdGenerator(int nodeId) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("节点号超出范围: " + nodeId);
+        }
+        this.nodeId = nodeId;
+    }
+
+    public static IdGenerator getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * 生成带前缀的编号，如 E02T7DJHB87YTC
+     * @param prefix 编号前缀，最长7个字符
+     */
+    public String nextId(String prefix) {
+        if (prefix.length() > MAX_PREFIX_LENGTH) {
+            throw new IllegalArgumentException("编号前缀过长: " + prefix);
+        }
+        String encoded = Long.toString(nextValue(), 36).toUpperCase();
+        StringBuilder id = new StringBuilder(prefix.length() + ENCODED_LENGTH).append(prefix);
+        for (int i = encoded.length(); i < ENCODED_LENGTH; i++) {
+            id.append('0');
+        }
+        return id.append(encoded).toString();
+    }
+
+    /**
+     * 生成编号数值
+     */
+    public long nextValue() {
+        long now = (System.currentTimeMillis() - EPOCH_MILLIS) << SEQUENCE_BITS;
+        long prev;
+        long next;
+        do {
+            prev = lastTick.get();
+            // 进入新的毫秒时序号从0开始；否则序号加一，序号溢出时自然进位到下一毫秒
+            next = now > prev ? now : prev + 1;
+        } while (!lastTick.compareAndSet(prev, next));
+
+        long millis = next >>> SEQUENCE_BITS;
+        long sequence = next & ((1L << SEQUENCE_BITS) - 1);
+        return (millis << (NODE_BITS + SEQUENCE_BITS)) | ((long) nodeId << SEQUENCE_BITS) | sequence;
+    }
+
+    public int getNodeId() {
+        return nodeId;
+    }
+
+    private static int defaultNodeId() {
+        String configured = System.getProperty("haut.node.id");
+        if (configured != null) {
+            try {
+                int nodeId = Integer.parseInt(configured.trim());
+                if (nodeId >= 0 && nodeId <= MAX_NODE_ID) {
+                    return nodeId;
+                }
+            } catch (NumberFormatException e) {
+                // 按无效配置处理
+            }
+            System.err.println("节点号配置无效，将自动计算: " + configured);
+        }
+        // RuntimeMXBean的名称形如 "pid@hostname"
+        return ManagementFactory.getRuntimeMXBean().getName().hashCode() & MAX_NODE_ID;
+    }
+}
@@ -0,0 +1,188 @@
+package edu.ai.haut.util;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 二级索引管理
+ * 声明统计和评教查询所需的组合索引，启动时补建缺失的索引，
+ * 并输出建索引前后关键查询的执行计划对比。
+ * HSQLDB会为外键列（course_offerings.teacher_id/class_id/course_id、students.class_id、
+ * evaluations.offering_id/period_id）自动建立单列索引，这里只补充外键索引覆盖不到的组合访问路径。
+ */
+public class IndexBootstrap {
+
+    /**
+     * 索引定义：索引名 -> 建索引语句
+     */
+    private static final Map<String, String> INDEXES = new LinkedHashMap<>();
+
+    static {
+        // 统计按周期过滤后按开课连接评教记录
+        INDEXES.put("IDX_EVALUATIONS_PERIOD_OFFERING",
+                "CREATE INDEX idx_evaluations_period_offering ON evaluations (period_id, offering_id, total_score)");
+        // 按开课查看某周期的评教记录
+        INDEXES.put("IDX_EVALUATIONS_OFFERING_PERIOD",
+                "CREATE INDEX idx_evaluations_offering_period ON evaluations (offering_id, period_id, total_score)");
+        // 评教记录按时间倒序分页
+        INDEXES.put("IDX_EVALUATIONS_DATE_ID",
+                "CREATE INDEX idx_evaluations_date_id ON evaluations (evaluation_date DESC, evaluation_id DESC)");
+    }
+
+    /**
+     * 执行计划对比所用的关键查询
+     */
+    private static final Map<String, String> REPORT_QUERIES = new LinkedHashMap<>();
+
+    static {
+        REPORT_QUERIES.put("教师评教统计", """
+            SELECT t.teacher_id, COUNT(e.evaluation_id), AVG(e.total_score)
+            FROM teachers t
+            LEFT JOIN course_offerings co ON t.teacher_id = co.teacher_id
+            LEFT JOIN evaluations e ON co.offering_id = e.offering_id AND e.period_id = 'P001'
+            GROUP BY t.teacher_id
+        """);
+        REPORT_QUERIES.put("课程评教统计", """
+            SELECT c.course_id, COUNT(e.evaluation_id), AVG(e.total_score)
+            FROM courses c
+            LEFT JOIN course_offerings co ON c.course_id = co.course_id
+            LEFT JOIN evaluations e ON co.offering_id = e.offering_id AND e.period_id = 'P001'
+            GROUP BY c.course_id
+        """);
+        REPORT_QUERIES.put("教师评教结果", """
+            SELECT e.evaluation_id
+            FROM evaluations e
+            JOIN course_offerings co ON e.offering_id = co.offering_id
+            WHERE co.teacher_id = 'T20240001' AND e.period_id = 'P001'
+        """);
+        REPORT_QUERIES.put("评教记录分页", """
+            SELECT e.evaluation_id FROM evaluations e
+            WHERE e.evaluation_date < TIMESTAMP '2024-06-01 00:00:00'
+            ORDER BY e.evaluation_date DESC, e.evaluation_id DESC LIMIT 500
+        """);
+        REPORT_QUERIES.put("班级课程列表", """
+            SELECT co.offering_id FROM course_offerings co WHERE co.class_id = 'SE2301'
+        """);
+        REPORT_QUERIES.put("班级学生列表", """
+            SELECT s.student_id FROM students s WHERE s.class_id = 'SE2301' ORDER BY s.student_id
+        """);
+    }
+
+    /**
+     * 检查声明的索引是否存在，补建缺失的索引并输出执行计划对比
+     * @return 本次新建的索引数量
+     */
+    public static int ensureIndexes(Connection conn) throws SQLException {
+        Set<String> existing = getExistingIndexNames(conn);
+        List<String> missing = new ArrayList<>();
+        for (String indexName : INDEXES.keySet()) {
+            if (!existing.contains(indexName)) {
+                missing.add(indexName);
+            }
+        }
+        if (missing.isEmpty()) {
+            return 0;
+        }
+
+        Map<String, String> before = capturePlans(conn);
+        try (Statement stmt = conn.createStatement()) {
+            for (String indexName : missing) {
+                long start = System.nanoTime();
+                stmt.execute(INDEXES.get(indexName));
+                System.out.printf("已创建索引 %s（%.1fms）%n", indexName, (System.nanoTime() - start) / 1_000_000.0);
+            }
+        }
+        Map<String, String> after = capturePlans(conn);
+
+        printPlanReport(before, after);
+        return missing.size();
+    }
+
+    /**
+     * 获取当前模式下已存在的索引名
+     */
+    private static Set<String> getExistingIndexNames(Connection conn) throws SQLException {
+        Set<String> names = new HashSet<>();
+        String sql = """
+            SELECT DISTINCT index_name FROM information_schema.system_indexinfo
+            WHERE table_schem = 'PUBLIC'
+        """;
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            ResultSet rs = pstmt.executeQuery();
+            while (rs.next()) {
+                names.add(rs.getString(1));
+            }
+        }
+        return names;
+    }
+
+    /**
+     * 获取各关键查询的访问路径摘要
+     */
+    private static Map<String, String> capturePlans(Connection conn) {
+        Map<String, String> plans = new LinkedHashMap<>();
+        for (Map.Entry<String, String> entry : REPORT_QUERIES.entrySet()) {
+            try (Statement stmt = conn.createStatement()) {
+                ResultSet rs = stmt.executeQuery("EXPLAIN PLAN FOR " + entry.getValue());
+                StringBuilder plan = new StringBuilder();
+                while (rs.next()) {
+                    plan.append(rs.getString(1)).append('\n');
+                }
+                plans.put(entry.getKey(), summarizePlan(plan.toString()));
+            } catch (SQLException e) {
+                plans.put(entry.getKey(), "无法获取执行计划: " + e.getMessage());
+            }
+        }
+        return plans;
+    }
+
+    /**
+     * 将HSQLDB的执行计划压缩为"表:访问方式(索引)"的列表
+     */
+    private static String summarizePlan(String plan) {
+        List<String> parts = new ArrayList<>();
+        String table = null;
+        String access = null;
+        for (String rawLine : plan.split("\n")) {
+            String line = rawLine.trim();
+            if (line.startsWith("table=")) {
+                table = line.substring("table=".length());
+                access = null;
+            } else if (line.startsWith("access=") && table != null) {
+                access = line.substring("access=".length());
+                if (access.startsWith("FULL SCAN")) {
+                    parts.add(table + ":" + access);
+                    table = null;
+                }
+            } else if (line.contains("index=") && table != null && access != null) {
+                int start = line.indexOf("index=") + "index=".length();
+                int end = start;
+                while (end < line.length() && (Character.isLetterOrDigit(line.charAt(end)) || line.charAt(end) == '_')) {
+                    end++;
+                }
+                parts.add(table + ":" + access + "(" + line.substring(start, end) + ")");
+                table = null;
+            }
+        }
+        return parts.isEmpty() ? "-" : String.join(", ", parts);
+    }
+
+    private static void printPlanReport(Map<String, String> before, Map<String, String> after) {
+        System.out.println("========== 索引执行计划对比 ==========");
+        for (String name : before.keySet()) {
+            System.out.println(name);
+            System.out.println("  建索引前: " + before.get(name));
+            System.out.println("  建索引后: " + after.get(name));
+        }
+        System.out.println("======================================");
+    }
+}
@@ -0,0 +1,176 @@
+package edu.ai.haut.util;
+
+import edu.ai.haut.model.BackupSnapshot;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 数据库后台维护
+ * HSQLDB把每次修改追加到.log文件，只在日志达到hsqldb.log_size或正常关闭时才写入检查点，
+ * 评教周期内日志持续增长，下次启动时需要全部重放。这里定时检查日志大小和.data文件中的空闲空间，
+ * 在一段时间没有评教提交时执行CHECKPOINT（清空日志）或CHECKPOINT DEFRAG（同时整理数据文件）。
+ * 评教提交期间不执行，检查点会暂停所有新事务。
+ * 配置了备份间隔时，同时按间隔生成在线备份快照（见DatabaseBackup），备份不阻塞提交，不需等待空闲。
+ */
+public class MaintenanceScheduler {
+
+    // 维护配置，可通过系统属性覆盖（如 -Ddb.maintenance.logThresholdKb=4096）
+    private static final boolean ENABLED = Boolean.parseBoolean(System.getProperty("db.maintenance.enabled", "true"));
+    private static final long CHECK_INTERVAL_S = Long.getLong("db.maintenance.intervalSeconds", 60L);
+    private static final long LOG_THRESHOLD_BYTES = Long.getLong("db.maintenance.logThresholdKb", 8_192L) * 1024;
+    private static final long IDLE_MS = Long.getLong("db.maintenance.idleSeconds", 120L) * 1000;
+    // 数据文件中已释放空间达到该比例且不少于DEFRAG_MIN_LOST_BYTES时整理数据文件
+    private static final double DEFRAG_LOST_RATIO = 0.3;
+    private static final long DEFRAG_MIN_LOST_BYTES = 1024 * 1024;
+    // 自动备份间隔，为0时不自动备份
+    private static final long BACKUP_INTERVAL_H = Long.getLong("db.backup.intervalHours", 0L);
+
+    // 最近一次评教提交的时间，0表示启动后还没有提交
+    private static final AtomicLong lastSubmissionMillis = new AtomicLong();
+
+    private static ScheduledExecutorService executor;
+    private static boolean deferredReported;
+
+    /**
+     * 启动定时检查，可重复调用
+     */
+    public static synchronized void start() {
+        if (!ENABLED || executor != null) {
+            return;
+        }
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "database-maintenance");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(MaintenanceScheduler::runOnce, CHECK_INTERVAL_S, CHECK_INTERVAL_S,
+                TimeUnit.SECONDS);
+    }
+
+    /**
+     * 停止定时检查，等待正在执行的检查点完成
+     */
+    public static synchronized void stop() {
+        if (executor == null) {
+            return;
+        }
+        executor.shutdown();
+        try {
+            executor.awaitTermination(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        executor = null;
+    }
+
+    /**
+     * 记录一次评教提交，提交后的IDLE_MS内不执行维护
+     */
+    public static void recordSubmission() {
+        lastSubmissionMillis.set(System.currentTimeMillis());
+    }
+
+    /**
+     * 检查是否需要备份和维护
+     */
+    static void runOnce() {
+        backupIfDue();
+        checkpointIfNeeded();
+    }
+
+    /**
+     * 距最近一次备份超过备份间隔时生成快照
+     */
+    private static void backupIfDue() {
+        if (BACKUP_INTERVAL_H <= 0) {
+            return;
+        }
+        try {
+            List<BackupSnapshot> snapshots = DatabaseBackup.listSnapshots();
+            LocalDateTime due = LocalDateTime.now().minusHours(BACKUP_INTERVAL_H);
+            if (snapshots.isEmpty() || snapshots.get(0).getCreatedAt().isBefore(due)) {
+                DatabaseBackup.createSnapshot();
+            }
+        } catch (RuntimeException e) {
+            System.err.println("自动备份失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 日志或数据文件需要整理且评教提交空闲时执行检查点
+     */
+    private static void checkpointIfNeeded() {
+        try {
+            long logBytes = fileSize(".log");
+            String command = null;
+            try (Connection conn = DatabaseUtil.getConnection()) {
+                if (needsDefrag(conn)) {
+                    command = "CHECKPOINT DEFRAG";
+                } else if (logBytes >= LOG_THRESHOLD_BYTES) {
+                    command = "CHECKPOINT";
+                }
+                if (command == null) {
+                    return;
+                }
+
+                long idleMillis = System.currentTimeMillis() - lastSubmissionMillis.get();
+                if (idleMillis < IDLE_MS) {
+                    // 评教提交仍在进行，只提示一次，空闲后再执行
+                    if (!deferredReported) {
+                        System.out.printf("数据库维护：日志 %s，评教提交进行中，推迟 %s%n",
+                                StorageProfiles.formatBytes(logBytes), command);
+                        deferredReported = true;
+                    }
+                    return;
+                }
+                deferredReported = false;
+
+                long dataBytes = fileSize(".data");
+                long start = System.nanoTime();
+                try (Statement stmt = conn.createStatement()) {
+                    stmt.execute(command);
+                }
+                System.out.printf("数据库维护：%s 完成，耗时 %.1fms，日志 %s -> %s，数据文件 %s -> %s%n", command,
+                        (System.nanoTime() - start) / 1_000_000.0,
+                        StorageProfiles.formatBytes(logBytes), StorageProfiles.formatBytes(fileSize(".log")),
+                        StorageProfiles.formatBytes(dataBytes), StorageProfiles.formatBytes(fileSize(".data")));
+            }
+        } catch (SQLException e) {
+            System.err.println("数据库维护时数据库错误: " + e.getMessage());
+        } catch (RuntimeException e) {
+            // 异常会使定时任务停止，记录后继续下一轮检查
+            System.err.println("数据库维护失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 数据文件中因删除和更新而释放的空间是否过多
+     */
+    private static boolean needsDefrag(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            ResultSet rs = stmt.executeQuery(
+                    "SELECT file_lost_bytes, file_free_pos FROM information_schema.system_cacheinfo");
+            if (!rs.next()) {
+                return false;
+            }
+            long lostBytes = rs.getLong("file_lost_bytes");
+            long fileBytes = rs.getLong("file_free_pos");
+            return lostBytes >= DEFRAG_MIN_LOST_BYTES && lostBytes >= fileBytes * DEFRAG_LOST_RATIO;
+        }
+    }
+
+    private static long fileSize(String extension) {
+        File file = new File(DatabaseUtil.getDatabasePath() + extension);
+        return file.isFile() ? file.length() : 0;
+    }
+}
@@ -0,0 +1,123 @@
+package edu.ai.haut.util;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * 数据库模式迁移工具
+ * 按版本号顺序执行尚未应用的迁移，已应用的版本记录在schema_migrations表中。
+ * 注意HSQLDB中DDL语句会隐式提交，迁移应写成可重复执行的形式。
+ */
+public class SchemaMigrator {
+
+    /**
+     * 单个迁移的执行逻辑
+     */
+    @FunctionalInterface
+    public interface Migration {
+        void apply(Connection conn) throws SQLException;
+    }
+
+    private static final class Step {
+        private final int version;
+        private final String description;
+        private final Migration migration;
+
+        Step(int version, String description, Migration migration) {
+            this.version = version;
+            this.description = description;
+            this.migration = migration;
+        }
+    }
+
+    private final List<Step> steps = new ArrayList<>();
+
+    /**
+     * 注册迁移
+     */
+    public SchemaMigrator register(int version, String description, Migration migration) {
+        for (Step step : steps) {
+            if (step.version == version) {
+                throw new IllegalArgumentException("重复的迁移版本: " + version);
+            }
+        }
+        steps.add(new Step(version, description, migration));
+        return this;
+    }
+
+    /**
+     * 执行所有未应用的迁移
+     * 每个迁移在独立事务中执行，失败时回滚并停止后续迁移
+     * @return 本次应用的迁移数量
+     */
+    public int migrate(Connection conn) throws SQLException {
+        createVersionTable(conn);
+        int current = getCurrentVersion(conn);
+        steps.sort(Comparator.comparingInt(step -> step.version));
+
+        int applied = 0;
+        boolean autoCommit = conn.getAutoCommit();
+        try {
+            for (Step step : steps) {
+                if (step.version <= current) {
+                    continue;
+                }
+
+                long start = System.nanoTime();
+                conn.setAutoCommit(false);
+                try {
+                    step.migration.apply(conn);
+                    recordVersion(conn, step);
+                    conn.commit();
+                } catch (SQLException | RuntimeException e) {
+                    conn.rollback();
+                    throw new SQLException("执行数据库迁移 V" + step.version + "（" + step.description + "）失败", e);
+                }
+                System.out.printf("已应用数据库迁移 V%d：%s（%.1fms）%n",
+                        step.version, step.description, (System.nanoTime() - start) / 1_000_000.0);
+                applied++;
+            }
+        } finally {
+            conn.setAutoCommit(autoCommit);
+        }
+        return applied;
+    }
+
+    /**
+     * 获取当前数据库版本
+     */
+    public static int getCurrentVersion(Connection conn) throws SQLException {
+        String sql = "SELECT COALESCE(MAX(version), 0) FROM schema_migrations";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            ResultSet rs = pstmt.executeQuery();
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    private static void createVersionTable(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("""
+                CREATE TABLE IF NOT EXISTS schema_migrations (
+                    version INTEGER PRIMARY KEY,
+                    description VARCHAR(200) NOT NULL,
+                    applied_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+                )
+            """);
+        }
+    }
+
+    private static void recordVersion(Connection conn, Step step) throws SQLException {
+        String sql = "INSERT INTO schema_migrations (version, description) VALUES (?, ?)";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, step.version);
+            pstmt.setString(2, step.description);
+            pstmt.executeUpdate();
+        }
+    }
+}
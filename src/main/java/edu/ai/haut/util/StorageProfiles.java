@@ -0,0 +1,200 @@
+package edu.ai.haut.util;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 表存储配置
+ * MEMORY表在打开数据库时从.script文件整体读入堆内存，适合行数少、读取频繁的参考数据；
+ * CACHED表保存在.data文件中，只在容量有限的行缓存中保留最近使用的行，适合持续增长的评教数据。
+ * 这里声明各表的存储方式和CACHED表共用的缓存大小，启动时把类型不符的表转换过来。
+ * 以 -Ddb.storage.report=true 启动时还输出各存储方式的表数、行数、载入耗时和堆内存占用，
+ * 报告需要强制垃圾回收并逐表计数，默认不输出。
+ */
+public class StorageProfiles {
+
+    public static final String MEMORY = "MEMORY";
+    public static final String CACHED = "CACHED";
+
+    // CACHED表的行缓存上限，可通过系统属性覆盖（如 -Ddb.cache.rows=100000），修改后下次打开数据库时生效
+    private static final int CACHE_ROWS = Integer.getInteger("db.cache.rows", 50_000);
+    private static final int CACHE_SIZE_KB = Integer.getInteger("db.cache.sizeKb", 16_384);
+
+    private static final boolean REPORT_ENABLED = Boolean.parseBoolean(System.getProperty("db.storage.report", "false"));
+
+    /**
+     * 使用CACHED存储的表，未列出的表使用MEMORY
+     */
+    private static final Map<String, String> TABLE_PROFILES = new LinkedHashMap<>();
+
+    static {
+        TABLE_PROFILES.put("EVALUATIONS", CACHED);
+        TABLE_PROFILES.put("EVALUATION_SCORES", CACHED);
+        TABLE_PROFILES.put("EVALUATION_AGGREGATES", CACHED);
+    }
+
+    /**
+     * 获取表的存储方式，可直接用于 CREATE MEMORY/CACHED TABLE 语句
+     */
+    public static String profileOf(String tableName) {
+        return TABLE_PROFILES.getOrDefault(tableName.toUpperCase(), MEMORY);
+    }
+
+    /**
+     * 设置缓存大小，并把存储方式与配置不符的表转换过来
+     * 可重复执行，表已符合配置时不做任何修改
+     * @return 转换的表数量
+     */
+    public static int apply(Connection conn) throws SQLException {
+        applyCacheSettings(conn);
+
+        Map<String, String> currentTypes = new LinkedHashMap<>();
+        String sql = """
+            SELECT table_name, hsqldb_type FROM information_schema.system_tables
+            WHERE table_schem = 'PUBLIC' AND table_type = 'TABLE'
+        """;
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            ResultSet rs = pstmt.executeQuery();
+            while (rs.next()) {
+                currentTypes.put(rs.getString("table_name"), rs.getString("hsqldb_type"));
+            }
+        }
+
+        int converted = 0;
+        try (Statement stmt = conn.createStatement()) {
+            for (Map.Entry<String, String> entry : currentTypes.entrySet()) {
+                String target = profileOf(entry.getKey());
+                if (target.equals(entry.getValue())) {
+                    continue;
+                }
+                long start = System.nanoTime();
+                stmt.execute("SET TABLE " + entry.getKey() + " TYPE " + target);
+                System.out.printf("已将表 %s 由 %s 转换为 %s（%.1fms）%n", entry.getKey(), entry.getValue(), target,
+                        (System.nanoTime() - start) / 1_000_000.0);
+                converted++;
+            }
+        }
+        return converted;
+    }
+
+    private static void applyCacheSettings(Connection conn) throws SQLException {
+        Map<String, Integer> current = new LinkedHashMap<>();
+        String sql = """
+            SELECT property_name, property_value FROM information_schema.system_properties
+            WHERE property_name IN ('hsqldb.cache_rows', 'hsqldb.cache_size')
+        """;
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            ResultSet rs = pstmt.executeQuery();
+            while (rs.next()) {
+                current.put(rs.getString("property_name"), Integer.parseInt(rs.getString("property_value")));
+            }
+        }
+
+        try (Statement stmt = conn.createStatement()) {
+            if (current.getOrDefault("hsqldb.cache_rows", -1) != CACHE_ROWS) {
+                stmt.execute("SET FILES CACHE ROWS " + CACHE_ROWS);
+                System.out.println("已将缓存行数设置为 " + CACHE_ROWS + "，下次打开数据库时生效");
+            }
+            if (current.getOrDefault("hsqldb.cache_size", -1) != CACHE_SIZE_KB) {
+                stmt.execute("SET FILES CACHE SIZE " + CACHE_SIZE_KB);
+                System.out.println("已将缓存大小设置为 " + CACHE_SIZE_KB + "KB，下次打开数据库时生效");
+            }
+        }
+    }
+
+    /**
+     * 启动时是否输出存储报告
+     */
+    public static boolean isReportEnabled() {
+        return REPORT_ENABLED;
+    }
+
+    /**
+     * 当前已用堆内存（字节），先触发一次垃圾回收以减少误差
+     * 垃圾回收会暂停所有线程，只在输出存储报告时调用
+     */
+    public static long usedHeap() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        memory.gc();
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+
+    /**
+     * 输出各存储方式的表数、行数和内存占用
+     * MEMORY表在打开数据库时全部载入，其堆占用按打开前后的堆增量扣除CACHED表缓存估算；
+     * CACHED表按需读取，堆占用即当前行缓存的大小。
+     * @param openNanos 打开数据库（载入MEMORY表）的耗时
+     * @param heapBeforeOpen 打开数据库前的已用堆内存
+     */
+    public static void printReport(Connection conn, long openNanos, long heapBeforeOpen) throws SQLException {
+        Map<String, int[]> profiles = new LinkedHashMap<>();    // 存储方式 -> {表数, 行数}
+        profiles.put(MEMORY, new int[2]);
+        profiles.put(CACHED, new int[2]);
+
+        String tablesSql = """
+            SELECT table_name, hsqldb_type FROM information_schema.system_tables
+            WHERE table_schem = 'PUBLIC' AND table_type = 'TABLE'
+        """;
+        try (Statement stmt = conn.createStatement();
+             PreparedStatement pstmt = conn.prepareStatement(tablesSql)) {
+            ResultSet tables = pstmt.executeQuery();
+            while (tables.next()) {
+                int[] totals = profiles.computeIfAbsent(tables.getString("hsqldb_type"), type -> new int[2]);
+                ResultSet count = stmt.executeQuery("SELECT COUNT(*) FROM " + tables.getString("table_name"));
+                totals[0]++;
+                totals[1] += count.next() ? count.getInt(1) : 0;
+            }
+        }
+
+        long cacheRows = 0;
+        long cacheBytes = 0;
+        long maxCacheRows = 0;
+        long maxCacheBytes = 0;
+        long dataFileBytes = 0;
+        try (Statement stmt = conn.createStatement()) {
+            ResultSet rs = stmt.executeQuery("""
+                SELECT max_cache_count, max_cache_bytes, cache_size, cache_bytes, file_free_pos
+                FROM information_schema.system_cacheinfo
+            """);
+            if (rs.next()) {
+                maxCacheRows = rs.getLong("max_cache_count");
+                maxCacheBytes = rs.getLong("max_cache_bytes");
+                cacheRows = rs.getLong("cache_size");
+                cacheBytes = rs.getLong("cache_bytes");
+                dataFileBytes = rs.getLong("file_free_pos");
+            }
+        }
+
+        long heapAfter = usedHeap();
+        long maxHeap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getMax();
+        long memoryTableBytes = Math.max(0, heapAfter - heapBeforeOpen - cacheBytes);
+
+        int[] memory = profiles.get(MEMORY);
+        int[] cached = profiles.get(CACHED);
+        System.out.println("========== 存储配置 ==========");
+        System.out.printf("打开数据库 %.1fms（MEMORY表在此时载入），堆内存 %s -> %s（上限 %s）%n",
+                openNanos / 1_000_000.0, formatBytes(heapBeforeOpen), formatBytes(heapAfter), formatBytes(maxHeap));
+        System.out.printf("MEMORY: %d张表，%d行，估算堆占用 %s%n", memory[0], memory[1], formatBytes(memoryTableBytes));
+        System.out.printf("CACHED: %d张表，%d行，按需读取，缓存 %d/%d行 %s/%s，数据文件 %s%n",
+                cached[0], cached[1], cacheRows, maxCacheRows, formatBytes(cacheBytes), formatBytes(maxCacheBytes),
+                formatBytes(dataFileBytes));
+        System.out.println("==============================");
+    }
+
+    /**
+     * 把字节数格式化为KB或MB，供数据库维护和备份的日志共用
+     */
+    static String formatBytes(long bytes) {
+        if (bytes < 1024 * 1024) {
+            return String.format("%.1fKB", bytes / 1024.0);
+        }
+        return String.format("%.1fMB", bytes / (1024.0 * 1024.0));
+    }
+}
@@ -0,0 +1,289 @@
+package edu.ai.haut.service;
+
+import edu.ai.haut.model.Evaluation;
+import edu.ai.haut.model.EvaluationCriteria;
+import edu.ai.haut.service.EvaluationService.SubmitResult;
+import edu.ai.haut.util.DatabaseUtil;
+import edu.ai.haut.util.EvaluationAggregates;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 评教提交与统计报表并发测试
+ * 在target下的独立数据库中，让报表查询与大量评教提交同时进行，记录报表和提交的等待时间，
+ * 检查同一学生同一门课的并发提交只成功一次，且统计汇总表与评教记录保持一致。
+ */
+class EvaluationConcurrencyTest {
+
+    private static final Path DATA_DIR = Paths.get("target", "test-data", "concurrency");
+    private static final int STUDENTS_PER_CLASS = 150;
+    private static final int SUBMISSIONS = 600;
+    private static final int SUBMIT_THREADS = 6;
+    private static final int REPORT_THREADS = 3;
+    private static final int RACERS = 8;
+
+    private static final EvaluationService evaluationService = new EvaluationService();
+    private static final StatisticsService statisticsService = new StatisticsService();
+
+    private static String periodId;
+    private static Map<String, Integer> scores;
+
+    @BeforeAll
+    static void openTestDatabase() throws Exception {
+        deleteDirectory(DATA_DIR);
+        // 必须在DatabaseUtil加载前设置，否则会打开data目录下的正式数据库
+        System.setProperty("db.path", DATA_DIR.resolve("studentevaluation").toString());
+        System.setProperty("db.maintenance.enabled", "false");
+        assertTrue(DatabaseUtil.getDatabasePath().startsWith(DATA_DIR.toString()),
+                "测试数据库路径: " + DatabaseUtil.getDatabasePath());
+        DatabaseUtil.awaitReady();
+
+        periodId = evaluationService.getCurrentActivePeriod().getPeriodId();
+        scores = new HashMap<>();
+        for (EvaluationCriteria criteria : evaluationService.getAllEvaluationCriteria()) {
+            scores.put(criteria.getCriteriaId(), 80);
+        }
+
+        // 每个开课班级补充一批学生，保证有足够多尚未评教的学生和课程
+        List<Object[]> students = new ArrayList<>();
+        try (Connection conn = DatabaseUtil.getConnection();
+             Statement stmt = conn.createStatement()) {
+            ResultSet rs = stmt.executeQuery("SELECT DISTINCT class_id FROM course_offerings ORDER BY class_id");
+            int index = 0;
+            while (rs.next()) {
+                for (int i = 0; i < STUDENTS_PER_CLASS; i++) {
+                    students.add(new Object[]{"T" + index++, "测试学生", "男", "2023", "测试专业",
+                            rs.getString("class_id"), "123456"});
+                }
+            }
+        }
+        assertEquals(students.size(), DatabaseUtil.bulkInsert("students",
+                new String[]{"student_id", "name", "gender", "grade", "major", "class_id", "password"}, students));
+    }
+
+    @AfterAll
+    static void closeTestDatabase() {
+        DatabaseUtil.closeConnection();
+    }
+
+    @Test
+    void concurrentDuplicateSubmissionIsAcceptedOnce() throws Exception {
+        String[] pair = openPairs().get(0);
+
+        ExecutorService executor = Executors.newFixedThreadPool(RACERS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<SubmitResult>> futures = new ArrayList<>();
+        for (int i = 0; i < RACERS; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                return evaluationService.submitEvaluation(evaluation(pair));
+            }));
+        }
+        start.countDown();
+
+        Map<SubmitResult, Integer> results = new EnumMap<>(SubmitResult.class);
+        for (Future<SubmitResult> future : futures) {
+            results.merge(future.get(1, TimeUnit.MINUTES), 1, Integer::sum);
+        }
+        executor.shutdown();
+
+        assertEquals(Map.of(SubmitResult.ACCEPTED, 1, SubmitResult.DUPLICATE, RACERS - 1), results);
+        assertEquals(1, countEvaluations(pair));
+        assertAggregatesConsistent();
+    }
+
+    @Test
+    void reportsRunAlongsideSubmissionStorm() throws Exception {
+        List<String[]> pairs = openPairs();
+        Collections.shuffle(pairs, new Random(1));
+        int total = Math.min(SUBMISSIONS, pairs.size());
+        assertTrue(total >= SUBMISSIONS / 2, "可提交的评教不足: " + total);
+
+        // 报表线程持续查询，记录每次查询的耗时，其中包括等待评教提交释放锁的时间
+        AtomicBoolean stop = new AtomicBoolean();
+        List<Long> reportNanos = Collections.synchronizedList(new ArrayList<>());
+        ExecutorService reporters = Executors.newFixedThreadPool(REPORT_THREADS);
+        List<Future<?>> reportFutures = new ArrayList<>();
+        for (int t = 0; t < REPORT_THREADS; t++) {
+            int kind = t;
+            reportFutures.add(reporters.submit(() -> {
+                while (!stop.get()) {
+                    long begin = System.nanoTime();
+                    switch (kind) {
+                        case 0 -> assertNotNull(statisticsService.getStatisticsSnapshot(periodId));
+                        case 1 -> statisticsService.getTeacherEvaluationStatistics(periodId);
+                        default -> statisticsService.getCriteriaEvaluationStatistics(periodId);
+                    }
+                    reportNanos.add(System.nanoTime() - begin);
+                }
+                return null;
+            }));
+        }
+
+        AtomicInteger next = new AtomicInteger();
+        long[] submitNanos = new long[total];
+        Map<SubmitResult, AtomicInteger> results = new EnumMap<>(SubmitResult.class);
+        for (SubmitResult result : SubmitResult.values()) {
+            results.put(result, new AtomicInteger());
+        }
+        ExecutorService submitters = Executors.newFixedThreadPool(SUBMIT_THREADS);
+        List<Future<?>> submitFutures = new ArrayList<>();
+        for (int t = 0; t < SUBMIT_THREADS; t++) {
+            submitFutures.add(submitters.submit(() -> {
+                int i;
+                while ((i = next.getAndIncrement()) < total) {
+                    long begin = System.nanoTime();
+                    SubmitResult result = evaluationService.submitEvaluation(evaluation(pairs.get(i)));
+                    submitNanos[i] = System.nanoTime() - begin;
+                    results.get(result).incrementAndGet();
+                }
+                return null;
+            }));
+        }
+
+        // 提交进行到一半时重建统计汇总，期间的提交等待重建完成，不会漏计或重复计入
+        while (next.get() < total / 2) {
+            Thread.sleep(5);
+        }
+        Map<String, Object> rebuild = statisticsService.rebuildAggregateStatistics();
+
+        for (Future<?> future : submitFutures) {
+            future.get(5, TimeUnit.MINUTES);
+        }
+        stop.set(true);
+        for (Future<?> future : reportFutures) {
+            future.get(1, TimeUnit.MINUTES);
+        }
+        submitters.shutdown();
+        reporters.shutdown();
+
+        List<Long> reports = new ArrayList<>(reportNanos);
+        Collections.sort(reports);
+        long[] submits = submitNanos.clone();
+        Arrays.sort(submits);
+        System.out.printf("并发测试：提交 %d 次 %s，提交耗时 p50=%.1fms p99=%.1fms 最大=%.1fms；"
+                        + "报表 %d 次，耗时 p50=%.1fms 最大=%.1fms；重建 %s；%s%n",
+                total, results, millis(submits[total / 2]), millis(submits[total * 99 / 100]),
+                millis(submits[total - 1]), reports.size(), millis(reports.get(reports.size() / 2)),
+                millis(reports.get(reports.size() - 1)), rebuild, DatabaseUtil.getPoolStats());
+
+        int accepted = results.get(SubmitResult.ACCEPTED).get();
+        int failed = results.get(SubmitResult.ERROR).get();
+        assertEquals(total, accepted + failed, "各提交都是新的有效评教: " + results);
+        // 持续冲突超过重试次数的提交允许极少量失败，但失败的提交不能留下记录
+        assertTrue(failed <= total / 100, "提交失败过多: " + results);
+        assertEquals(accepted, countSubmitted(pairs.subList(0, total)));
+        assertTrue(rebuild.containsKey("mismatches"), "重建统计汇总失败");
+        assertTrue(reports.size() >= REPORT_THREADS, "报表查询没有与提交同时进行");
+        assertAggregatesConsistent();
+    }
+
+    private static Evaluation evaluation(String[] pair) {
+        Evaluation evaluation = new Evaluation();
+        evaluation.setStudentId(pair[0]);
+        evaluation.setOfferingId(pair[1]);
+        evaluation.setPeriodId(periodId);
+        evaluation.setScoreMap(scores);
+        evaluation.setTotalScore(80);
+        return evaluation;
+    }
+
+    /**
+     * 当前周期内测试学生尚未评教的{学号, 开课编号}
+     */
+    private static List<String[]> openPairs() throws SQLException {
+        List<String[]> pairs = new ArrayList<>();
+        String sql = """
+            SELECT s.student_id, co.offering_id FROM students s
+            JOIN course_offerings co ON co.class_id = s.class_id
+            WHERE s.student_id LIKE 'T%' AND NOT EXISTS (
+                SELECT 1 FROM evaluations e
+                WHERE e.student_id = s.student_id AND e.offering_id = co.offering_id AND e.period_id = ?)
+            ORDER BY s.student_id, co.offering_id
+            """;
+        try (Connection conn = DatabaseUtil.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, periodId);
+            ResultSet rs = pstmt.executeQuery();
+            while (rs.next()) {
+                pairs.add(new String[]{rs.getString("student_id"), rs.getString("offering_id")});
+            }
+        }
+        assertFalse(pairs.isEmpty(), "没有可提交的评教");
+        return pairs;
+    }
+
+    private static int countEvaluations(String[] pair) throws SQLException {
+        String sql = "SELECT COUNT(*) FROM evaluations WHERE student_id = ? AND offering_id = ? AND period_id = ?";
+        try (Connection conn = DatabaseUtil.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, pair[0]);
+            pstmt.setString(2, pair[1]);
+            pstmt.setString(3, periodId);
+            ResultSet rs = pstmt.executeQuery();
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+
+    private static int countSubmitted(List<String[]> pairs) throws SQLException {
+        int count = 0;
+        for (String[] pair : pairs) {
+            count += countEvaluations(pair);
+        }
+        return count;
+    }
+
+    private static void assertAggregatesConsistent() throws SQLException {
+        try (Connection conn = DatabaseUtil.getConnection()) {
+            assertEquals(List.of(), EvaluationAggregates.verify(conn));
+        }
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private static void deleteDirectory(Path dir) throws IOException {
+        if (!Files.exists(dir)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(dir)) {
+            paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+}
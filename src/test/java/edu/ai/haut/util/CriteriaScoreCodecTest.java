@@ -0,0 +1,93 @@
+package edu.ai.haut.util;
+
+import edu.ai.haut.model.CriteriaScores;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 评教指标分数编解码测试
+ */
+class CriteriaScoreCodecTest {
+
+    private static CriteriaScores sample() {
+        Map<String, Integer> map = new LinkedHashMap<>();
+        map.put("C001", 85);
+        map.put("C002", 100);
+        map.put("C003", 0);
+        map.put("C004", -1);
+        map.put("C005", Integer.MAX_VALUE);
+        map.put("C006", Integer.MIN_VALUE);
+        return CriteriaScores.fromMap(map);
+    }
+
+    @Test
+    void anyIntScoreIsKept() {
+        CriteriaScores scores = sample();
+        assertEquals(6, scores.size());
+        assertEquals(Integer.MIN_VALUE, scores.get("C006", 0));
+        assertEquals(-7, scores.get("C999", -7));
+    }
+
+    @Test
+    void binaryRoundTrip() {
+        CriteriaScores scores = sample();
+        CriteriaScores decoded = CriteriaScoreCodec.decode(CriteriaScoreCodec.encode(scores));
+        assertEquals(scores.toMap(), decoded.toMap());
+    }
+
+    @Test
+    void binaryRoundTripEmpty() {
+        CriteriaScores decoded = CriteriaScoreCodec.decode(CriteriaScoreCodec.encode(new CriteriaScores()));
+        assertTrue(decoded.isEmpty());
+        assertTrue(CriteriaScoreCodec.decode(null).isEmpty());
+    }
+
+    @Test
+    void jsonRoundTrip() {
+        CriteriaScores scores = CriteriaScores.fromMap(Map.of("C001", 85, "C002", 100, "C003", 0));
+        assertEquals(scores.toMap(), CriteriaScoreCodec.parse(CriteriaScoreCodec.format(scores)).toMap());
+        assertEquals(Map.of("C001", 85, "C002", 90),
+                CriteriaScoreCodec.parse("{\"C001\": 85, \"C002\":90}").toMap());
+    }
+
+    @Test
+    void parseSkipsScoresOutOfRange() {
+        assertEquals(Map.of("C001", 85, "C004", 60),
+                CriteriaScoreCodec.parse("{\"C001\":85,\"C002\":-1,\"C003\":101,\"C004\":60}").toMap());
+        // 长数字串不能溢出成范围内的值
+        assertTrue(CriteriaScoreCodec.parse("C001:4294967381").isEmpty());
+        assertTrue(CriteriaScoreCodec.parse("C001:" + "9".repeat(40)).isEmpty());
+    }
+
+    @Test
+    void encodeRejectsNonAsciiCriteriaId() {
+        CriteriaScores scores = new CriteriaScores();
+        scores.set("教学态度", 90);
+        assertThrows(IllegalArgumentException.class, () -> CriteriaScoreCodec.encode(scores));
+    }
+
+    @Test
+    void decodeRejectsTruncatedInput() {
+        byte[] data = CriteriaScoreCodec.encode(sample());
+        // 任意位置截断都应报告数据不完整，而不是数组越界
+        for (int length = 1; length < data.length; length++) {
+            byte[] truncated = Arrays.copyOf(data, length);
+            assertThrows(IllegalArgumentException.class, () -> CriteriaScoreCodec.decode(truncated),
+                    "截断长度 " + length);
+        }
+    }
+
+    @Test
+    void decodeRejectsUnknownVersionAndNonAsciiId() {
+        assertThrows(IllegalArgumentException.class, () -> CriteriaScoreCodec.decode(new byte[]{9, 0}));
+        byte[] nonAscii = {1, 1, 1, (byte) 0xE6, 2};
+        assertThrows(IllegalArgumentException.class, () -> CriteriaScoreCodec.decode(nonAscii));
+    }
+}